@@ -0,0 +1,92 @@
+package de.gurkenlabs.litiengine;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executes tasks on a bounded pool of worker threads and completes their futures on the thread that calls {@link #complete()}.
+ * <br>
+ * If all workers are busy and the queue of pending tasks is full, further tasks are rejected instead of blocking the submitting thread.
+ */
+final class AsyncTaskExecutor {
+  private final ThreadPoolExecutor workers;
+  private final Queue<Runnable> completions;
+
+  AsyncTaskExecutor(String name, int workerCount, int queueCapacity) {
+    this.completions = new ConcurrentLinkedQueue<>();
+    this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), new WorkerFactory(name), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  <T> CompletableFuture<T> submit(Supplier<T> task) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    final long submitted = System.nanoTime();
+    try {
+      this.workers.execute(() -> this.run(task, future, submitted));
+    } catch (RejectedExecutionException e) {
+      Game.metrics().trackAsyncTaskRejected();
+      this.completions.add(() -> future.completeExceptionally(e));
+    }
+
+    return future;
+  }
+
+  /**
+   * Completes the futures of all tasks that have finished since the last call, which executes their dependent callbacks on the calling thread.
+   */
+  void complete() {
+    Runnable completion;
+    while ((completion = this.completions.poll()) != null) {
+      completion.run();
+    }
+  }
+
+  int getPendingTasks() {
+    return this.workers.getQueue().size() + this.workers.getActiveCount();
+  }
+
+  void shutdown() {
+    this.workers.shutdownNow();
+  }
+
+  private <T> void run(Supplier<T> task, CompletableFuture<T> future, long submitted) {
+    // the task was cancelled while it was queued
+    if (future.isDone()) {
+      return;
+    }
+
+    final long start = System.nanoTime();
+    try {
+      final T result = task.get();
+      this.completions.add(() -> future.complete(result));
+    } catch (Throwable e) {
+      // errors need to complete the future as well, otherwise its callbacks would wait forever
+      this.completions.add(() -> future.completeExceptionally(e));
+    } finally {
+      Game.metrics().trackAsyncTask(start - submitted, System.nanoTime() - start);
+    }
+  }
+
+  private static class WorkerFactory implements ThreadFactory {
+    private final String name;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private WorkerFactory(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread worker = new Thread(r, this.name + " Worker " + this.count.incrementAndGet());
+      worker.setDaemon(true);
+      return worker;
+    }
+  }
+}
@@ -6,6 +6,7 @@ import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
@@ -74,12 +75,14 @@ public final class Game {
 
   public static final String COMMADLINE_ARG_RELEASE = "-release";
   public static final String COMMADLINE_ARG_NOGUI = "-nogui";
+  public static final String COMMADLINE_ARG_HEADLESS = "-headless";
 
   private static final Logger log = Logger.getLogger(Game.class.getName());
   private static final String LOGGING_CONFIG_FILE = "logging.properties";
 
   private static boolean debug = true;
   private static boolean noGUIMode = false;
+  private static boolean headless = false;
   private static final List<GameListener> gameListeners;
   private static final List<GameTerminatedListener> gameTerminatedListeners;
 
@@ -177,6 +180,27 @@ public final class Game {
     noGUIMode = noGui;
   }
 
+  /**
+   * This flag indicates whether the game runs headless, e.g. for automated tests, balancing simulations or on a server.
+   * This can only be set before the game has been initialized with the <code>Game.init(String...)</code> method.
+   * <p>
+   * In addition to the {@link #hideGUI(boolean)} mode, neither the <code>GameWindow</code> nor the <code>RenderLoop</code> are created and the
+   * <code>GameLoop</code> doesn't wait for the real time but processes its ticks as fast as possible (or at the configured simulation speed).
+   * The game time is still based on the processed ticks, so all game logic behaves exactly like it does when the game is played.
+   * </p>
+   * 
+   * @param runHeadless
+   *          If set to true, the game will run headless.
+   * @see ClientConfiguration#setSimulationSpeed(float)
+   * @see GameLoop#isSimulation()
+   */
+  public static void runHeadless(boolean runHeadless) {
+    headless = runHeadless;
+    if (runHeadless) {
+      hideGUI(true);
+    }
+  }
+
   /**
    * This flag globally controls the game's debugging state. If enabled, debugging functionality (e.g. rendering collision boxes)
    * can potentially be enabled in the configuration.
@@ -194,6 +218,10 @@ public final class Game {
     return noGUIMode;
   }
 
+  public static boolean isHeadless() {
+    return headless;
+  }
+
   /**
    * Gets the static meta information about this game.<br>
    * This can be used to define meta information about your game, like it's name, version or web site.<br>
@@ -465,21 +493,44 @@ public final class Game {
     Locale.setDefault(new Locale(config().client().getCountry(), config().client().getLanguage()));
 
     gameLoop = new GameLoop("Main Update Loop", config().client().getUpdaterate());
+    gameLoop.setFixedTimestep(config().client().useFixedTimestep());
+    gameLoop.setMaxCatchUpTicks(config().client().getMaxCatchUpTicks());
+    gameLoop.setFramePacing(config().client().getFramePacing());
+    gameLoop.setSpinWindow(TimeUnit.MICROSECONDS.toNanos(config().client().getSpinWindow()));
+    gameLoop.setSimulation(isHeadless());
+    gameLoop.setSimulationSpeed(config().client().getSimulationSpeed());
+    gameLoop.setAsyncQueueCapacity(config().client().getAsyncQueueCapacity());
+    if (config().client().getAsyncWorkers() > 0) {
+      gameLoop.setAsyncWorkers(config().client().getAsyncWorkers());
+    }
+
+    if (config().debug().profileUpdates()) {
+      metrics().getUpdateProfiler().setTrackInstances(config().debug().profileUpdateInstances());
+      gameLoop.setProfiler(metrics().getUpdateProfiler());
+    }
     loop().attach(physics());
     loop().attach(world());
 
     final ScreenManager scrMgr = new ScreenManager();
 
-    // setup default exception handling for render and update loop
-    renderLoop = new RenderLoop("Render Loop");
+    // a headless game neither renders nor displays anything
+    if (!isHeadless()) {
+      renderLoop = new RenderLoop("Render Loop");
+      renderLoop.setFramePacing(config().client().getFramePacing());
+      renderLoop.setSpinWindow(TimeUnit.MICROSECONDS.toNanos(config().client().getSpinWindow()));
+    }
 
+    // setup default exception handling for render and update loop
     setUncaughtExceptionHandler(new DefaultUncaughtExceptionHandler(config().client().exitOnError()));
 
     screenManager = scrMgr;
-    gameWindow = new GameWindow();
+    if (!isHeadless()) {
+      gameWindow = new GameWindow();
+
+      // initialize  the game window
+      window().init();
+    }
 
-    // initialize  the game window
-    window().init();
     world.setCamera(new Camera());
 
     // init logging
@@ -524,7 +575,10 @@ public final class Game {
 
   public static void setUncaughtExceptionHandler(UncaughtExceptionHandler uncaughtExceptionHandler) {
     gameLoop.setUncaughtExceptionHandler(uncaughtExceptionHandler);
-    renderLoop.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+    if (renderLoop != null) {
+      renderLoop.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+    }
+
     Thread.setDefaultUncaughtExceptionHandler(uncaughtExceptionHandler);
   }
 
@@ -647,5 +701,9 @@ public final class Game {
     if (ArrayUtilities.containsArgument(args, COMMADLINE_ARG_NOGUI)) {
       hideGUI(true);
     }
+
+    if (ArrayUtilities.containsArgument(args, COMMADLINE_ARG_HEADLESS)) {
+      runHeadless(true);
+    }
   }
 }
@@ -1,8 +1,7 @@
 package de.gurkenlabs.litiengine;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import de.gurkenlabs.litiengine.util.TimeUtilities;
 
@@ -17,12 +16,25 @@ public class GameLoop extends UpdateLoop implements IGameLoop, AutoCloseable {
    */
   public static final int TICK_DELTATIME_LAG = 67;
 
-  private static int executionIndex = -1;
+  /**
+   * The default number of ticks that are processed at most to catch up with the real time in the fixed timestep mode.
+   */
+  public static final int DEFAULT_MAX_CATCHUP_TICKS = 5;
+
+  /**
+   * The default number of async tasks that can wait for a free worker before further tasks are rejected.
+   */
+  public static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 256;
 
-  private final List<TimedAction> actions;
+  private final TimingWheel actions;
   private final int updateRate;
 
-  private long deltaTime;
+  private final Object asyncLock = new Object();
+  private volatile AsyncTaskExecutor asyncTasks;
+  private int asyncWorkers;
+  private int asyncQueueCapacity;
+
+  private double deltaTime;
 
   private long lastUpsTime;
 
@@ -31,11 +43,29 @@ public class GameLoop extends UpdateLoop implements IGameLoop, AutoCloseable {
 
   private int updateCount;
 
+  private volatile boolean simulation;
+  private volatile float simulationSpeed;
+
+  private volatile boolean fixedTimestep;
+  private int maxCatchUpTicks;
+  private long accumulator;
+  private long previousNanos;
+  private volatile long tickNanos;
+  private volatile long lastTickNanos;
+
   public GameLoop(String name, final int updateRate) {
     super(name);
-    this.actions = new CopyOnWriteArrayList<>();
+    this.actions = new TimingWheel();
     this.updateRate = updateRate;
     this.setTimeScale(1.0F);
+    this.setMaxCatchUpTicks(DEFAULT_MAX_CATCHUP_TICKS);
+    this.setAsyncWorkers(Runtime.getRuntime().availableProcessors() - 1);
+    this.setAsyncQueueCapacity(DEFAULT_ASYNC_QUEUE_CAPACITY);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> async(Supplier<T> task) {
+    return this.getAsyncTasks().submit(task);
   }
 
   @Override
@@ -56,15 +86,16 @@ public class GameLoop extends UpdateLoop implements IGameLoop, AutoCloseable {
   @Override
   public int execute(int delay, Runnable action) {
     final long d = this.convertToTicks(delay);
-
-    TimedAction a = new TimedAction(this.getTicks() + d, action);
-    this.actions.add(a);
-
-    return a.getIndex();
+    return this.actions.schedule(this.getTicks() + d, action);
   }
 
   @Override
   public long getDeltaTime() {
+    return (long) this.deltaTime;
+  }
+
+  @Override
+  public double getPreciseDeltaTime() {
     return this.deltaTime;
   }
 
@@ -73,6 +104,49 @@ public class GameLoop extends UpdateLoop implements IGameLoop, AutoCloseable {
     return this.convertToMs(this.totalTicks - ticks);
   }
 
+  /**
+   * Gets the progress from the last tick to the upcoming tick in the fixed timestep mode, ranging from 0 (last tick) to 1 (upcoming tick).
+   * <br>
+   * This allows to render an entity between its position of the previous tick and its position of the last tick.
+   * If the fixed timestep mode is disabled or the game is paused, this is always 1.
+   *
+   * @return The interpolation alpha between the previous and the last tick.
+   */
+  @Override
+  public float getInterpolationAlpha() {
+    final long tick = this.tickNanos;
+    if (!this.isFixedTimestep() || tick <= 0 || this.getTimeScale() <= 0) {
+      return 1;
+    }
+
+    return (float) Math.min(1.0, Math.max(0.0, (this.nanoTime() - this.lastTickNanos) / (double) tick));
+  }
+
+  /**
+   * Gets the speed at which the ticks are processed in the simulation mode.
+   *
+   * @return The simulation speed as a multiple of the real time; or 0 if the ticks are processed as fast as possible.
+   *
+   * @see #isSimulation()
+   */
+  public float getSimulationSpeed() {
+    return this.simulationSpeed;
+  }
+
+  /**
+   * Gets the number of async tasks that are currently executed or wait for a free worker.
+   *
+   * @return The number of pending async tasks.
+   */
+  public int getPendingAsyncTasks() {
+    final AsyncTaskExecutor executor = this.asyncTasks;
+    return executor != null ? executor.getPendingTasks() : 0;
+  }
+
+  public int getMaxCatchUpTicks() {
+    return this.maxCatchUpTicks;
+  }
+
   @Override
   public long getTicks() {
     return this.totalTicks;
@@ -88,37 +162,102 @@ public class GameLoop extends UpdateLoop implements IGameLoop, AutoCloseable {
     return this.updateRate;
   }
 
+  /**
+   * Determines whether this loop updates with a fixed timestep. In this mode, the ticks are processed in fixed intervals that are measured with
+   * nanosecond precision. Ticks that couldn't be processed in time (e.g. because a tick took too long) are caught up on, up to the
+   * {@link #getMaxCatchUpTicks()}.
+   * <br>
+   * The {@link #getPreciseDeltaTime()} of a tick is always the real duration of a tick in this mode. Since the ticks are processed more often
+   * at a higher time scale, this is the nominal duration of a tick divided by the {@link #getTimeScale()}.
+   *
+   * @return True if this loop updates with a fixed timestep; otherwise false.
+   */
+  public boolean isFixedTimestep() {
+    return this.fixedTimestep;
+  }
+
+  /**
+   * Determines whether this loop runs in the simulation mode. In this mode, the ticks are not bound to the real time but processed as fast as
+   * possible or at the {@link #getSimulationSpeed()}. This is e.g. used to run the game without a GUI for automated tests or balancing simulations.
+   * <br>
+   * The {@link #getPreciseDeltaTime()} of a tick is always the nominal duration of a tick divided by the {@link #getTimeScale()} in this mode,
+   * like it is in the fixed timestep mode. So the game time (e.g. {@link GameTime}) solely depends on the number of processed ticks and all game
+   * logic behaves like it does in real time.
+   *
+   * @return True if this loop runs in the simulation mode; otherwise false.
+   */
+  public boolean isSimulation() {
+    return this.simulation;
+  }
+
   @Override
   public void run() {
+    this.previousNanos = this.nanoTime();
     while (!interrupted()) {
-      final float scale = this.getTimeScale() > 0 ? this.getTimeScale() : 1;
-      final long tickWait = (long) (1.0 / (this.getUpdateRate() * scale) * 1000);
-      final long updateStart = System.nanoTime();
-
-      if (this.getTimeScale() > 0) {
-        ++this.totalTicks;
-        this.update();
-        this.executeTimedActions();
-      }
-
-      ++this.updateCount;
-
-      final long currentMillis = System.currentTimeMillis();
-      this.trackUpdateRate(currentMillis);
-
-      final long lastUpdateTime = currentMillis;
-      final long updateTime = (long) TimeUtilities.nanoToMs(System.nanoTime() - updateStart);
       try {
-        sleep(Math.max(0, tickWait - updateTime));
+        this.process();
       } catch (final InterruptedException e) {
         interrupt();
         break;
       }
-
-      this.deltaTime = System.currentTimeMillis() - lastUpdateTime + updateTime;
     }
   }
 
+  /**
+   * Sets the number of worker threads that execute the async tasks of this loop.
+   * This only has an effect before the first task is started.
+   *
+   * @param asyncWorkers
+   *          The number of worker threads.
+   *
+   * @see #async(Supplier)
+   */
+  public void setAsyncWorkers(int asyncWorkers) {
+    this.asyncWorkers = Math.max(1, asyncWorkers);
+  }
+
+  /**
+   * Sets the number of async tasks that can wait for a free worker before further tasks are rejected.
+   * This only has an effect before the first task is started.
+   *
+   * @param asyncQueueCapacity
+   *          The max number of waiting tasks.
+   *
+   * @see #async(Supplier)
+   */
+  public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+    this.asyncQueueCapacity = Math.max(1, asyncQueueCapacity);
+  }
+
+  public void setSimulation(boolean simulation) {
+    this.simulation = simulation;
+  }
+
+  /**
+   * Sets the speed at which the ticks are processed in the simulation mode, e.g. 10 processes the ticks ten times faster than in real time.
+   *
+   * @param simulationSpeed
+   *          The simulation speed as a multiple of the real time; 0 or less to process the ticks as fast as possible.
+   */
+  public void setSimulationSpeed(float simulationSpeed) {
+    this.simulationSpeed = Math.max(0, simulationSpeed);
+  }
+
+  public void setFixedTimestep(boolean fixedTimestep) {
+    this.fixedTimestep = fixedTimestep;
+  }
+
+  /**
+   * Sets the number of ticks that are processed at most to catch up with the real time in the fixed timestep mode.
+   * If the loop falls further behind, the remaining time is dropped and the game runs slower than the real time.
+   *
+   * @param maxCatchUpTicks
+   *          The max number of ticks that are processed in a row.
+   */
+  public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+    this.maxCatchUpTicks = Math.max(1, maxCatchUpTicks);
+  }
+
   @Override
   public void setTimeScale(final float timeScale) {
     this.timeScale = timeScale;
@@ -127,63 +266,153 @@ public class GameLoop extends UpdateLoop implements IGameLoop, AutoCloseable {
   @Override
   public void terminate() {
     this.interrupt();
+
+    final AsyncTaskExecutor executor = this.asyncTasks;
+    if (executor != null) {
+      executor.shutdown();
+    }
   }
 
   @Override
   public void updateExecutionTime(int index, long ticks) {
-    for (TimedAction action : this.actions) {
-      if (action.getIndex() == index) {
-        action.setExecutionTicks(ticks);
-      }
+    this.actions.reschedule(index, ticks);
+  }
+
+  @Override
+  public void cancel(int index) {
+    this.actions.cancel(index);
+  }
+
+  /**
+   * Processes one iteration of this loop in its current mode, including the wait for the next iteration.
+   *
+   * @throws InterruptedException
+   *           If this thread is interrupted while waiting.
+   */
+  void process() throws InterruptedException {
+    if (this.isSimulation()) {
+      this.runSimulation();
+    } else if (this.isFixedTimestep()) {
+      this.runFixedTimestep();
+    } else {
+      this.runVariableTimestep();
     }
   }
 
-  private void executeTimedActions() {
-    final List<TimedAction> executed = new ArrayList<>();
-    for (final TimedAction action : this.actions) {
-      if (action.getExecutionTick() <= this.totalTicks) {
+  /**
+   * Gets the current time of the clock that paces this loop.
+   *
+   * @return The current time in nanoseconds.
+   */
+  long nanoTime() {
+    return System.nanoTime();
+  }
 
-        action.getAction().run();
-        executed.add(action);
-      }
+  private void runVariableTimestep() throws InterruptedException {
+    final float scale = this.getTimeScale() > 0 ? this.getTimeScale() : 1;
+    final long tickWait = (long) (1_000_000_000.0 / (this.getUpdateRate() * scale));
+    final long updateStart = this.nanoTime();
+
+    if (this.getTimeScale() > 0) {
+      this.tick();
     }
 
-    this.actions.removeAll(executed);
+    ++this.updateCount;
+    this.trackUpdateRate(System.currentTimeMillis());
+
+    this.waitUntil(updateStart + tickWait);
+
+    final long updateEnd = this.nanoTime();
+    this.deltaTime = TimeUtilities.nanoToMs(updateEnd - updateStart);
+    this.previousNanos = updateEnd;
   }
 
-  private void trackUpdateRate(long currentMillis) {
-    if (currentMillis - this.lastUpsTime >= 1000) {
-      this.lastUpsTime = currentMillis;
-      Game.metrics().setUpdatesPerSecond(this.updateCount);
-      this.updateCount = 0;
+  private void runSimulation() throws InterruptedException {
+    final long updateStart = this.nanoTime();
+    final float scale = this.getTimeScale() > 0 ? this.getTimeScale() : 1;
+    if (this.getTimeScale() > 0) {
+      // the time scale is applied by the consumers of the delta time
+      this.deltaTime = 1000.0 / (this.getUpdateRate() * scale);
+      this.tick();
+    }
+
+    ++this.updateCount;
+    this.trackUpdateRate(System.currentTimeMillis());
+
+    // while the game is paused, there's nothing to catch up on, so the loop waits like it does in real time instead of spinning
+    final float speed = this.getTimeScale() > 0 ? this.getSimulationSpeed() : 1;
+    if (speed > 0) {
+      this.waitUntil(updateStart + (long) (1_000_000_000.0 / (this.getUpdateRate() * scale * speed)));
     }
+
+    this.previousNanos = this.nanoTime();
   }
 
-  private class TimedAction {
-    private final Runnable action;
-    private long execution;
-    private final int index;
+  private void runFixedTimestep() throws InterruptedException {
+    final float scale = this.getTimeScale() > 0 ? this.getTimeScale() : 1;
+    final long tick = (long) (1_000_000_000.0 / (this.getUpdateRate() * scale));
+    this.tickNanos = tick;
+
+    final long now = this.nanoTime();
+    this.accumulator = Math.min(this.accumulator + now - this.previousNanos, tick * this.getMaxCatchUpTicks());
+    this.previousNanos = now;
 
-    private TimedAction(final long execution, final Runnable action) {
-      this.execution = execution;
-      this.action = action;
-      this.index = ++executionIndex;
+    while (this.accumulator >= tick) {
+      this.accumulator -= tick;
+      this.lastTickNanos = this.nanoTime();
+      if (this.getTimeScale() > 0) {
+        // the time scale is applied by the consumers of the delta time
+        this.deltaTime = TimeUtilities.nanoToMs(tick);
+        this.tick();
+      }
+
+      ++this.updateCount;
     }
 
-    public Runnable getAction() {
-      return this.action;
+    this.trackUpdateRate(System.currentTimeMillis());
+
+    this.waitUntil(now + tick - this.accumulator);
+  }
+
+  private void tick() {
+    ++this.totalTicks;
+    this.completeAsyncTasks();
+    this.update();
+    this.executeTimedActions();
+  }
+
+  private void completeAsyncTasks() {
+    final AsyncTaskExecutor executor = this.asyncTasks;
+    if (executor != null) {
+      executor.complete();
     }
+  }
 
-    public long getExecutionTick() {
-      return this.execution;
+  private AsyncTaskExecutor getAsyncTasks() {
+    AsyncTaskExecutor executor = this.asyncTasks;
+    if (executor != null) {
+      return executor;
     }
 
-    public void setExecutionTicks(long ticks) {
-      this.execution = ticks;
+    // the workers are only started when the first task is submitted
+    synchronized (this.asyncLock) {
+      if (this.asyncTasks == null) {
+        this.asyncTasks = new AsyncTaskExecutor(this.getName(), this.asyncWorkers, this.asyncQueueCapacity);
+      }
+
+      return this.asyncTasks;
     }
+  }
+
+  private void executeTimedActions() {
+    this.actions.advance(this.totalTicks);
+  }
 
-    public int getIndex() {
-      return index;
+  private void trackUpdateRate(long currentMillis) {
+    if (currentMillis - this.lastUpsTime >= 1000) {
+      this.lastUpsTime = currentMillis;
+      Game.metrics().setUpdatesPerSecond(this.updateCount);
+      this.updateCount = 0;
     }
   }
 }
@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.gurkenlabs.litiengine.configuration.ClientConfiguration;
 import de.gurkenlabs.litiengine.graphics.IRenderable;
@@ -21,6 +22,10 @@ public final class GameMetrics implements IRenderable {
   private final List<Long> bytesReceived;
   private final List<Long> bytesSent;
   private final List<RenderMetrics> renderMetrics;
+  private final UpdateProfiler updateProfiler;
+  private final TimingHistogram asyncTaskTimes;
+  private final TimingHistogram asyncTaskWaitTimes;
+  private final AtomicLong asyncTasksRejected;
 
   private final Runtime runtime;
 
@@ -41,13 +46,49 @@ public final class GameMetrics implements IRenderable {
 
   private float usedMemory;
 
+  private final FrameTimes frameTimes;
+
   GameMetrics() {
     this.bytesSent = new CopyOnWriteArrayList<>();
     this.bytesReceived = new CopyOnWriteArrayList<>();
     this.renderMetrics = new CopyOnWriteArrayList<>();
+    this.updateProfiler = new UpdateProfiler();
+    this.asyncTaskTimes = new TimingHistogram();
+    this.asyncTaskWaitTimes = new TimingHistogram();
+    this.asyncTasksRejected = new AtomicLong();
+    this.frameTimes = new FrameTimes();
     this.runtime = Runtime.getRuntime();
   }
 
+  /**
+   * Gets the histogram of the times that the tasks which were started with <code>IGameLoop.async(Supplier)</code> took to execute.
+   * 
+   * @return The histogram of the async task execution times.
+   * 
+   * @see IGameLoop#async(java.util.function.Supplier)
+   */
+  public TimingHistogram getAsyncTaskTimes() {
+    return this.asyncTaskTimes;
+  }
+
+  /**
+   * Gets the histogram of the times that the async tasks waited for a free worker before they were executed.
+   * 
+   * @return The histogram of the async task wait times.
+   */
+  public TimingHistogram getAsyncTaskWaitTimes() {
+    return this.asyncTaskWaitTimes;
+  }
+
+  /**
+   * Gets the number of async tasks that have been rejected because all workers were busy and the task queue was full.
+   * 
+   * @return The number of rejected async tasks.
+   */
+  public long getAsyncTasksRejected() {
+    return this.asyncTasksRejected.get();
+  }
+
   public float getDownStreamInBytes() {
     return this.downStreamInBytes;
   }
@@ -56,6 +97,34 @@ public final class GameMetrics implements IRenderable {
     return this.framesPerSecond;
   }
 
+  /**
+   * Gets the mean time between two rendered frames during the last second.
+   * 
+   * @return The mean frame time in ms.
+   */
+  public double getFrameTimeMean() {
+    return this.frameTimes.mean;
+  }
+
+  /**
+   * Gets the standard deviation of the time between two rendered frames during the last second. The lower this value is, the more evenly the
+   * frames are paced.
+   * 
+   * @return The standard deviation of the frame time in ms.
+   */
+  public double getFrameTimeStandardDeviation() {
+    return Math.sqrt(this.frameTimes.variance);
+  }
+
+  /**
+   * Gets the variance of the time between two rendered frames during the last second.
+   * 
+   * @return The variance of the frame time in ms².
+   */
+  public double getFrameTimeVariance() {
+    return this.frameTimes.variance;
+  }
+
   public int getPackagesReceived() {
     return this.packagesReceived;
   }
@@ -68,6 +137,19 @@ public final class GameMetrics implements IRenderable {
     return this.ping;
   }
 
+  /**
+   * Gets the profiler that records the update times of the game loop's updatables if <code>dbg_profileUpdates = true</code>.
+   * The profiler can be polled for the p50, p99 and max update times per class of updatables, as well as for the slowest updatables of the last
+   * second.
+   * 
+   * @return The update profiler of the game loop.
+   * 
+   * @see UpdateProfiler#getSlowest(int)
+   */
+  public UpdateProfiler getUpdateProfiler() {
+    return this.updateProfiler;
+  }
+
   public long getUpdatesPerSecond() {
     return this.updatesPerSecond;
   }
@@ -92,6 +174,33 @@ public final class GameMetrics implements IRenderable {
     this.bytesSent.add(size);
   }
 
+  /**
+   * Tracks the times of an async task that has been executed.
+   * 
+   * @param waitNanos
+   *          The time in nanoseconds that the task waited for a free worker.
+   * @param executionNanos
+   *          The time in nanoseconds that the task took to execute.
+   */
+  public void trackAsyncTask(long waitNanos, long executionNanos) {
+    this.asyncTaskWaitTimes.record(waitNanos);
+    this.asyncTaskTimes.record(executionNanos);
+  }
+
+  public void trackAsyncTaskRejected() {
+    this.asyncTasksRejected.incrementAndGet();
+  }
+
+  /**
+   * Tracks the time that passed between the start of the previous frame and the start of the current frame.
+   * 
+   * @param nanos
+   *          The frame time in nanoseconds.
+   */
+  public void trackFrameTime(long nanos) {
+    this.frameTimes.record(nanos);
+  }
+
   public void trackRenderTime(String name, double renderTime, RenderInfo... infos) {
     this.renderMetrics.add(new RenderMetrics(name, renderTime, infos));
   }
@@ -109,6 +218,7 @@ public final class GameMetrics implements IRenderable {
     this.drawMetric(g, "fps       : " + this.getFramesPerSecond());
     this.drawMetric(g, "ups       : " + this.getUpdatesPerSecond());
     this.drawMetric(g, "max fps   : " + this.maxFramesPerSecond);
+    this.drawMetric(g, "frametime : " + String.format("%.2f ms (sd %.2f ms)", this.getFrameTimeMean(), this.getFrameTimeStandardDeviation()));
 
     // render jvm metrics if debug is enabled
     if (Game.config().debug().isDebugEnabled()) {
@@ -137,6 +247,24 @@ public final class GameMetrics implements IRenderable {
 
       this.renderMetrics.clear();
     }
+
+    // render the async tasks
+    if (this.asyncTaskTimes.getCount() > 0) {
+      this.drawTitle(g, "[async]");
+      this.drawMetric(g, "tasks     : " + this.asyncTaskTimes.getCount() + " (" + this.getAsyncTasksRejected() + " rejected)");
+      this.drawMetric(g, "time      : " + String.format("p50 %.2f ms, p99 %.2f ms", this.asyncTaskTimes.getPercentile(50) / 1e6, this.asyncTaskTimes.getPercentile(99) / 1e6));
+      this.drawMetric(g, "wait      : " + String.format("p50 %.2f ms, p99 %.2f ms", this.asyncTaskWaitTimes.getPercentile(50) / 1e6, this.asyncTaskWaitTimes.getPercentile(99) / 1e6));
+    }
+
+    // render the slowest updatables of the last second
+    if (Game.loop() != null && Game.loop().getProfiler() == this.updateProfiler) {
+      this.drawTitle(g, "[updates]");
+
+      for (UpdateProfiler.UpdateProfile profile : this.updateProfiler.getSlowest(5)) {
+        this.drawMetric(g, String.format("%-10.10s: %-4.4f ms (p99 %-4.4f ms)", profile.getName().substring(profile.getName().lastIndexOf('.') + 1),
+            profile.getLastSecondTotal() / 1e6, profile.getP99() / 1e6));
+      }
+    }
   }
 
   public void setFramesPerSecond(final int currentFramesPerSecond) {
@@ -206,6 +334,39 @@ public final class GameMetrics implements IRenderable {
     this.currentOffsetY += OFFSET_Y;
   }
 
+  /**
+   * Aggregates the frame times of one second with Welford's algorithm and publishes their mean and variance afterwards.
+   */
+  private static class FrameTimes {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private long windowTime;
+    private long count;
+    private double currentMean;
+    private double squaredDistances;
+
+    private volatile double mean;
+    private volatile double variance;
+
+    private void record(long nanos) {
+      final double ms = nanos / 1_000_000.0;
+      ++this.count;
+      final double delta = ms - this.currentMean;
+      this.currentMean += delta / this.count;
+      this.squaredDistances += delta * (ms - this.currentMean);
+
+      this.windowTime += nanos;
+      if (this.windowTime >= WINDOW_NANOS) {
+        this.mean = this.currentMean;
+        this.variance = this.count > 1 ? this.squaredDistances / (this.count - 1) : 0;
+        this.windowTime = 0;
+        this.count = 0;
+        this.currentMean = 0;
+        this.squaredDistances = 0;
+      }
+    }
+  }
+
   public class RenderMetrics {
     private final List<RenderInfo> renderInfo;
 
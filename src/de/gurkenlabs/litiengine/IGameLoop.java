@@ -1,15 +1,82 @@
 package de.gurkenlabs.litiengine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 public interface IGameLoop extends ILoop {
 
   public long convertToMs(final long ticks);
 
   public long convertToTicks(final int ms);
 
+  /**
+   * Executes the specified action after the specified delay on the game loop.
+   *
+   * @param delay
+   *          The delay in ms.
+   * @param action
+   *          The action to execute.
+   * @return The index of the scheduled action which allows to reschedule or cancel it.
+   */
   public int execute(int delay, Runnable action);
 
+  /**
+   * Executes the specified task on a worker thread and completes the returned future on the game loop's thread.
+   * <p>
+   * The future is completed at the start of the first tick after the task has finished, before any updatable is updated. Therefore, all callbacks
+   * that are attached with the non-async methods of the <code>CompletableFuture</code> are executed on the game loop and can safely access the
+   * <code>Environment</code>. The task itself must not access any state that is modified on the game loop.
+   * </p>
+   * <p>
+   * <i>If all workers are busy and too many tasks are pending, the future completes exceptionally with a
+   * <code>RejectedExecutionException</code>.</i>
+   * </p>
+   * <p>
+   * Implementations that don't have dedicated workers execute the task on the <code>ForkJoinPool.commonPool()</code> and complete the future
+   * with an action that is {@link #execute(int, Runnable) executed} on the game loop.
+   * </p>
+   *
+   * @param <T>
+   *          The type of the task's result.
+   * @param task
+   *          The task to execute, e.g. a path search or the serialization of a save game.
+   * @return The future that provides the result of the task on the game loop.
+   */
+  public default <T> CompletableFuture<T> async(Supplier<T> task) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    CompletableFuture.supplyAsync(task).whenComplete((result, error) -> this.execute(0, () -> {
+      if (error != null) {
+        future.completeExceptionally(error);
+      } else {
+        future.complete(result);
+      }
+    }));
+
+    return future;
+  }
+
+  /**
+   * Sets the tick at which the action with the specified index is executed.
+   *
+   * @param index
+   *          The index of the scheduled action.
+   * @param ticks
+   *          The tick at which the action is executed.
+   */
   public void updateExecutionTime(int index, long ticks);
 
+  /**
+   * Cancels the action with the specified index, if it hasn't been executed yet.
+   * <br>
+   * Implementations that can't remove scheduled actions postpone the action indefinitely instead, so it's never executed.
+   *
+   * @param index
+   *          The index of the scheduled action.
+   */
+  public default void cancel(int index) {
+    this.updateExecutionTime(index, Long.MAX_VALUE);
+  }
+
   /**
    * Gets the time that passed since the last tick in ms.
    *
@@ -17,6 +84,19 @@ public interface IGameLoop extends ILoop {
    */
   public long getDeltaTime();
 
+  /**
+   * Gets the time that passed since the last tick in ms with sub-millisecond precision.
+   * Prefer this over {@link #getDeltaTime()} for calculations that accumulate over many ticks, since the truncation to whole milliseconds
+   * would otherwise add up.
+   * <br>
+   * Implementations that don't measure the delta time more precisely return the {@link #getDeltaTime()}.
+   *
+   * @return The delta time in ms.
+   */
+  public default double getPreciseDeltaTime() {
+    return this.getDeltaTime();
+  }
+
   /**
    * Calculates the deltatime between the current game time and the specified
    * ticks in ms.
@@ -27,6 +107,18 @@ public interface IGameLoop extends ILoop {
    */
   public long getDeltaTime(final long ticks);
 
+  /**
+   * Gets the progress between the last tick and the upcoming tick, ranging from 0 to 1. This can be used to interpolate rendered positions between
+   * two ticks.
+   * <br>
+   * Implementations that don't support interpolation return 1, so everything is rendered at its location of the last tick.
+   *
+   * @return The interpolation alpha between the previous and the last tick.
+   */
+  public default float getInterpolationAlpha() {
+    return 1;
+  }
+
   public long getTicks();
 
   public float getTimeScale();
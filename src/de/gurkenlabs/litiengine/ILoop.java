@@ -1,6 +1,11 @@
 package de.gurkenlabs.litiengine;
 
 public interface ILoop extends ILaunchable {
+  /**
+   * The update phase of all updatables that are attached without specifying a phase.
+   */
+  public static final int DEFAULT_UPDATE_PHASE = 0;
+
   /**
    * Attaches the update method of the specified IUpdatable instance to be called
    * every tick. The tick rate can be configured in the client configuration and
@@ -11,10 +16,76 @@ public interface ILoop extends ILaunchable {
    */
   public void attach(final IUpdateable updatable);
 
+  /**
+   * Attaches the update method of the specified IUpdatable instance to be called every tick in the specified update phase.
+   * <p>
+   * The phases are updated one after another in ascending order. Updatables that are marked as parallel are updated concurrently to all other
+   * parallel updatables of their phase, so they must not depend on or modify any state that is shared with them.
+   * </p>
+   * <p>
+   * Implementations that don't support update phases attach the instance like {@link #attach(IUpdateable)} does.
+   * </p>
+   * 
+   * @param updatable
+   *          The instance that will be registered for the update event.
+   * @param phase
+   *          The update phase in which the instance is updated.
+   * @param parallel
+   *          True if the instance can safely be updated in parallel with other parallel updatables of the same phase.
+   * 
+   * @see #DEFAULT_UPDATE_PHASE
+   */
+  public default void attach(final IUpdateable updatable, final int phase, final boolean parallel) {
+    this.attach(updatable);
+  }
+
   /**
    * Detaches the specified instance from the game loop.
    * 
    * @param updatable The instance that will be unregistered for the update event.
    */
   public void detach(final IUpdateable updatable);
+
+  /**
+   * Gets the update phase that the specified instance is attached to.
+   * 
+   * @param updatable
+   *          The attached instance.
+   * @return The update phase of the instance; or the {@link #DEFAULT_UPDATE_PHASE} if it isn't attached.
+   */
+  public default int getUpdatePhase(final IUpdateable updatable) {
+    return DEFAULT_UPDATE_PHASE;
+  }
+
+  /**
+   * Determines whether the specified instance is attached as a parallel updatable.
+   * 
+   * @param updatable
+   *          The attached instance.
+   * @return True if the instance is updated in parallel with other parallel updatables of its phase; otherwise false.
+   */
+  public default boolean isParallel(final IUpdateable updatable) {
+    return false;
+  }
+
+  /**
+   * Gets the profiler that records the update times of the attached updatables.
+   * Implementations that don't support profiling return null.
+   * 
+   * @return The profiler of this loop; or null if the updates are not profiled.
+   */
+  public default UpdateProfiler getProfiler() {
+    return null;
+  }
+
+  /**
+   * Sets the profiler that records the update times of the attached updatables. Profiling is disabled by setting the profiler to null.
+   * Implementations that don't support profiling ignore this.
+   * 
+   * @param profiler
+   *          The profiler that records the update times.
+   */
+  public default void setProfiler(UpdateProfiler profiler) {
+    // profiling is optional
+  }
 }
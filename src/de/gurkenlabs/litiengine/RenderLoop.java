@@ -5,18 +5,30 @@ import de.gurkenlabs.litiengine.util.TimeUtilities;
 public class RenderLoop extends UpdateLoop {
 
   private int maxFps;
+  private float interpolationAlpha;
 
   public RenderLoop(String name) {
     super(name);
     this.maxFps = Game.config().client().getMaxFps();
+    this.interpolationAlpha = 1;
   }
 
   @Override
   public void run() {
+    long nextFrame = System.nanoTime();
+    long lastFrame = 0;
+    boolean firstFrame = true;
     while (!interrupted()) {
-      final long fpsWait = (long) (1000.0 / this.maxFps);
+      final long fpsWait = (long) (1_000_000_000.0 / this.maxFps);
       final long renderStart = System.nanoTime();
+      if (!firstFrame) {
+        Game.metrics().trackFrameTime(renderStart - lastFrame);
+      }
+
+      firstFrame = false;
+      lastFrame = renderStart;
       try {
+        this.interpolationAlpha = Game.loop().getInterpolationAlpha();
         Game.world().camera().updateFocus();
         this.update();
 
@@ -29,10 +41,9 @@ public class RenderLoop extends UpdateLoop {
           Game.metrics().trackRenderTime("total", renderTime);
         }
 
-        long wait = Math.max(0, fpsWait - (long) renderTime);
-        if (wait != 0) {
-          sleep(wait);
-        }
+        // schedule the frames in fixed intervals but don't try to catch up on frames that were missed
+        nextFrame = Math.max(nextFrame + fpsWait, System.nanoTime());
+        this.waitUntil(nextFrame);
       } catch (final InterruptedException e) {
         interrupt();
         break;
@@ -45,6 +56,18 @@ public class RenderLoop extends UpdateLoop {
     interrupt();
   }
 
+  /**
+   * Gets the interpolation alpha of the game loop at the beginning of the current frame. Using this value for the whole frame makes sure that all
+   * entities are interpolated consistently.
+   *
+   * @return The interpolation alpha of the current frame.
+   * 
+   * @see IGameLoop#getInterpolationAlpha()
+   */
+  public float getInterpolationAlpha() {
+    return this.interpolationAlpha;
+  }
+
   public int getMaxFps() {
     return maxFps;
   }
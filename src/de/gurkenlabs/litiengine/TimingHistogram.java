@@ -0,0 +1,112 @@
+package de.gurkenlabs.litiengine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of nanosecond timings with logarithmic buckets.
+ * <br>
+ * Every power of two is split into 8 linear sub-buckets, so the percentiles that are provided by this histogram have a relative error of at most
+ * 12.5% while recording a value only increments a single counter. The max value is tracked exactly.
+ */
+public final class TimingHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records the specified timing.
+   *
+   * @param nanos
+   *          The timing in nanoseconds; negative values are recorded as 0.
+   */
+  public void record(long nanos) {
+    final long value = Math.max(0, nanos);
+    this.buckets.incrementAndGet(bucket(value));
+    this.count.incrementAndGet();
+    this.total.addAndGet(value);
+
+    long currentMax = this.max.get();
+    while (value > currentMax && !this.max.compareAndSet(currentMax, value)) {
+      currentMax = this.max.get();
+    }
+  }
+
+  public long getCount() {
+    return this.count.get();
+  }
+
+  public long getTotal() {
+    return this.total.get();
+  }
+
+  public long getMax() {
+    return this.max.get();
+  }
+
+  public double getMean() {
+    final long currentCount = this.getCount();
+    return currentCount == 0 ? 0 : this.getTotal() / (double) currentCount;
+  }
+
+  /**
+   * Gets the timing below which the specified percentage of all recorded timings are located.
+   *
+   * @param percentile
+   *          The percentile, ranging from 0 to 100.
+   * @return The approximated timing of the percentile in nanoseconds; or 0 if no timings have been recorded.
+   */
+  public long getPercentile(double percentile) {
+    final long currentCount = this.getCount();
+    if (currentCount == 0) {
+      return 0;
+    }
+
+    final long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * currentCount));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += this.buckets.get(i);
+      if (seen >= target) {
+        return Math.min(value(i), this.getMax());
+      }
+    }
+
+    return this.getMax();
+  }
+
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      this.buckets.set(i, 0);
+    }
+
+    this.count.set(0);
+    this.total.set(0);
+    this.max.set(0);
+  }
+
+  private static int bucket(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long value(int bucket) {
+    if (bucket < SUB_BUCKET_COUNT) {
+      return bucket;
+    }
+
+    // the middle of the range that is covered by the bucket
+    final int shift = bucket / SUB_BUCKET_COUNT - 1;
+    final long lower = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+    return lower + ((1L << shift) >> 1);
+  }
+}
@@ -0,0 +1,189 @@
+package de.gurkenlabs.litiengine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timing wheel that holds the timed actions of a <code>GameLoop</code>.
+ * <br>
+ * Every slot of the wheel holds a linked list of the actions whose execution tick maps to the slot. Scheduling, rescheduling and cancelling an
+ * action is done in constant time and advancing the wheel by one tick only visits the actions in the slot of that tick.
+ * Actions that are due at the same tick are executed in the order in which they were scheduled.
+ * Actions that are scheduled more than one revolution ahead stay in their slot until their execution tick is reached.
+ */
+final class TimingWheel {
+  private static final Logger log = Logger.getLogger(TimingWheel.class.getName());
+  private static final int DEFAULT_SLOT_COUNT = 512;
+  private static final AtomicInteger executionIndex = new AtomicInteger(-1);
+
+  private final TimedAction[] slots;
+  private final TimedAction[] tails;
+  private final Map<Integer, TimedAction> actions;
+  private final List<TimedAction> expired;
+
+  private long processedTick;
+
+  TimingWheel() {
+    this(DEFAULT_SLOT_COUNT);
+  }
+
+  TimingWheel(int slotCount) {
+    if (Integer.bitCount(slotCount) != 1) {
+      throw new IllegalArgumentException("The number of slots of a timing wheel must be a power of two.");
+    }
+
+    this.slots = new TimedAction[slotCount];
+    this.tails = new TimedAction[slotCount];
+    this.actions = new HashMap<>();
+    this.expired = new ArrayList<>();
+  }
+
+  /**
+   * Schedules the specified action for the specified tick. Actions for ticks that have already been processed are executed with the upcoming tick.
+   *
+   * @param tick
+   *          The tick at which the action is executed.
+   * @param action
+   *          The action to execute.
+   * @return The index of the scheduled action.
+   */
+  synchronized int schedule(long tick, Runnable action) {
+    final TimedAction timedAction = new TimedAction(executionIndex.incrementAndGet(), tick, action);
+    this.actions.put(timedAction.index, timedAction);
+    this.link(timedAction);
+    return timedAction.index;
+  }
+
+  /**
+   * Moves the action with the specified index to the specified tick.
+   *
+   * @param index
+   *          The index of the action.
+   * @param tick
+   *          The new tick at which the action is executed.
+   * @return True if the action was rescheduled; false if there is no pending action with the specified index.
+   */
+  synchronized boolean reschedule(int index, long tick) {
+    final TimedAction timedAction = this.actions.get(index);
+    if (timedAction == null) {
+      return false;
+    }
+
+    this.unlink(timedAction);
+    timedAction.tick = tick;
+    this.link(timedAction);
+    return true;
+  }
+
+  /**
+   * Cancels the action with the specified index.
+   *
+   * @param index
+   *          The index of the action.
+   * @return True if the action was cancelled; false if there is no pending action with the specified index.
+   */
+  synchronized boolean cancel(int index) {
+    final TimedAction timedAction = this.actions.remove(index);
+    if (timedAction == null) {
+      return false;
+    }
+
+    this.unlink(timedAction);
+    return true;
+  }
+
+  synchronized int size() {
+    return this.actions.size();
+  }
+
+  /**
+   * Executes all actions that are due at the specified tick. The actions are executed outside of the lock of this wheel, so they can schedule
+   * further actions, which are executed with the upcoming tick at the earliest. An action that throws an exception doesn't prevent the other
+   * actions of the tick from being executed.
+   *
+   * @param tick
+   *          The tick that is processed.
+   */
+  void advance(long tick) {
+    synchronized (this) {
+      TimedAction current = this.slots[this.slot(tick)];
+      while (current != null) {
+        final TimedAction next = current.next;
+        if (current.tick <= tick) {
+          this.unlink(current);
+          this.actions.remove(current.index);
+          this.expired.add(current);
+        }
+
+        current = next;
+      }
+
+      this.processedTick = tick;
+    }
+
+    for (int i = 0; i < this.expired.size(); i++) {
+      try {
+        this.expired.get(i).action.run();
+      } catch (final Exception e) {
+        log.log(Level.SEVERE, e.getMessage(), e);
+      }
+    }
+
+    this.expired.clear();
+  }
+
+  private void link(TimedAction timedAction) {
+    final int slot = this.slot(Math.max(timedAction.tick, this.processedTick + 1));
+    timedAction.slot = slot;
+    timedAction.next = null;
+    timedAction.previous = this.tails[slot];
+    if (timedAction.previous != null) {
+      timedAction.previous.next = timedAction;
+    } else {
+      this.slots[slot] = timedAction;
+    }
+
+    this.tails[slot] = timedAction;
+  }
+
+  private void unlink(TimedAction timedAction) {
+    if (timedAction.previous != null) {
+      timedAction.previous.next = timedAction.next;
+    } else {
+      this.slots[timedAction.slot] = timedAction.next;
+    }
+
+    if (timedAction.next != null) {
+      timedAction.next.previous = timedAction.previous;
+    } else {
+      this.tails[timedAction.slot] = timedAction.previous;
+    }
+
+    timedAction.previous = null;
+    timedAction.next = null;
+  }
+
+  private int slot(long tick) {
+    return (int) (tick & (this.slots.length - 1));
+  }
+
+  private static final class TimedAction {
+    private final int index;
+    private final Runnable action;
+    private long tick;
+    private int slot;
+    private TimedAction previous;
+    private TimedAction next;
+
+    private TimedAction(int index, long tick, Runnable action) {
+      this.index = index;
+      this.tick = tick;
+      this.action = action;
+    }
+  }
+}
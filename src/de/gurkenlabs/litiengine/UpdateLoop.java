@@ -1,18 +1,35 @@
 package de.gurkenlabs.litiengine;
 
 import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import de.gurkenlabs.litiengine.configuration.FramePacing;
+
 public abstract class UpdateLoop extends Thread implements ILoop {
   private static final Logger log = Logger.getLogger(UpdateLoop.class.getName());
   private final Set<IUpdateable> updatables;
+  private final Map<IUpdateable, UpdatePhase> phaseLookup;
+  private final NavigableMap<Integer, UpdatePhase> phases;
+
+  private volatile UpdateProfiler profiler;
+  private volatile FramePacing framePacing;
+  private volatile long spinWindow;
 
   protected UpdateLoop(String name) {
     super(name);
     this.updatables = Collections.newSetFromMap(new ConcurrentHashMap<IUpdateable, Boolean>());
+    this.phaseLookup = new ConcurrentHashMap<>();
+    this.phases = new ConcurrentSkipListMap<>();
+    this.framePacing = FramePacing.SLEEP;
   }
 
   @Override
@@ -22,6 +39,11 @@ public abstract class UpdateLoop extends Thread implements ILoop {
 
   @Override
   public void attach(final IUpdateable updatable) {
+    this.attach(updatable, DEFAULT_UPDATE_PHASE, false);
+  }
+
+  @Override
+  public void attach(final IUpdateable updatable, final int phase, final boolean parallel) {
     if (updatable == null) {
       return;
     }
@@ -30,26 +52,244 @@ public abstract class UpdateLoop extends Thread implements ILoop {
       log.log(Level.FINE, "Updatable {0} already registered for update!", new Object[] { updatable });
       return;
     }
+
+    final UpdatePhase updatePhase = this.phases.computeIfAbsent(phase, UpdatePhase::new);
+    this.phaseLookup.put(updatable, updatePhase);
+    updatePhase.add(updatable, parallel);
   }
 
   @Override
   public void detach(final IUpdateable updatable) {
-    this.updatables.remove(updatable);
+    if (!this.updatables.remove(updatable)) {
+      return;
+    }
+
+    final UpdatePhase updatePhase = this.phaseLookup.remove(updatable);
+    if (updatePhase != null) {
+      updatePhase.remove(updatable);
+    }
+
+    final UpdateProfiler currentProfiler = this.profiler;
+    if (currentProfiler != null) {
+      currentProfiler.remove(updatable);
+    }
+  }
+
+  @Override
+  public int getUpdatePhase(final IUpdateable updatable) {
+    final UpdatePhase updatePhase = this.phaseLookup.get(updatable);
+    return updatePhase != null ? updatePhase.phase : DEFAULT_UPDATE_PHASE;
+  }
+
+  @Override
+  public boolean isParallel(final IUpdateable updatable) {
+    final UpdatePhase updatePhase = this.phaseLookup.get(updatable);
+    return updatePhase != null && updatePhase.parallel.contains(updatable);
+  }
+
+  public FramePacing getFramePacing() {
+    return this.framePacing;
+  }
+
+  /**
+   * Gets the time in nanoseconds before a deadline during which the {@link FramePacing#HYBRID} pacing yields the thread instead of parking it.
+   *
+   * @return The spin window in nanoseconds.
+   */
+  public long getSpinWindow() {
+    return this.spinWindow;
+  }
+
+  @Override
+  public UpdateProfiler getProfiler() {
+    return this.profiler;
+  }
+
+  @Override
+  public void setProfiler(UpdateProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  public void setFramePacing(FramePacing framePacing) {
+    this.framePacing = framePacing != null ? framePacing : FramePacing.SLEEP;
+  }
+
+  public void setSpinWindow(long spinWindow) {
+    this.spinWindow = Math.max(0, spinWindow);
   }
 
   protected Set<IUpdateable> getUpdatables() {
     return this.updatables;
   }
 
+  /**
+   * Updates all attached updatables, one phase after another in ascending order.
+   * <br>
+   * Within a phase, the serial updatables are updated on this loop's thread before the parallel updatables are distributed to the
+   * <code>ForkJoinPool</code>. The next phase doesn't start before all updatables of the current phase have been updated.
+   */
   protected void update() {
-    for (IUpdateable updatable : this.getUpdatables()) {
-      try {
-        if (updatable != null) {
-          updatable.update();
+    final UpdateProfiler currentProfiler = this.profiler;
+    for (UpdatePhase phase : this.phases.values()) {
+      for (IUpdateable updatable : phase.serial) {
+        update(updatable, currentProfiler);
+      }
+
+      final IUpdateable[] parallel = phase.getParallelUpdatables();
+      if (parallel.length == 1) {
+        update(parallel[0], currentProfiler);
+      } else if (parallel.length > 1) {
+        // split the updatables into a few tasks per worker so that the pool can balance updatables with different costs
+        final int threshold = Math.max(1, parallel.length / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        ForkJoinPool.commonPool().invoke(new UpdateTask(parallel, 0, parallel.length, threshold, currentProfiler));
+      }
+    }
+  }
+
+  /**
+   * Waits until the specified deadline is reached, using this loop's {@link FramePacing}.
+   *
+   * @param deadline
+   *          The <code>System.nanoTime()</code> until which this thread waits.
+   * @throws InterruptedException
+   *           If this thread is interrupted while waiting.
+   */
+  protected void waitUntil(long deadline) throws InterruptedException {
+    long remaining = deadline - System.nanoTime();
+    switch (this.getFramePacing()) {
+    case PARK:
+      park(deadline, remaining);
+      break;
+    case HYBRID:
+      park(deadline - this.getSpinWindow(), remaining - this.getSpinWindow());
+      while (deadline - System.nanoTime() > 0) {
+        if (interrupted()) {
+          throw new InterruptedException();
+        }
+
+        Thread.yield();
+      }
+      break;
+    case SLEEP:
+    default:
+      if (remaining > 0) {
+        sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+      }
+      break;
+    }
+  }
+
+  private static void park(long deadline, long remaining) throws InterruptedException {
+    // parkNanos can return early (e.g. spuriously), so it's repeated until the deadline is reached
+    while (remaining > 0) {
+      LockSupport.parkNanos(remaining);
+      if (interrupted()) {
+        throw new InterruptedException();
+      }
+
+      remaining = deadline - System.nanoTime();
+    }
+  }
+
+  private static void update(IUpdateable updatable, UpdateProfiler profiler) {
+    if (updatable == null) {
+      return;
+    }
+
+    final long start = profiler != null ? System.nanoTime() : 0;
+    try {
+      updatable.update();
+    } catch (final Exception e) {
+      log.log(Level.SEVERE, e.getMessage(), e);
+    }
+
+    if (profiler != null) {
+      profiler.record(updatable, start, System.nanoTime());
+    }
+  }
+
+  private static class UpdatePhase {
+    private static final IUpdateable[] EMPTY = new IUpdateable[0];
+
+    private final Set<IUpdateable> serial = Collections.newSetFromMap(new ConcurrentHashMap<IUpdateable, Boolean>());
+    private final Set<IUpdateable> parallel = Collections.newSetFromMap(new ConcurrentHashMap<IUpdateable, Boolean>());
+    private final int phase;
+    private volatile IUpdateable[] parallelSnapshot = EMPTY;
+
+    private UpdatePhase(int phase) {
+      this.phase = phase;
+    }
+
+    private void add(IUpdateable updatable, boolean parallelSafe) {
+      if (!parallelSafe) {
+        this.serial.add(updatable);
+        return;
+      }
+
+      synchronized (this) {
+        this.parallel.add(updatable);
+        this.parallelSnapshot = null;
+      }
+    }
+
+    private void remove(IUpdateable updatable) {
+      if (this.serial.remove(updatable)) {
+        return;
+      }
+
+      synchronized (this) {
+        if (this.parallel.remove(updatable)) {
+          this.parallelSnapshot = null;
+        }
+      }
+    }
+
+    private IUpdateable[] getParallelUpdatables() {
+      final IUpdateable[] snapshot = this.parallelSnapshot;
+      if (snapshot != null) {
+        return snapshot;
+      }
+
+      // the snapshot is only rebuilt after the parallel updatables have been attached or detached
+      synchronized (this) {
+        if (this.parallelSnapshot == null) {
+          this.parallelSnapshot = this.parallel.toArray(EMPTY);
+        }
+
+        return this.parallelSnapshot;
+      }
+    }
+  }
+
+  private static class UpdateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient IUpdateable[] updatables;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final transient UpdateProfiler profiler;
+
+    private UpdateTask(IUpdateable[] updatables, int from, int to, int threshold, UpdateProfiler profiler) {
+      this.updatables = updatables;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+      this.profiler = profiler;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= this.threshold) {
+        for (int i = this.from; i < this.to; i++) {
+          update(this.updatables[i], this.profiler);
         }
-      } catch (final Exception e) {
-        log.log(Level.SEVERE, e.getMessage(), e);
+
+        return;
       }
+
+      final int mid = (this.from + this.to) >>> 1;
+      invokeAll(new UpdateTask(this.updatables, this.from, mid, this.threshold, this.profiler), new UpdateTask(this.updatables, mid, this.to, this.threshold, this.profiler));
     }
   }
 }
@@ -0,0 +1,212 @@
+package de.gurkenlabs.litiengine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the time that is spent in the <code>update</code> method of the updatables of an <code>UpdateLoop</code>.
+ * <br>
+ * The timings are aggregated per class of updatables and, optionally, per updatable instance. Apart from a histogram of all recorded timings,
+ * every profile keeps track of the time that was spent during the last full second.
+ *
+ * @see ILoop#setProfiler(UpdateProfiler)
+ * @see GameMetrics#getUpdateProfiler()
+ */
+public final class UpdateProfiler {
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final Map<Class<?>, UpdateProfile> classProfiles = new ConcurrentHashMap<>();
+  private final Map<IUpdateable, UpdateProfile> instanceProfiles = new ConcurrentHashMap<>();
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+  private volatile boolean trackInstances;
+
+  /**
+   * Records the time that the specified updatable took to update.
+   *
+   * @param updatable
+   *          The updated instance.
+   * @param start
+   *          The <code>System.nanoTime()</code> before the update.
+   * @param end
+   *          The <code>System.nanoTime()</code> after the update.
+   */
+  public void record(IUpdateable updatable, long start, long end) {
+    final long nanos = end - start;
+    this.classProfiles.computeIfAbsent(updatable.getClass(), c -> new UpdateProfile(c.getName())).record(nanos);
+    if (this.isTrackingInstances()) {
+      this.instanceProfiles.computeIfAbsent(updatable, u -> new UpdateProfile(u.toString())).record(nanos);
+    }
+
+    final long currentWindowStart = this.windowStart.get();
+    if (end - currentWindowStart >= WINDOW_NANOS && this.windowStart.compareAndSet(currentWindowStart, end)) {
+      this.classProfiles.values().forEach(UpdateProfile::completeWindow);
+      this.instanceProfiles.values().forEach(UpdateProfile::completeWindow);
+    }
+  }
+
+  /**
+   * Gets the profiles of all classes of updatables that have been updated since profiling started.
+   *
+   * @return The profiles per class of updatables.
+   */
+  public Collection<UpdateProfile> getProfiles() {
+    return Collections.unmodifiableCollection(this.classProfiles.values());
+  }
+
+  /**
+   * Gets the profiles of all updatable instances that have been updated while instances were tracked.
+   *
+   * @return The profiles per updatable instance.
+   *
+   * @see #setTrackInstances(boolean)
+   */
+  public Collection<UpdateProfile> getInstanceProfiles() {
+    return Collections.unmodifiableCollection(this.instanceProfiles.values());
+  }
+
+  public UpdateProfile getProfile(Class<? extends IUpdateable> cls) {
+    return this.classProfiles.get(cls);
+  }
+
+  public UpdateProfile getProfile(IUpdateable updatable) {
+    return this.instanceProfiles.get(updatable);
+  }
+
+  /**
+   * Gets the profiles that spent the most time updating during the last full second.
+   * If instances are tracked, the instance profiles are reported; otherwise the class profiles.
+   *
+   * @param count
+   *          The max number of profiles to return.
+   * @return The slowest profiles of the last second, starting with the slowest one.
+   */
+  public List<UpdateProfile> getSlowest(int count) {
+    final List<UpdateProfile> profiles = new ArrayList<>(this.isTrackingInstances() ? this.instanceProfiles.values() : this.classProfiles.values());
+    profiles.removeIf(p -> p.getLastSecondCount() == 0);
+    profiles.sort(Comparator.comparingLong(UpdateProfile::getLastSecondTotal).reversed());
+    return profiles.subList(0, Math.min(Math.max(0, count), profiles.size()));
+  }
+
+  public boolean isTrackingInstances() {
+    return this.trackInstances;
+  }
+
+  /**
+   * Removes the profile of the specified updatable instance, e.g. because it's not updated anymore.
+   *
+   * @param updatable
+   *          The updatable whose profile is removed.
+   */
+  public void remove(IUpdateable updatable) {
+    this.instanceProfiles.remove(updatable);
+  }
+
+  public void reset() {
+    this.classProfiles.clear();
+    this.instanceProfiles.clear();
+    this.windowStart.set(System.nanoTime());
+  }
+
+  /**
+   * Sets whether the timings are additionally tracked per updatable instance. This allows to find single slow instances, but has a larger
+   * overhead than tracking the timings per class.
+   *
+   * @param trackInstances
+   *          True if the timings should be tracked per instance.
+   */
+  public void setTrackInstances(boolean trackInstances) {
+    this.trackInstances = trackInstances;
+    if (!trackInstances) {
+      this.instanceProfiles.clear();
+    }
+  }
+
+  public static final class UpdateProfile {
+    private final String name;
+    private final TimingHistogram histogram;
+    private final AtomicLong windowTotal = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+    private final AtomicLong windowMax = new AtomicLong();
+
+    private volatile long lastSecondTotal;
+    private volatile long lastSecondCount;
+    private volatile long lastSecondMax;
+
+    private UpdateProfile(String name) {
+      this.name = name;
+      this.histogram = new TimingHistogram();
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    /**
+     * Gets the histogram of all timings that have been recorded for this profile.
+     *
+     * @return The histogram of this profile.
+     */
+    public TimingHistogram getHistogram() {
+      return this.histogram;
+    }
+
+    public long getP50() {
+      return this.histogram.getPercentile(50);
+    }
+
+    public long getP99() {
+      return this.histogram.getPercentile(99);
+    }
+
+    public long getMax() {
+      return this.histogram.getMax();
+    }
+
+    /**
+     * Gets the total time in nanoseconds that was spent updating during the last full second.
+     *
+     * @return The total update time of the last second.
+     */
+    public long getLastSecondTotal() {
+      return this.lastSecondTotal;
+    }
+
+    public long getLastSecondCount() {
+      return this.lastSecondCount;
+    }
+
+    public long getLastSecondMax() {
+      return this.lastSecondMax;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: p50 %.3f ms, p99 %.3f ms, max %.3f ms", this.getName(), this.getP50() / 1e6, this.getP99() / 1e6, this.getMax() / 1e6);
+    }
+
+    private void record(long nanos) {
+      this.histogram.record(nanos);
+      this.windowTotal.addAndGet(nanos);
+      this.windowCount.incrementAndGet();
+
+      long currentMax = this.windowMax.get();
+      while (nanos > currentMax && !this.windowMax.compareAndSet(currentMax, nanos)) {
+        currentMax = this.windowMax.get();
+      }
+    }
+
+    private void completeWindow() {
+      this.lastSecondTotal = this.windowTotal.getAndSet(0);
+      this.lastSecondCount = this.windowCount.getAndSet(0);
+      this.lastSecondMax = this.windowMax.getAndSet(0);
+    }
+  }
+}
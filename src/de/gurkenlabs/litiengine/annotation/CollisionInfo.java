@@ -21,5 +21,19 @@ public @interface CollisionInfo {
 
   float collisionBoxWidth() default -1;
 
+  /**
+   * The collision layers that the entity belongs to as a bit mask.
+   *
+   * @return the collision layer bits
+   */
+  int collisionLayer() default 1;
+
+  /**
+   * The collision layers that the entity collides with as a bit mask. By default, the entity collides with all layers.
+   *
+   * @return the collision mask
+   */
+  int collisionMask() default -1;
+
   Valign valign() default Valign.DOWN;
 }
@@ -17,6 +17,13 @@ public @interface MovementInfo {
 
   boolean turnOnMove() default true;
 
+  /**
+   * Determines whether the collision box of the entity is swept along its movement to prevent it from passing through other collision boxes.
+   *
+   * @return true, if the entity uses continuous collision
+   */
+  boolean continuousCollision() default false;
+
   /**
    * The velocity in pixels per second.
    *
@@ -20,6 +20,20 @@ public class ClientConfiguration extends ConfigurationGroup {
 
   private boolean exitOnError;
 
+  private boolean fixedTimestep;
+
+  private int maxCatchUpTicks;
+
+  private FramePacing framePacing;
+
+  private int spinWindow;
+
+  private float simulationSpeed;
+
+  private int asyncWorkers;
+
+  private int asyncQueueCapacity;
+
   /**
    * Instantiates a new client configuration.
    */
@@ -29,6 +43,13 @@ public class ClientConfiguration extends ConfigurationGroup {
     this.setMaxFps(60);
     this.setShowGameMetrics(false);
     this.setExitOnError(false);
+    this.setFixedTimestep(false);
+    this.setMaxCatchUpTicks(5);
+    this.setFramePacing(FramePacing.SLEEP);
+    this.setSpinWindow(1000);
+    this.setSimulationSpeed(0);
+    this.setAsyncWorkers(0);
+    this.setAsyncQueueCapacity(256);
 
     this.setLanguage(Locale.getDefault().getLanguage());
     this.setCountry(Locale.getDefault().getCountry());
@@ -108,6 +129,91 @@ public class ClientConfiguration extends ConfigurationGroup {
     this.updaterate = updaterate;
   }
 
+  /**
+   * Sets whether the game loop should update with a fixed timestep and catch up on ticks that couldn't be processed in time.
+   *
+   * @param fixedTimestep
+   *          True if the game loop should use a fixed timestep; otherwise false.
+   * 
+   * @see de.gurkenlabs.litiengine.GameLoop#isFixedTimestep()
+   */
+  public void setFixedTimestep(boolean fixedTimestep) {
+    this.fixedTimestep = fixedTimestep;
+  }
+
+  public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+    if (maxCatchUpTicks < 1) {
+      return;
+    }
+
+    this.maxCatchUpTicks = maxCatchUpTicks;
+  }
+
+  /**
+   * Sets the strategy with which the game loop and the render loop wait for their next tick or frame.
+   *
+   * @param framePacing
+   *          The frame pacing strategy.
+   */
+  public void setFramePacing(FramePacing framePacing) {
+    this.framePacing = framePacing;
+  }
+
+  /**
+   * Sets the time before a tick or frame during which the {@link FramePacing#HYBRID} pacing yields the thread instead of parking it.
+   *
+   * @param spinWindow
+   *          The spin window in microseconds.
+   */
+  public void setSpinWindow(int spinWindow) {
+    if (spinWindow < 0) {
+      return;
+    }
+
+    this.spinWindow = spinWindow;
+  }
+
+  /**
+   * Sets the speed at which the game loop processes its ticks when the game runs headless.
+   *
+   * @param simulationSpeed
+   *          The simulation speed as a multiple of the real time; 0 to process the ticks as fast as possible.
+   * 
+   * @see de.gurkenlabs.litiengine.Game#runHeadless(boolean)
+   * @see de.gurkenlabs.litiengine.GameLoop#setSimulationSpeed(float)
+   */
+  public void setSimulationSpeed(float simulationSpeed) {
+    if (simulationSpeed < 0) {
+      return;
+    }
+
+    this.simulationSpeed = simulationSpeed;
+  }
+
+  /**
+   * Sets the number of worker threads that execute the async tasks of the game loop.
+   *
+   * @param asyncWorkers
+   *          The number of worker threads; 0 to use one worker less than the number of available processors.
+   * 
+   * @see de.gurkenlabs.litiengine.IGameLoop#async(java.util.function.Supplier)
+   */
+  public void setAsyncWorkers(int asyncWorkers) {
+    if (asyncWorkers < 0) {
+      return;
+    }
+
+    this.asyncWorkers = asyncWorkers;
+  }
+
+  public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+    if (asyncQueueCapacity < 1) {
+      return;
+    }
+
+    this.asyncQueueCapacity = asyncQueueCapacity;
+  }
+
   public void setExitOnError(boolean exit) {
     this.exitOnError = exit;
   }
@@ -116,6 +222,44 @@ public class ClientConfiguration extends ConfigurationGroup {
     return this.showGameMetrics;
   }
 
+  public boolean useFixedTimestep() {
+    return this.fixedTimestep;
+  }
+
+  public int getMaxCatchUpTicks() {
+    return this.maxCatchUpTicks;
+  }
+
+  /**
+   * Gets the strategy that the game and render loops use to wait for their next tick. Defaults to {@link FramePacing#SLEEP}.
+   *
+   * @return The frame pacing of the loops.
+   */
+  public FramePacing getFramePacing() {
+    return this.framePacing;
+  }
+
+  /**
+   * Gets the spin window of the {@link FramePacing#HYBRID} pacing.
+   *
+   * @return The spin window in microseconds.
+   */
+  public int getSpinWindow() {
+    return this.spinWindow;
+  }
+
+  public float getSimulationSpeed() {
+    return this.simulationSpeed;
+  }
+
+  public int getAsyncWorkers() {
+    return this.asyncWorkers;
+  }
+
+  public int getAsyncQueueCapacity() {
+    return this.asyncQueueCapacity;
+  }
+
   public boolean exitOnError() {
     return this.exitOnError;
   }
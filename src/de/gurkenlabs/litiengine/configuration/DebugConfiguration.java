@@ -24,6 +24,10 @@ public class DebugConfiguration extends ConfigurationGroup {
 
   private boolean trackRenderTimes = false;
 
+  private boolean profileUpdates = false;
+
+  private boolean profileUpdateInstances = false;
+
   /**
    * Checks if is debug enabled.
    *
@@ -94,6 +98,21 @@ public class DebugConfiguration extends ConfigurationGroup {
   public boolean trackRenderTimes() {
     return this.isDebugEnabled() && this.trackRenderTimes;
   }
+
+  /**
+   * Checks if the update times of the game loop's updatables are recorded.
+   *
+   * @return true, if the updates are profiled
+   * 
+   * @see de.gurkenlabs.litiengine.GameMetrics#getUpdateProfiler()
+   */
+  public boolean profileUpdates() {
+    return this.isDebugEnabled() && this.profileUpdates;
+  }
+
+  public boolean profileUpdateInstances() {
+    return this.profileUpdates() && this.profileUpdateInstances;
+  }
   
   public void setDebugEnabled(final boolean debugEnabled) {
     this.debugEnabled = debugEnabled;
@@ -134,4 +153,12 @@ public class DebugConfiguration extends ConfigurationGroup {
   public void setTrackRenderTimes(boolean trackRenderTimes) {
     this.trackRenderTimes = trackRenderTimes;
   }
+
+  public void setProfileUpdates(boolean profileUpdates) {
+    this.profileUpdates = profileUpdates;
+  }
+
+  public void setProfileUpdateInstances(boolean profileUpdateInstances) {
+    this.profileUpdateInstances = profileUpdateInstances;
+  }
 }
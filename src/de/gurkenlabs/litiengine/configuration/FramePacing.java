@@ -0,0 +1,22 @@
+package de.gurkenlabs.litiengine.configuration;
+
+/**
+ * Determines how the game loop and the render loop wait for their next tick or frame.
+ */
+public enum FramePacing {
+  /**
+   * Waits with <code>Thread.sleep</code>, which has a granularity of a millisecond or worse on most systems.
+   */
+  SLEEP,
+
+  /**
+   * Waits with <code>LockSupport.parkNanos</code>, which is more precise than sleeping without using any CPU time while waiting.
+   */
+  PARK,
+
+  /**
+   * Parks the thread until the spin window before the deadline is reached and yields the thread for the rest of the time.
+   * This is the most precise strategy but keeps a CPU core busy during the spin window.
+   */
+  HYBRID;
+}
@@ -25,6 +25,12 @@ public class GraphicConfiguration extends ConfigurationGroup {
 
   private boolean colorInterpolation;
 
+  private boolean asyncColorLayers;
+
+  private LightingBackend lightingBackend;
+
+  private int lightmapCellSize;
+
   /**
    * Instantiates a new graphic configuration.
    */
@@ -38,6 +44,8 @@ public class GraphicConfiguration extends ConfigurationGroup {
     this.setReduceFramesWhenNotFocused(true);
     this.setAntiAliasing(false);
     this.setColorInterpolation(false);
+    this.setLightingBackend(LightingBackend.AREA);
+    this.setLightmapCellSize(1);
   }
 
   /**
@@ -94,6 +102,30 @@ public class GraphicConfiguration extends ConfigurationGroup {
     return this.colorInterpolation;
   }
 
+  /**
+   * Checks whether the dirty sections of color layers, like the ambient light, are re-rendered by a worker of the game loop instead of the
+   * render thread.
+   *
+   * @return true, if color layers are updated asynchronously
+   */
+  public boolean asyncColorLayers() {
+    return this.asyncColorLayers;
+  }
+
+  public LightingBackend getLightingBackend() {
+    return this.lightingBackend;
+  }
+
+  /**
+   * Gets the size of a cell of the lightmap that is used by the {@link LightingBackend#RASTER} backend, in pixels.
+   * A size of 1 renders the lights per pixel, larger sizes render them at a lower resolution and scale them up.
+   *
+   * @return the size of a lightmap cell in pixels
+   */
+  public int getLightmapCellSize() {
+    return this.lightmapCellSize;
+  }
+
   /**
    * Sets the fullscreen.
    *
@@ -153,4 +185,16 @@ public class GraphicConfiguration extends ConfigurationGroup {
   public void setColorInterpolation(boolean colorInterpolation) {
     this.colorInterpolation = colorInterpolation;
   }
+
+  public void setAsyncColorLayers(boolean asyncColorLayers) {
+    this.asyncColorLayers = asyncColorLayers;
+  }
+
+  public void setLightingBackend(LightingBackend lightingBackend) {
+    this.lightingBackend = lightingBackend != null ? lightingBackend : LightingBackend.AREA;
+  }
+
+  public void setLightmapCellSize(int lightmapCellSize) {
+    this.lightmapCellSize = Math.max(1, lightmapCellSize);
+  }
 }
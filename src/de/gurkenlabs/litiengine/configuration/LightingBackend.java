@@ -0,0 +1,17 @@
+package de.gurkenlabs.litiengine.configuration;
+
+/**
+ * Determines how the ambient light of an environment renders its light sources and the shadows that static shadows cast into them.
+ */
+public enum LightingBackend {
+  /**
+   * Renders lights as gradient filled shapes and cuts the shadows out of them with <code>java.awt.geom.Area</code> operations.
+   */
+  AREA,
+
+  /**
+   * Rasterizes lights and shadow volumes directly into an <code>int[]</code> lightmap, one row of tiles per task on all cores.
+   * This avoids the costly shape operations if many static shadows lie within the lights.
+   */
+  RASTER;
+}
@@ -11,6 +11,9 @@ import de.gurkenlabs.litiengine.environment.tilemap.TmxProperty;
 
 @CollisionInfo(collision = true)
 public abstract class CollisionEntity extends Entity implements ICollisionEntity {
+  public static final int DEFAULT_COLLISION_LAYER = 1;
+  public static final int ALL_COLLISION_LAYERS = -1;
+
   private static final double HEIGHT_FACTOR = 0.4;
 
   private static final double WIDTH_FACTOR = 0.4;
@@ -29,6 +32,12 @@ public abstract class CollisionEntity extends Entity implements ICollisionEntity
 
   @TmxProperty(name = MapObjectProperty.COLLISION_VALIGN)
   private Valign valign = Valign.DOWN;
+
+  @TmxProperty(name = MapObjectProperty.COLLISION_LAYER)
+  private int collisionLayer;
+
+  @TmxProperty(name = MapObjectProperty.COLLISION_MASK)
+  private int collisionMask;
   
   private Rectangle2D collisionBox;
 
@@ -38,6 +47,8 @@ public abstract class CollisionEntity extends Entity implements ICollisionEntity
     this.collisionBoxWidth = info.collisionBoxWidth();
     this.collisionBoxHeight = info.collisionBoxHeight();
     this.collision = info.collision();
+    this.collisionLayer = info.collisionLayer();
+    this.collisionMask = info.collisionMask();
     this.setCollisionBoxValign(info.valign());
     this.setCollisionBoxAlign(info.align());
     this.collisionBox = this.getCollisionBox(this.getLocation());
@@ -78,10 +89,7 @@ public abstract class CollisionEntity extends Entity implements ICollisionEntity
    */
   @Override
   public Rectangle2D getCollisionBox(final Point2D location) {
-    final double newCollisionBoxWidth = this.getCollisionBoxWidth() != -1 ? this.getCollisionBoxWidth() : this.getWidth() * WIDTH_FACTOR;
-    final double newCollisionBoxHeight = this.getCollisionBoxHeight() != -1 ? this.getCollisionBoxHeight() : this.getHeight() * HEIGHT_FACTOR;
-
-    return getCollisionBox(location, this.getWidth(), this.getHeight(), newCollisionBoxWidth, newCollisionBoxHeight, this.getCollisionBoxAlign(), this.getCollisionBoxValign());
+    return this.getCollisionBox(location, this.getWidth(), this.getHeight());
   }
 
   @Override
@@ -94,6 +102,16 @@ public abstract class CollisionEntity extends Entity implements ICollisionEntity
     return this.collisionBoxWidth;
   }
 
+  @Override
+  public int getCollisionLayer() {
+    return this.collisionLayer;
+  }
+
+  @Override
+  public int getCollisionMask() {
+    return this.collisionMask;
+  }
+
   @Override
   public Point2D getCollisionBoxCenter() {
     return new Point2D.Double(this.getCollisionBox().getCenterX(), this.getCollisionBox().getCenterY());
@@ -129,47 +147,70 @@ public abstract class CollisionEntity extends Entity implements ICollisionEntity
   public void setCollisionBoxAlign(final Align align) {
     this.align = align;
     this.collisionBox = this.getCollisionBox(this.getLocation());
+    this.fireSizeChangedEvent();
   }
 
   @Override
   public void setCollisionBoxHeight(final float collisionBoxHeight) {
     this.collisionBoxHeight = collisionBoxHeight;
     this.collisionBox = this.getCollisionBox(this.getLocation());
+    this.fireSizeChangedEvent();
   }
 
   @Override
   public void setCollisionBoxValign(final Valign valign) {
     this.valign = valign;
     this.collisionBox = this.getCollisionBox(this.getLocation());
+    this.fireSizeChangedEvent();
+  }
+
+  @Override
+  public void setCollisionLayer(final int collisionLayer) {
+    this.collisionLayer = collisionLayer;
+  }
+
+  @Override
+  public void setCollisionMask(final int collisionMask) {
+    this.collisionMask = collisionMask;
   }
 
   @Override
   public void setCollisionBoxWidth(final float collisionBoxWidth) {
     this.collisionBoxWidth = collisionBoxWidth;
     this.collisionBox = this.getCollisionBox(this.getLocation());
+    this.fireSizeChangedEvent();
   }
 
+  // the collision box is updated before the base implementation is called, so that transform listeners are provided with the new collision box;
+  // changing the dimensions or alignment of the collision box fires a size changed event for the same reason
   @Override
   public void setLocation(final Point2D location) {
+    this.collisionBox = this.getCollisionBox(location);
     super.setLocation(location);
-    this.collisionBox = this.getCollisionBox(this.getLocation());
   }
 
   @Override
   public void setSize(final float width, final float height) {
+    this.collisionBox = this.getCollisionBox(this.getLocation(), width, height);
     super.setSize(width, height);
-    this.collisionBox = this.getCollisionBox(this.getLocation());
   }
 
   @Override
   public void setHeight(final float height) {
+    this.collisionBox = this.getCollisionBox(this.getLocation(), this.getWidth(), height);
     super.setHeight(height);
-    this.collisionBox = this.getCollisionBox(this.getLocation());
   }
 
   @Override
   public void setWidth(final float width) {
+    this.collisionBox = this.getCollisionBox(this.getLocation(), width, this.getHeight());
     super.setWidth(width);
-    this.collisionBox = this.getCollisionBox(this.getLocation());
+  }
+
+  private Rectangle2D getCollisionBox(final Point2D location, final double width, final double height) {
+    final double newCollisionBoxWidth = this.getCollisionBoxWidth() != -1 ? this.getCollisionBoxWidth() : width * WIDTH_FACTOR;
+    final double newCollisionBoxHeight = this.getCollisionBoxHeight() != -1 ? this.getCollisionBoxHeight() : height * HEIGHT_FACTOR;
+
+    return getCollisionBox(location, width, height, newCollisionBoxWidth, newCollisionBoxHeight, this.getCollisionBoxAlign(), this.getCollisionBoxValign());
   }
 }
@@ -22,6 +22,7 @@ public class Creature extends CombatEntity implements IMobileEntity {
   private long lastMoved;
   private Point2D moveDestination;
   private boolean turnOnMove;
+  private boolean continuousCollision;
   private Attribute<Float> velocity;
   private String spritePrefix;
 
@@ -40,6 +41,7 @@ public class Creature extends CombatEntity implements IMobileEntity {
       this.acceleration = movementInfo.acceleration();
       this.deceleration = movementInfo.deceleration();
       this.setTurnOnMove(movementInfo.turnOnMove());
+      this.setContinuousCollision(movementInfo.continuousCollision());
     }
 
     if (spritePrefix != null) {
@@ -165,6 +167,16 @@ public class Creature extends CombatEntity implements IMobileEntity {
     return this.turnOnMove;
   }
 
+  @Override
+  public void setContinuousCollision(final boolean continuousCollision) {
+    this.continuousCollision = continuousCollision;
+  }
+
+  @Override
+  public boolean hasContinuousCollision() {
+    return this.continuousCollision;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
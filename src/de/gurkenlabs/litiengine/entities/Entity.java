@@ -6,6 +6,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
@@ -302,12 +303,24 @@ public abstract class Entity implements IEntity {
    */
   @Override
   public void setMapId(final int mapId) {
+    final int previousMapId = this.mapId;
     this.mapId = mapId;
+    if (previousMapId != mapId) {
+      for (EntityListener listener : this.listeners) {
+        listener.mapIdChanged(this, previousMapId);
+      }
+    }
   }
 
   @Override
   public void setName(final String name) {
+    final String previousName = this.name;
     this.name = name;
+    if (!Objects.equals(previousName, name)) {
+      for (EntityListener listener : this.listeners) {
+        listener.nameChanged(this, previousName);
+      }
+    }
   }
 
   @Override
@@ -422,7 +435,7 @@ public abstract class Entity implements IEntity {
     this.properties = attributes;
   }
 
-  private void fireSizeChangedEvent() {
+  protected void fireSizeChangedEvent() {
     for (EntityTransformListener listener : this.transformListeners) {
       listener.sizeChanged(this);
     }
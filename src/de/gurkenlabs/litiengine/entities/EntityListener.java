@@ -9,4 +9,30 @@ public interface EntityListener extends EventListener {
   public void loaded(IEntity entity, IEnvironment environment);
 
   public void removed(IEntity entity, IEnvironment environment);
+
+  /**
+   * This method is called whenever the name of an <code>IEntity</code> was changed.
+   * 
+   * @param entity
+   *          The entity that was renamed.
+   * @param previousName
+   *          The name of the entity before it was renamed.
+   * 
+   * @see IEntity#setName(String)
+   */
+  public default void nameChanged(IEntity entity, String previousName) {
+  }
+
+  /**
+   * This method is called whenever the map id of an <code>IEntity</code> was changed.
+   * 
+   * @param entity
+   *          The entity whose map id was changed.
+   * @param previousMapId
+   *          The map id of the entity before it was changed.
+   * 
+   * @see IEntity#setMapId(int)
+   */
+  public default void mapIdChanged(IEntity entity, int previousMapId) {
+  }
 }
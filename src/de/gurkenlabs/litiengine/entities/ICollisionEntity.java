@@ -7,6 +7,17 @@ import de.gurkenlabs.litiengine.Align;
 import de.gurkenlabs.litiengine.Valign;
 
 public interface ICollisionEntity extends IEntity {
+  /**
+   * Determines whether this entity can collide with the specified entity. This is an optional fine-grained hook that is only called if the
+   * collision layers of both entities already match.
+   * 
+   * @param otherEntity
+   *          The other entity.
+   * @return True if this entity can collide with the other entity; otherwise false.
+   * 
+   * @see #getCollisionLayer()
+   * @see #getCollisionMask()
+   */
   public boolean canCollideWith(ICollisionEntity otherEntity);
 
   /**
@@ -40,6 +51,31 @@ public interface ICollisionEntity extends IEntity {
 
   public float getCollisionBoxWidth();
 
+  /**
+   * Gets the collision layers that this entity belongs to as a bit mask.
+   * <p>
+   * Implementations that don't support collision layers belong to the {@link CollisionEntity#DEFAULT_COLLISION_LAYER}.
+   * </p>
+   * 
+   * @return The collision layer bits of this entity.
+   */
+  public default int getCollisionLayer() {
+    return CollisionEntity.DEFAULT_COLLISION_LAYER;
+  }
+
+  /**
+   * Gets the collision layers that this entity collides with as a bit mask. Two entities only collide if the layer of each of them is included in
+   * the mask of the other one.
+   * <p>
+   * Implementations that don't support collision layers collide with {@link CollisionEntity#ALL_COLLISION_LAYERS}.
+   * </p>
+   * 
+   * @return The collision mask of this entity.
+   */
+  public default int getCollisionMask() {
+    return CollisionEntity.ALL_COLLISION_LAYERS;
+  }
+
   /**
    * Checks for collision.
    *
@@ -62,4 +98,22 @@ public interface ICollisionEntity extends IEntity {
   public void setCollisionBoxAlign(final Align align);
 
   public void setCollisionBoxValign(final Valign valign);
+
+  /**
+   * Sets the collision layers that this entity belongs to. Implementations that don't support collision layers ignore this.
+   * 
+   * @param collisionLayer
+   *          The collision layer bits of this entity.
+   */
+  public default void setCollisionLayer(final int collisionLayer) {
+  }
+
+  /**
+   * Sets the collision layers that this entity collides with. Implementations that don't support collision layers ignore this.
+   * 
+   * @param collisionMask
+   *          The collision mask of this entity.
+   */
+  public default void setCollisionMask(final int collisionMask) {
+  }
 }
@@ -91,4 +91,22 @@ public interface IMobileEntity extends ICollisionEntity {
    * @return true, if the entity will change its angle to the direction of the move destination when being moved
    */
   public boolean turnOnMove();
+
+  /**
+   * Sets the continuous collision parameter for this entity. It specifies if the collision box of the entity is swept along its movement to detect
+   * collisions on the way instead of only checking the new location.
+   *
+   * @param continuousCollision
+   *          the new continuous collision parameter.
+   */
+  public void setContinuousCollision(boolean continuousCollision);
+
+  /**
+   * Gets the continuous collision parameter for this entity. Continuous collision prevents fast entities (e.g. projectiles) from passing through
+   * collision boxes that are smaller than their movement per tick. Instead, they are stopped at the contact point and slide along the hit collision
+   * box.
+   *
+   * @return true, if the collision box of this entity is swept along its movement.
+   */
+  public boolean hasContinuousCollision();
 }
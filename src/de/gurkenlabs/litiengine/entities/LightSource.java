@@ -3,15 +3,14 @@ package de.gurkenlabs.litiengine.entities;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Paint;
-import java.awt.Point;
-import java.awt.Polygon;
 import java.awt.RadialGradientPaint;
 import java.awt.Shape;
-import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.util.function.Predicate;
+import java.util.ArrayList;
+import java.util.List;
 
 import de.gurkenlabs.litiengine.Game;
 import de.gurkenlabs.litiengine.annotation.EntityInfo;
@@ -20,7 +19,6 @@ import de.gurkenlabs.litiengine.environment.tilemap.TmxProperty;
 import de.gurkenlabs.litiengine.graphics.IRenderable;
 import de.gurkenlabs.litiengine.graphics.RenderType;
 import de.gurkenlabs.litiengine.graphics.ShapeRenderer;
-import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
 
 @EntityInfo(renderType = RenderType.GROUND)
 public class LightSource extends Entity implements IRenderable {
@@ -32,6 +30,11 @@ public class LightSource extends Entity implements IRenderable {
 
   private static final float OBSTRUCTED_VISION_RADIUS = 200f;
   private static final float SHADOW_GRADIENT_SIZE = 100f;
+  /**
+   * The number of values that describe the shadow of one entity: the four corners of its shadow quad, followed by the bounds of its shadow
+   * ellipse.
+   */
+  private static final int SHADOW_STRIDE = 12;
   /**
    * The fractions for our shadow gradient, going from 0.0 (black) to 1.0
    * (transparent).
@@ -202,78 +205,125 @@ public class LightSource extends Entity implements IRenderable {
     return null;
   }
 
-  private static Ellipse2D getShadowEllipse(final IEntity entity) {
-    final int shadowHeight = (int) (entity.getHeight() / 4);
-    final int shadowWidth = (int) (entity.getWidth() / 3);
+  /**
+   * Computes the shadows that the specified entities cast away from the origin of a light in one pass and combines them into a single path.
+   * <p>
+   * The shadow of an entity is the union of an ellipse at its feet and a quad that is extruded from the ellipse away from the origin. All
+   * subpaths of the returned path have the same orientation, so filling it with the non-zero winding rule fills the union of all shadows
+   * without constructing any <code>Area</code>.
+   * </p>
+   *
+   * @param origin
+   *          The origin of the light, in the same coordinates as the entities.
+   * @param entities
+   *          The entities that cast shadows.
+   * @return The path that contains the shadows of all entities.
+   */
+  static Path2D getShadows(final Point2D origin, final List<? extends IEntity> entities) {
+    final double[] shadows = new double[entities.size() * SHADOW_STRIDE];
+    for (int i = 0; i < entities.size(); i++) {
+      computeShadow(origin, entities.get(i), shadows, i * SHADOW_STRIDE);
+    }
 
-    final int yOffset = (int) entity.getHeight();
-    final double x = entity.getX() + (entity.getWidth() - shadowWidth) / 2;
-    final double y = entity.getY() + yOffset - shadowHeight / 2.0;
-    return new Ellipse2D.Double(x, y, shadowWidth, shadowHeight);
-  }
+    final Path2D path = new Path2D.Double(Path2D.WIND_NON_ZERO, entities.size() * 10);
+    final Ellipse2D ellipse = new Ellipse2D.Double();
+    for (int offset = 0; offset < shadows.length; offset += SHADOW_STRIDE) {
+      // the ellipse's path winds clockwise on the screen, so the quad needs to wind clockwise as well
+      final boolean clockwise = getSignedArea(shadows, offset) >= 0;
+      path.moveTo(shadows[offset], shadows[offset + 1]);
+      for (int corner = 1; corner < 4; corner++) {
+        final int index = offset + (clockwise ? corner : 4 - corner) * 2;
+        path.lineTo(shadows[index], shadows[index + 1]);
+      }
 
-  private static Predicate<? super IEntity> isInRange(final Point2D center, final float radius) {
-    return mob -> new Ellipse2D.Double(center.getX() - radius, center.getY() - radius, radius * 2, radius * 2).contains(mob.getCenter());
-  }
+      path.closePath();
 
-  private Area getObstructedVisionArea(final IEntity mob, final Point2D center) {
-    final Polygon shadowPolygon = new Polygon();
+      ellipse.setFrame(shadows[offset + 8], shadows[offset + 9], shadows[offset + 10], shadows[offset + 11]);
+      path.append(ellipse, false);
+    }
 
-    final Ellipse2D shadowEllipse = getShadowEllipse(mob);
+    return path;
+  }
 
-    final Rectangle2D bounds = shadowEllipse.getBounds2D();
+  /**
+   * Writes the shadow quad A, B, D, C and the shadow ellipse of the specified entity to the array, starting at the specified offset.
+   */
+  private static void computeShadow(final Point2D origin, final IEntity entity, final double[] shadows, final int offset) {
+    final int shadowHeight = (int) (entity.getHeight() / 4);
+    final int shadowWidth = (int) (entity.getWidth() / 3);
+    final double ellipseX = entity.getX() + (entity.getWidth() - shadowWidth) / 2;
+    final double ellipseY = entity.getY() + (int) entity.getHeight() - shadowHeight / 2.0;
 
     // radius of Entity's bounding circle
-    final float r = (float) bounds.getWidth() / 2f;
-    final float ry = (float) bounds.getHeight() / 2f;
-
-    // get relative center of entity
-    final Point2D relativeCenter = Game.world().camera().getViewportLocation(new Point((int) (bounds.getX() + r), (int) (bounds.getY() + ry)));
-    final double cx = relativeCenter.getX();
-    final double cy = relativeCenter.getY();
+    final double r = shadowWidth / 2.0;
+    final double ry = shadowHeight / 2.0;
 
     // get direction from light to entity center
-    final double dx = cx - center.getX();
-    final double dy = cy - center.getY();
-
-    // get euclidean distance from entity to center
-    final double distSq = dx * dx + dy * dy; // avoid sqrt for performance
+    final double cx = ellipseX + r;
+    final double cy = ellipseY + ry;
+    final double dx = cx - origin.getX();
+    final double dy = cy - origin.getY();
 
     // normalize the direction to a unit vector
-    final float len = (float) Math.sqrt(distSq);
-    double nx = dx;
-    double ny = dy;
-    if (len != 0) { // avoid division by 0
-      nx /= len;
-      ny /= len;
-    }
-
-    // get perpendicular of unit vector
-    final double px = -ny;
-    final double py = nx;
+    final double len = Math.sqrt(dx * dx + dy * dy);
+    final double nx = len != 0 ? dx / len : dx;
+    final double ny = len != 0 ? dy / len : dy;
 
     // our perpendicular points in either direction from radius
-    final Point2D.Double pointA = new Point2D.Double(cx - px * r, cy - py * ry);
-    final Point2D.Double pointB = new Point2D.Double(cx + px * r, cy + py * ry);
+    final double ax = cx + ny * r;
+    final double ay = cy - nx * ry;
+    final double bx = cx - ny * r;
+    final double by = cy + nx * ry;
+
+    // project the points away from the origin by the obstructed vision radius, like GeometricUtilities.project does
+    final double lengthA = Math.max(Math.hypot(ax - origin.getX(), ay - origin.getY()), Double.MIN_VALUE);
+    final double lengthB = Math.max(Math.hypot(bx - origin.getX(), by - origin.getY()), Double.MIN_VALUE);
+
+    shadows[offset] = ax;
+    shadows[offset + 1] = ay;
+    shadows[offset + 2] = bx;
+    shadows[offset + 3] = by;
+    shadows[offset + 4] = origin.getX() + (bx - origin.getX()) / lengthB * OBSTRUCTED_VISION_RADIUS;
+    shadows[offset + 5] = origin.getY() + (by - origin.getY()) / lengthB * OBSTRUCTED_VISION_RADIUS;
+    shadows[offset + 6] = origin.getX() + (ax - origin.getX()) / lengthA * OBSTRUCTED_VISION_RADIUS;
+    shadows[offset + 7] = origin.getY() + (ay - origin.getY()) / lengthA * OBSTRUCTED_VISION_RADIUS;
+    shadows[offset + 8] = ellipseX;
+    shadows[offset + 9] = ellipseY;
+    shadows[offset + 10] = shadowWidth;
+    shadows[offset + 11] = shadowHeight;
+  }
+
+  private static double getSignedArea(final double[] shadows, final int offset) {
+    double area = 0;
+    for (int corner = 0; corner < 4; corner++) {
+      final int current = offset + corner * 2;
+      final int next = offset + (corner + 1) % 4 * 2;
+      area += shadows[current] * shadows[next + 1] - shadows[next] * shadows[current + 1];
+    }
 
-    // project the points by our SHADOW_EXTRUDE amount
-    final Point2D pointC = GeometricUtilities.project(center, pointA, OBSTRUCTED_VISION_RADIUS);
-    final Point2D pointD = GeometricUtilities.project(center, pointB, OBSTRUCTED_VISION_RADIUS);
+    return area;
+  }
 
-    // construct a polygon from our points
-    shadowPolygon.reset();
-    shadowPolygon.addPoint((int) pointA.getX(), (int) pointA.getY());
-    shadowPolygon.addPoint((int) pointB.getX(), (int) pointB.getY());
-    shadowPolygon.addPoint((int) pointD.getX(), (int) pointD.getY());
-    shadowPolygon.addPoint((int) pointC.getX(), (int) pointC.getY());
+  /**
+   * Finds the living combat entities whose center lies within the specified radius around the specified location, using the spatial index of
+   * the environment.
+   */
+  private static List<ICombatEntity> getShadowCasters(final Point2D location, final double radius) {
+    final List<ICombatEntity> casters = new ArrayList<>();
+    for (final IEntity entity : Game.world().environment().findEntities(location, radius)) {
+      if (!(entity instanceof ICombatEntity) || ((ICombatEntity) entity).isDead()) {
+        continue;
+      }
 
-    final Point2D shadowRenderLocation = Game.world().camera().getViewportLocation(new Point2D.Double(shadowEllipse.getX(), shadowEllipse.getY()));
-    final Ellipse2D relativeEllipse = new Ellipse2D.Double(shadowRenderLocation.getX(), shadowRenderLocation.getY(), shadowEllipse.getWidth(), shadowEllipse.getHeight());
+      final Point2D entityCenter = entity.getCenter();
+      final double dx = entityCenter.getX() - location.getX();
+      final double dy = entityCenter.getY() - location.getY();
+      if (dx * dx + dy * dy < radius * radius) {
+        casters.add((ICombatEntity) entity);
+      }
+    }
 
-    final Area ellipseArea = new Area(relativeEllipse);
-    final Area shadowArea = new Area(shadowPolygon);
-    shadowArea.add(ellipseArea);
-    return shadowArea;
+    return casters;
   }
 
   /**
@@ -299,34 +349,32 @@ public class LightSource extends Entity implements IRenderable {
    *     render with RadialGradientPaint to give it a "fade-out" appearance
    * </pre>
    *
+   * All shadows of the light are computed in map coordinates and filled as one path that is translated to the viewport once.
+   *
    * @param g
    *          the graphics to use for rendering
-   * @param center
-   *          the center
    */
   private void renderShadows(final Graphics2D g) {
-    if (!Game.world().environment().getCombatEntities().stream().anyMatch(isInRange(this.getCenter(), SHADOW_GRADIENT_SIZE))) {
+    final List<ICombatEntity> casters = getShadowCasters(this.getCenter(), SHADOW_GRADIENT_SIZE);
+    if (casters.isEmpty()) {
       return;
     }
 
+    // the shadows are cast from the center of the light's dimension, which might differ from its center if it's animated
+    final Point2D viewportCenter = Game.world().camera().getViewportDimensionCenter(this);
+    final Point2D viewportLocation = Game.world().camera().getViewportLocation(this);
+    final double offsetX = viewportLocation.getX() - this.getX();
+    final double offsetY = viewportLocation.getY() - this.getY();
+    final Point2D origin = new Point2D.Double(viewportCenter.getX() - offsetX, viewportCenter.getY() - offsetY);
+
     // we'll use a radial gradient
-    final Paint gradientPaint = new RadialGradientPaint(Game.world().camera().getViewportDimensionCenter(this), SHADOW_GRADIENT_SIZE, SHADOW_GRADIENT_FRACTIONS, SHADOW_GRADIENT_COLORS);
+    final Paint gradientPaint = new RadialGradientPaint(origin, SHADOW_GRADIENT_SIZE, SHADOW_GRADIENT_FRACTIONS, SHADOW_GRADIENT_COLORS);
 
     // old Paint object for resetting it later
     final Paint oldPaint = g.getPaint();
     g.setPaint(gradientPaint);
 
-    // for each entity
-    for (final ICombatEntity mob : Game.world().environment().getCombatEntities()) {
-      if (mob.isDead() || !isInRange(this.getCenter(), SHADOW_GRADIENT_SIZE).test(mob)) {
-        continue;
-      }
-
-      final Shape obstructedVision = this.getObstructedVisionArea(mob, Game.world().camera().getViewportDimensionCenter(this));
-      // fill the polygon with the gradient paint
-
-      ShapeRenderer.render(g, obstructedVision);
-    }
+    ShapeRenderer.render(g, getShadows(origin, casters), offsetX, offsetY);
 
     // reset to old Paint object
     g.setPaint(oldPaint);
@@ -24,6 +24,9 @@ public class MobileEntity extends CollisionEntity implements IMobileEntity {
   
   @TmxProperty(name = MapObjectProperty.MOVEMENT_VELOCITY)
   private Attribute<Float> velocity;
+
+  @TmxProperty(name = MapObjectProperty.MOVEMENT_CONTINUOUSCOLLISION)
+  private boolean continuousCollision;
   
   private Point2D moveDestination;
 
@@ -33,6 +36,7 @@ public class MobileEntity extends CollisionEntity implements IMobileEntity {
     this.acceleration = info.acceleration();
     this.deceleration = info.deceleration();
     this.setTurnOnMove(info.turnOnMove());
+    this.setContinuousCollision(info.continuousCollision());
   }
 
   @Override
@@ -99,9 +103,19 @@ public class MobileEntity extends CollisionEntity implements IMobileEntity {
     return this.turnOnMove;
   }
 
+  @Override
+  public void setContinuousCollision(final boolean continuousCollision) {
+    this.continuousCollision = continuousCollision;
+  }
+
+  @Override
+  public boolean hasContinuousCollision() {
+    return this.continuousCollision;
+  }
+
   protected static float getTickVelocity(IMobileEntity entity) {
     // pixels per ms multiplied by the passed ms
     // ensure that entities don't travel too far in case of lag
-    return Math.min(Game.loop().getDeltaTime(), GameLoop.TICK_DELTATIME_LAG) * 0.001F * entity.getVelocity().getCurrentValue() * Game.loop().getTimeScale();
+    return (float) Math.min(Game.loop().getPreciseDeltaTime(), GameLoop.TICK_DELTATIME_LAG) * 0.001F * entity.getVelocity().getCurrentValue() * Game.loop().getTimeScale();
   }
 }
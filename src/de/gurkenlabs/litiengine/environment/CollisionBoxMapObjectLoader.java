@@ -29,6 +29,7 @@ public class CollisionBoxMapObjectLoader extends MapObjectLoader {
     loadDefaultProperties(col, mapObject);
     col.setCollisionBoxWidth(col.getWidth());
     col.setCollisionBoxHeight(col.getHeight());
+    loadCollisionLayers(col, mapObject);
 
     Collection<IEntity> entities = new ArrayList<>();
     entities.add(col);
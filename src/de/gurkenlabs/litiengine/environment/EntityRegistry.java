@@ -0,0 +1,295 @@
+package de.gurkenlabs.litiengine.environment;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.gurkenlabs.litiengine.entities.EntityAdapter;
+import de.gurkenlabs.litiengine.entities.EntityListener;
+import de.gurkenlabs.litiengine.entities.IEntity;
+
+/**
+ * Provides constant time lookups of the entities of an <code>Environment</code> by their map id and by their name.
+ * <br>
+ * The map ids are held by an open addressing hash table with primitive <code>int</code> keys, so neither adding nor looking up an entity boxes
+ * its map id.
+ *
+ * <p>
+ * <i>The registry listens to the registered entities and re-indexes them when they are renamed or their map id changes. Entities that don't
+ * notify their {@link EntityListener}s about these changes are only found by the name and the map id that they had when they were added.</i>
+ * </p>
+ */
+final class EntityRegistry {
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private final Map<String, Collection<IEntity>> entitiesByName = new ConcurrentHashMap<>();
+  private final EntityListener reindexer = new EntityAdapter() {
+    @Override
+    public void nameChanged(IEntity entity, String previousName) {
+      rename(entity, previousName);
+    }
+
+    @Override
+    public void mapIdChanged(IEntity entity, int previousMapId) {
+      move(entity, previousMapId);
+    }
+  };
+  private final Lock readLock;
+  private final Lock writeLock;
+
+  private int[] keys;
+  private IEntity[] values;
+  private int size;
+
+  EntityRegistry() {
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    this.readLock = lock.readLock();
+    this.writeLock = lock.writeLock();
+    this.keys = new int[DEFAULT_CAPACITY];
+    this.values = new IEntity[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Gets the entity with the specified map id.
+   *
+   * @param mapId
+   *          The map id of the entity.
+   * @return The entity with the specified map id; or null if no such entity is registered.
+   */
+  IEntity get(final int mapId) {
+    this.readLock.lock();
+    try {
+      final int mask = this.keys.length - 1;
+      for (int i = hash(mapId) & mask; this.values[i] != null; i = (i + 1) & mask) {
+        if (this.keys[i] == mapId) {
+          return this.values[i];
+        }
+      }
+
+      return null;
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  /**
+   * Gets the first registered entity with the specified name.
+   *
+   * @param name
+   *          The name of the entity.
+   * @return The first entity with the specified name; or null if no such entity is registered.
+   */
+  IEntity get(final String name) {
+    final Collection<IEntity> entities = this.entitiesByName.get(name);
+    if (entities == null) {
+      return null;
+    }
+
+    final Iterator<IEntity> iterator = entities.iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  int size() {
+    this.readLock.lock();
+    try {
+      return this.size;
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  /**
+   * Registers the specified entity by its map id and name. An entity that was previously registered with the same map id is replaced.
+   *
+   * @param entity
+   *          The entity to register.
+   */
+  void add(final IEntity entity) {
+    this.writeLock.lock();
+    try {
+      this.insert(entity);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  /**
+   * Unregisters the specified entity. The registration of another entity with the same map id is not affected.
+   *
+   * @param entity
+   *          The entity to unregister.
+   * @return True if the entity was registered; otherwise false.
+   */
+  boolean remove(final IEntity entity) {
+    this.writeLock.lock();
+    try {
+      final int index = this.indexOf(entity, entity.getMapId());
+      if (index == -1) {
+        return false;
+      }
+
+      this.delete(index);
+      this.unregisterName(entity, entity.getName());
+      entity.removeListener(this.reindexer);
+      return true;
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  void clear() {
+    this.writeLock.lock();
+    try {
+      for (final IEntity entity : this.values) {
+        if (entity != null) {
+          entity.removeListener(this.reindexer);
+        }
+      }
+
+      this.keys = new int[DEFAULT_CAPACITY];
+      this.values = new IEntity[DEFAULT_CAPACITY];
+      this.size = 0;
+      this.entitiesByName.clear();
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  private void rename(final IEntity entity, final String previousName) {
+    this.writeLock.lock();
+    try {
+      if (this.indexOf(entity, entity.getMapId()) == -1) {
+        return;
+      }
+
+      this.unregisterName(entity, previousName);
+      this.registerName(entity);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  private void move(final IEntity entity, final int previousMapId) {
+    this.writeLock.lock();
+    try {
+      final int index = this.indexOf(entity, previousMapId);
+      if (index == -1) {
+        return;
+      }
+
+      this.delete(index);
+      this.unregisterName(entity, entity.getName());
+      this.insert(entity);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  private void insert(final IEntity entity) {
+    if (this.size + 1 > this.keys.length * LOAD_FACTOR) {
+      this.resize(this.keys.length * 2);
+    }
+
+    final int mapId = entity.getMapId();
+    final int mask = this.keys.length - 1;
+    int i = hash(mapId) & mask;
+    while (this.values[i] != null) {
+      if (this.keys[i] == mapId) {
+        if (this.values[i] != entity) {
+          this.unregisterName(this.values[i], this.values[i].getName());
+          this.values[i].removeListener(this.reindexer);
+          this.values[i] = entity;
+          entity.addListener(this.reindexer);
+        } else {
+          this.unregisterName(entity, entity.getName());
+        }
+
+        this.registerName(entity);
+        return;
+      }
+
+      i = (i + 1) & mask;
+    }
+
+    this.keys[i] = mapId;
+    this.values[i] = entity;
+    this.size++;
+    this.registerName(entity);
+    entity.addListener(this.reindexer);
+  }
+
+  private int indexOf(final IEntity entity, final int mapId) {
+    final int mask = this.keys.length - 1;
+    for (int i = hash(mapId) & mask; this.values[i] != null; i = (i + 1) & mask) {
+      if (this.values[i] == entity) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  private void delete(final int index) {
+    final int mask = this.keys.length - 1;
+    int hole = index;
+    this.values[hole] = null;
+    this.size--;
+
+    // shift the following entries of the probe sequence back so that no lookup stops at the hole
+    for (int i = (hole + 1) & mask; this.values[i] != null; i = (i + 1) & mask) {
+      final int home = hash(this.keys[i]) & mask;
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        this.keys[hole] = this.keys[i];
+        this.values[hole] = this.values[i];
+        this.values[i] = null;
+        hole = i;
+      }
+    }
+  }
+
+  private void resize(final int capacity) {
+    final int[] oldKeys = this.keys;
+    final IEntity[] oldValues = this.values;
+    this.keys = new int[capacity];
+    this.values = new IEntity[capacity];
+
+    final int mask = capacity - 1;
+    for (int j = 0; j < oldValues.length; j++) {
+      if (oldValues[j] == null) {
+        continue;
+      }
+
+      int i = hash(oldKeys[j]) & mask;
+      while (this.values[i] != null) {
+        i = (i + 1) & mask;
+      }
+
+      this.keys[i] = oldKeys[j];
+      this.values[i] = oldValues[j];
+    }
+  }
+
+  private void registerName(final IEntity entity) {
+    if (entity.getName() != null && !entity.getName().isEmpty()) {
+      this.entitiesByName.computeIfAbsent(entity.getName(), n -> new CopyOnWriteArrayList<>()).add(entity);
+    }
+  }
+
+  private void unregisterName(final IEntity entity, final String name) {
+    final Collection<IEntity> entities = name != null ? this.entitiesByName.get(name) : null;
+    if (entities != null && entities.remove(entity) && entities.isEmpty()) {
+      this.entitiesByName.remove(name);
+    }
+  }
+
+  private static int hash(final int key) {
+    final int hash = key * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -10,15 +10,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import de.gurkenlabs.litiengine.Direction;
 import de.gurkenlabs.litiengine.Game;
@@ -28,6 +29,7 @@ import de.gurkenlabs.litiengine.annotation.EntityInfo;
 import de.gurkenlabs.litiengine.configuration.Quality;
 import de.gurkenlabs.litiengine.entities.CollisionBox;
 import de.gurkenlabs.litiengine.entities.Creature;
+import de.gurkenlabs.litiengine.entities.EntityTransformListener;
 import de.gurkenlabs.litiengine.entities.ICollisionEntity;
 import de.gurkenlabs.litiengine.entities.ICombatEntity;
 import de.gurkenlabs.litiengine.entities.IEntity;
@@ -46,14 +48,18 @@ import de.gurkenlabs.litiengine.environment.tilemap.MapUtilities;
 import de.gurkenlabs.litiengine.environment.tilemap.xml.Blueprint;
 import de.gurkenlabs.litiengine.graphics.AmbientLight;
 import de.gurkenlabs.litiengine.graphics.DebugRenderer;
+import de.gurkenlabs.litiengine.graphics.ICamera;
 import de.gurkenlabs.litiengine.graphics.IRenderable;
 import de.gurkenlabs.litiengine.graphics.RenderComponent;
+import de.gurkenlabs.litiengine.graphics.RenderSnapshot;
+import de.gurkenlabs.litiengine.graphics.RenderSnapshotBuffer;
 import de.gurkenlabs.litiengine.graphics.RenderType;
 import de.gurkenlabs.litiengine.graphics.StaticShadowLayer;
 import de.gurkenlabs.litiengine.graphics.StaticShadowType;
 import de.gurkenlabs.litiengine.graphics.emitters.Emitter;
 import de.gurkenlabs.litiengine.physics.GravityForce;
 import de.gurkenlabs.litiengine.physics.IMovementController;
+import de.gurkenlabs.litiengine.physics.SpatialHash;
 import de.gurkenlabs.litiengine.resources.Resources;
 import de.gurkenlabs.litiengine.util.TimeUtilities;
 import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
@@ -61,11 +67,18 @@ import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
 public class Environment implements IEnvironment {
   private static final Map<String, IMapObjectLoader> mapObjectLoaders = new ConcurrentHashMap<>();
 
+  // the render snapshot is captured after all other updatables have been updated
+  private static final int RENDER_SNAPSHOT_PHASE = Integer.MAX_VALUE;
+
   private final Map<Integer, ICombatEntity> combatEntities = new ConcurrentHashMap<>();
   private final Map<Integer, IMobileEntity> mobileEntities = new ConcurrentHashMap<>();
   private final Map<Integer, GravityForce> gravityForces = new ConcurrentHashMap<>();
   private final Map<RenderType, Map<Integer, IEntity>> entities = Collections.synchronizedMap(new EnumMap<>(RenderType.class));
   private final Map<String, Collection<IEntity>> entitiesByTag = new ConcurrentHashMap<>();
+  private final EntityRegistry registry = new EntityRegistry();
+  private final Map<Class<?>, EntityTypeIndex> entitiesByType = new ConcurrentHashMap<>();
+  private final AtomicLong entityEpoch = new AtomicLong();
+  private volatile Snapshot<IEntity> entitySnapshot;
 
   private final Map<RenderType, Collection<EnvironmentRenderListener>> renderListeners = Collections.synchronizedMap(new EnumMap<>(RenderType.class));
   private final List<EnvironmentListener> listeners = new CopyOnWriteArrayList<>();
@@ -82,6 +95,23 @@ public class Environment implements IEnvironment {
   private final Collection<Spawnpoint> spawnPoints = ConcurrentHashMap.newKeySet();
   private final Collection<MapArea> mapAreas = ConcurrentHashMap.newKeySet();
 
+  private final RenderSnapshotBuffer renderSnapshots = new RenderSnapshotBuffer();
+  private final IUpdateable renderSnapshotPublisher = this::publishRenderSnapshot;
+  private RenderSnapshot renderSnapshot;
+
+  private final SpatialHash<IEntity> entityGrid = new SpatialHash<>();
+  private final EntityTransformListener entityGridListener = new EntityTransformListener() {
+    @Override
+    public void locationChanged(IEntity entity) {
+      entityGrid.update(entity, getIndexBounds(entity));
+    }
+
+    @Override
+    public void sizeChanged(IEntity entity) {
+      entityGrid.update(entity, getIndexBounds(entity));
+    }
+  };
+
   private AmbientLight ambientLight;
   private StaticShadowLayer staticShadowLayer;
   private boolean loaded;
@@ -108,6 +138,7 @@ public class Environment implements IEnvironment {
     this.map = map;
     if (this.getMap() != null) {
       Game.physics().setBounds(this.getMap().getBounds());
+      this.updatePhysicsCellSize();
       this.setGravity(this.getMap().getIntValue(MapProperty.GRAVITY));
     }
   }
@@ -230,6 +261,14 @@ public class Environment implements IEnvironment {
     }
 
     this.entities.get(entity.getRenderType()).put(entity.getMapId(), entity);
+    this.registry.add(entity);
+    this.updateTypeIndices(entity, true);
+    this.entityEpoch.incrementAndGet();
+
+    if (!this.entityGrid.contains(entity)) {
+      this.entityGrid.add(entity, getIndexBounds(entity));
+      entity.addTransformListener(this.entityGridListener);
+    }
 
     this.fireEntityEvent(l -> l.entityAdded(entity));
   }
@@ -305,9 +344,18 @@ public class Environment implements IEnvironment {
     this.getEntitiesByTag().clear();
 
     for (Map<Integer, IEntity> type : this.entities.values()) {
+      for (IEntity entity : type.values()) {
+        entity.removeTransformListener(this.entityGridListener);
+      }
+
       type.clear();
     }
 
+    this.entityGrid.clear();
+    this.registry.clear();
+    this.entitiesByType.clear();
+    this.entityEpoch.incrementAndGet();
+
     this.initialized = false;
 
     this.fireEvent(l -> l.cleared(this));
@@ -325,26 +373,26 @@ public class Environment implements IEnvironment {
       return foundCombatEntities;
     }
 
-    // for rectangle we can just use the intersects method
-    if (shape instanceof Rectangle2D) {
-      final Rectangle2D rect = (Rectangle2D) shape;
-      for (final ICombatEntity combatEntity : this.getCombatEntities().stream().filter(condition).collect(Collectors.toList())) {
-        if (combatEntity.getHitBox().intersects(rect)) {
-          foundCombatEntities.add(combatEntity);
-        }
+    // only the combat entities in the grid cells that are overlapped by the shape's bounds are considered
+    // for rectangle we can just use the intersects method; for other shapes, we check if the shape's bounds intersect the hitbox and
+    // if so, we then check if the actual shape intersects the hitbox
+    final Rectangle2D bounds = shape.getBounds2D();
+    this.entityGrid.find(bounds, entity -> {
+      if (!(entity instanceof ICombatEntity)) {
+        return false;
       }
 
-      return foundCombatEntities;
-    }
-
-    // for other shapes, we check if the shape's bounds intersect the hitbox and
-    // if so, we then check if the actual shape intersects the hitbox
-    for (final ICombatEntity combatEntity : this.getCombatEntities().stream().filter(condition).collect(Collectors.toList())) {
-      if (combatEntity.getHitBox().intersects(shape.getBounds()) && GeometricUtilities.shapeIntersects(combatEntity.getHitBox(), shape)) {
+      final ICombatEntity combatEntity = (ICombatEntity) entity;
+      final Shape hitBox = combatEntity.getHitBox();
+      if (hitBox != null && (shape instanceof Rectangle2D ? hitBox.intersects(bounds) : hitBox.intersects(shape.getBounds()) && GeometricUtilities.shapeIntersects(hitBox, shape))) {
         foundCombatEntities.add(combatEntity);
       }
-    }
 
+      return false;
+    });
+
+    // the condition is tested after the grid has been released because it may move, add or remove entities
+    foundCombatEntities.removeIf(combatEntity -> !condition.test(combatEntity));
     return foundCombatEntities;
   }
 
@@ -354,37 +402,83 @@ public class Environment implements IEnvironment {
     if (shape == null) {
       return foundEntities;
     }
-    if (shape instanceof Rectangle2D) {
-      final Rectangle2D rect = (Rectangle2D) shape;
-      for (final IEntity entity : this.getEntities()) {
-        if (entity.getBoundingBox().intersects(rect)) {
-          foundEntities.add(entity);
-        }
+
+    // for other shapes, we check if the shape's bounds intersect the bounding box and
+    // if so, we then check if the actual shape intersects the bounding box
+    final Rectangle2D bounds = shape.getBounds2D();
+    this.entityGrid.find(bounds, entity -> {
+      final Rectangle2D boundingBox = entity.getBoundingBox();
+      if (boundingBox != null && (shape instanceof Rectangle2D ? boundingBox.intersects(bounds) : boundingBox.intersects(shape.getBounds()) && GeometricUtilities.shapeIntersects(boundingBox, shape))) {
+        foundEntities.add(entity);
       }
+
+      return false;
+    });
+
+    return foundEntities;
+  }
+
+  @Override
+  public Collection<IEntity> findEntities(final Point2D location, final double radius) {
+    final Collection<IEntity> foundEntities = new ArrayList<>();
+    if (location == null || radius < 0) {
       return foundEntities;
     }
-    // for other shapes, we check if the shape's bounds intersect the hitbox
-    // and
-    // if so, we then check if the actual shape intersects the hitbox
-    for (final IEntity entity : this.getEntities()) {
-      if (entity.getBoundingBox().intersects(shape.getBounds()) && GeometricUtilities.shapeIntersects(entity.getBoundingBox(), shape)) {
+
+    this.entityGrid.find(location.getX() - radius, location.getY() - radius, location.getX() + radius, location.getY() + radius, entity -> {
+      final Rectangle2D boundingBox = entity.getBoundingBox();
+      if (boundingBox != null && distance(boundingBox, location.getX(), location.getY()) <= radius) {
         foundEntities.add(entity);
       }
-    }
+
+      return false;
+    });
 
     return foundEntities;
   }
 
   @Override
-  public IEntity get(final int mapId) {
-    for (Map<Integer, IEntity> type : this.entities.values()) {
-      IEntity entity = type.get(mapId);
-      if (entity != null) {
-        return entity;
+  public List<IEntity> findNearestEntities(final Point2D location, final int count) {
+    return this.findNearestEntities(location, count, entity -> true);
+  }
+
+  @Override
+  public List<IEntity> findNearestEntities(final Point2D location, final int count, final Predicate<IEntity> condition) {
+    final List<IEntity> foundEntities = new ArrayList<>();
+    if (location == null) {
+      return foundEntities;
+    }
+
+    // the condition is tested after the grid has been released because it may move, add or remove entities, so the search is widened until
+    // enough of the nearest entities satisfy the condition
+    final Map<IEntity, Boolean> tested = new IdentityHashMap<>();
+    int candidateCount = Math.min(count, this.entityGrid.size());
+    while (candidateCount > 0) {
+      final List<IEntity> candidates = this.entityGrid.nearest(location.getX(), location.getY(), candidateCount, entity -> true);
+      foundEntities.clear();
+      for (final IEntity candidate : candidates) {
+        if (tested.computeIfAbsent(candidate, condition::test)) {
+          foundEntities.add(candidate);
+          if (foundEntities.size() == count) {
+            return foundEntities;
+          }
+        }
+      }
+
+      final int gridSize = this.entityGrid.size();
+      if (candidates.size() < candidateCount || candidateCount >= gridSize) {
+        break;
       }
+
+      candidateCount = (int) Math.min(candidateCount * 2L, gridSize);
     }
 
-    return null;
+    return foundEntities;
+  }
+
+  @Override
+  public IEntity get(final int mapId) {
+    return this.registry.get(mapId);
   }
 
   @Override
@@ -394,15 +488,13 @@ public class Environment implements IEnvironment {
       return foundEntities;
     }
 
-    for (Map<Integer, IEntity> type : this.entities.values()) {
-      for (int id : mapIds) {
-        IEntity entity = type.get(id);
-        if (entity != null) {
-          foundEntities.add(entity);
-        }
+    for (int id : mapIds) {
+      IEntity entity = this.registry.get(id);
+      if (entity != null) {
+        foundEntities.add(entity);
       }
-
     }
+
     return foundEntities;
   }
 
@@ -422,15 +514,7 @@ public class Environment implements IEnvironment {
       return null;
     }
 
-    for (Map<Integer, IEntity> type : this.entities.values()) {
-      for (final IEntity entity : type.values()) {
-        if (entity.getName() != null && entity.getName().equals(name)) {
-          return entity;
-        }
-      }
-    }
-
-    return null;
+    return this.registry.get(name);
   }
 
   @Override
@@ -543,12 +627,25 @@ public class Environment implements IEnvironment {
 
   @Override
   public Collection<IEntity> getEntities() {
+    final Snapshot<IEntity> snapshot = this.entitySnapshot;
+    final long epoch = this.entityEpoch.get();
+    if (snapshot != null && snapshot.epoch == epoch) {
+      return snapshot.items;
+    }
+
     final ArrayList<IEntity> ent = new ArrayList<>();
     for (Map<Integer, IEntity> type : this.entities.values()) {
       ent.addAll(type.values());
     }
 
-    return ent;
+    final Snapshot<IEntity> updated = new Snapshot<>(epoch, ent);
+    this.entitySnapshot = updated;
+    return updated.items;
+  }
+
+  @Override
+  public long getEntityEpoch() {
+    return this.entityEpoch.get();
   }
 
   @Override
@@ -561,15 +658,27 @@ public class Environment implements IEnvironment {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> Collection<T> getByType(Class<? extends T> cls) {
-    Collection<T> foundEntities = new ArrayList<>();
-    for (IEntity ent : this.getEntities()) {
-      if (cls.isInstance(ent)) {
-        foundEntities.add(cls.cast(ent));
+    EntityTypeIndex index = this.entitiesByType.get(cls);
+    if (index == null) {
+      // the index is created while no entities are added or removed so that it doesn't miss any of them
+      synchronized (this.entitiesByType) {
+        index = this.entitiesByType.computeIfAbsent(cls, c -> new EntityTypeIndex(c, this.getEntities()));
       }
     }
 
-    return foundEntities;
+    return (Collection<T>) index.getEntities();
+  }
+
+  /**
+   * Gets the entities that implement {@link IRenderable} (e.g. emitters), which are never culled because they can render anything outside of
+   * their bounds.
+   */
+  @SuppressWarnings("unchecked")
+  private Collection<IEntity> getRenderableEntities() {
+    // the type index only contains entities
+    return (Collection<IEntity>) (Collection<?>) this.getByType(IRenderable.class);
   }
 
   @Override
@@ -708,7 +817,7 @@ public class Environment implements IEnvironment {
 
   @Override
   public Collection<String> getUsedTags() {
-    return new ArrayList<>(this.getEntitiesByTag().keySet());
+    return Collections.unmodifiableSet(this.getEntitiesByTag().keySet());
   }
 
   @Override
@@ -741,20 +850,28 @@ public class Environment implements IEnvironment {
 
     if (this.getMap() != null) {
       Game.physics().setBounds(new Rectangle2D.Double(0, 0, this.getMap().getSizeInPixels().getWidth(), this.getMap().getSizeInPixels().getHeight()));
+      this.updatePhysicsCellSize();
     }
 
-    if (this.getMap() != null) {
-      if (this.getMap().getBackgroundColor() != null) {
-        Game.window().getRenderComponent().setBackground(this.getMap().getBackgroundColor());
+    if (Game.window() != null) {
+      if (this.getMap() != null) {
+        if (this.getMap().getBackgroundColor() != null) {
+          Game.window().getRenderComponent().setBackground(this.getMap().getBackgroundColor());
+        }
+      } else {
+        Game.window().getRenderComponent().setBackground(Color.BLACK);
       }
-    } else {
-      Game.window().getRenderComponent().setBackground(Color.BLACK);
     }
 
     for (final IEntity entity : this.getEntities()) {
       this.load(entity);
     }
 
+    // nothing is rendered without a GUI, so there's no need to capture the entities
+    if (Game.loop() != null && !Game.isInNoGUIMode()) {
+      Game.loop().attach(this.renderSnapshotPublisher, RENDER_SNAPSHOT_PHASE, false);
+    }
+
     this.loaded = true;
     this.fireEvent(l -> l.loaded(this));
   }
@@ -851,6 +968,10 @@ public class Environment implements IEnvironment {
       this.entities.get(entity.getRenderType()).entrySet().removeIf(e -> e.getValue().getMapId() == entity.getMapId());
     }
 
+    this.registry.remove(entity);
+    this.updateTypeIndices(entity, false);
+    this.entityEpoch.incrementAndGet();
+
     for (String tag : entity.getTags()) {
       if (this.getEntitiesByTag().containsKey(tag)) {
         this.getEntitiesByTag().get(tag).remove(entity);
@@ -909,6 +1030,10 @@ public class Environment implements IEnvironment {
       this.combatEntities.values().remove(entity);
     }
 
+    if (this.entityGrid.remove(entity)) {
+      entity.removeTransformListener(this.entityGridListener);
+    }
+
     this.unload(entity);
 
     this.fireEntityEvent(l -> l.entityRemoved(entity));
@@ -954,6 +1079,8 @@ public class Environment implements IEnvironment {
 
   @Override
   public void render(final Graphics2D g) {
+    // all render types of a frame are rendered from the same snapshot
+    this.renderSnapshot = this.renderSnapshots.acquire();
     g.scale(Game.world().camera().getRenderScale(), Game.world().camera().getRenderScale());
 
     long renderStart = System.nanoTime();
@@ -1055,7 +1182,11 @@ public class Environment implements IEnvironment {
       this.unload(entity);
     }
 
-    if (Game.screens() != null && Game.window().getRenderComponent() != null && Game.hasStarted()) {
+    if (Game.loop() != null) {
+      Game.loop().detach(this.renderSnapshotPublisher);
+    }
+
+    if (Game.screens() != null && Game.window() != null && Game.window().getRenderComponent() != null && Game.hasStarted()) {
       Game.window().getRenderComponent().setBackground(RenderComponent.DEFAULT_BACKGROUND_COLOR);
     }
 
@@ -1120,7 +1251,11 @@ public class Environment implements IEnvironment {
     }
 
     // 3. Render entities
-    Game.graphics().renderEntities(g, this.entities.get(renderType).values(), renderType == RenderType.NORMAL);
+    if (this.canRenderSnapshot(this.renderSnapshot)) {
+      Game.graphics().renderEntities(g, this.renderSnapshot, renderType);
+    } else {
+      Game.graphics().renderEntities(g, this.entityGrid, this.getRenderableEntities(), renderType);
+    }
 
     // 4. fire event
     this.fireRenderEvent(g, renderType);
@@ -1134,6 +1269,27 @@ public class Environment implements IEnvironment {
     }
   }
 
+  private void publishRenderSnapshot() {
+    final ICamera camera = Game.world().camera();
+    if (camera == null || camera.getViewport() == null) {
+      return;
+    }
+
+    // the camera can still move before the snapshot is rendered, so the entities around the viewport are captured as well
+    final Rectangle2D viewport = camera.getViewport();
+    final Rectangle2D area = new Rectangle2D.Double(viewport.getX() - viewport.getWidth() / 2, viewport.getY() - viewport.getHeight() / 2, viewport.getWidth() * 2,
+        viewport.getHeight() * 2);
+    this.renderSnapshots.capture(Game.loop().getTicks(), this.getEntityEpoch(), this.entityGrid, this.getRenderableEntities(), area, Game.graphics().getCullingMargin());
+  }
+
+  /**
+   * The snapshot can only be rendered if it contains the current entities. Otherwise (e.g. while the game is paused and no snapshots are
+   * captured), the entities are rendered directly.
+   */
+  private boolean canRenderSnapshot(RenderSnapshot snapshot) {
+    return snapshot != null && snapshot.getTick() >= 0 && snapshot.getEpoch() == this.getEntityEpoch() && Game.loop().getTimeScale() > 0;
+  }
+
   private void addAmbientLight() {
     final Color ambientColor = this.getMap().getColorValue(MapProperty.AMBIENTCOLOR, AmbientLight.DEFAULT_COLOR);
     this.ambientLight = new AmbientLight(this, ambientColor);
@@ -1144,6 +1300,14 @@ public class Environment implements IEnvironment {
     this.staticShadowLayer = new StaticShadowLayer(this, color);
   }
 
+  private void updateTypeIndices(final IEntity entity, final boolean added) {
+    synchronized (this.entitiesByType) {
+      for (EntityTypeIndex index : this.entitiesByType.values()) {
+        index.update(entity, added);
+      }
+    }
+  }
+
   private void dispose(final Collection<? extends IEntity> entities) {
     for (final IEntity entity : entities) {
       if (entity instanceof IUpdateable) {
@@ -1209,11 +1373,43 @@ public class Environment implements IEnvironment {
     }
   }
 
+  private void updatePhysicsCellSize() {
+    final int tileSize = Math.max(this.getMap().getTileWidth(), this.getMap().getTileHeight());
+    if (tileSize > 0) {
+      Game.physics().setCellSize(tileSize);
+      this.entityGrid.setCellSize(tileSize);
+    }
+  }
+
+  /**
+   * Gets the bounds by which the specified entity is indexed for spatial queries.
+   * For combat entities, this also covers the hit box because it is not required to be located within the bounding box.
+   */
+  private static Rectangle2D getIndexBounds(IEntity entity) {
+    final Rectangle2D boundingBox = entity.getBoundingBox();
+    if (!(entity instanceof ICombatEntity)) {
+      return boundingBox;
+    }
+
+    final Shape hitBox = ((ICombatEntity) entity).getHitBox();
+    if (hitBox == null) {
+      return boundingBox;
+    }
+
+    return boundingBox != null ? boundingBox.createUnion(hitBox.getBounds2D()) : hitBox.getBounds2D();
+  }
+
+  private static double distance(Rectangle2D rect, double x, double y) {
+    final double dx = Math.max(Math.max(rect.getMinX() - x, x - rect.getMaxX()), 0);
+    final double dy = Math.max(Math.max(rect.getMinY() - y, y - rect.getMaxY()), 0);
+    return Math.hypot(dx, dy);
+  }
+
   private void loadPhysicsEntity(IEntity entity) {
     if (entity instanceof CollisionBox) {
       final CollisionBox coll = (CollisionBox) entity;
       if (coll.isObstacle()) {
-        Game.physics().add(coll.getBoundingBox());
+        Game.physics().add(coll.getBoundingBox(), coll.getCollisionLayer(), coll.getCollisionMask());
       } else {
         Game.physics().add(coll);
       }
@@ -1293,4 +1489,52 @@ public class Environment implements IEnvironment {
 
     entity.removed(this);
   }
-}
\ No newline at end of file
+
+  /**
+   * An immutable list of items that is valid as long as the epoch of its source hasn't changed.
+   */
+  private static final class Snapshot<T> {
+    private final long epoch;
+    private final Collection<T> items;
+
+    private Snapshot(long epoch, List<T> items) {
+      this.epoch = epoch;
+      this.items = Collections.unmodifiableList(items);
+    }
+  }
+
+  /**
+   * Keeps track of all entities that are an instance of a certain type, once entities of this type have been requested.
+   */
+  private static final class EntityTypeIndex {
+    private final Class<?> type;
+    private final Collection<IEntity> entities = ConcurrentHashMap.newKeySet();
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile Snapshot<IEntity> snapshot;
+
+    private EntityTypeIndex(Class<?> type, Collection<IEntity> entities) {
+      this.type = type;
+      for (IEntity entity : entities) {
+        this.update(entity, true);
+      }
+    }
+
+    private void update(IEntity entity, boolean added) {
+      if (this.type.isInstance(entity) && (added ? this.entities.add(entity) : this.entities.remove(entity))) {
+        this.epoch.incrementAndGet();
+      }
+    }
+
+    private Collection<IEntity> getEntities() {
+      final Snapshot<IEntity> current = this.snapshot;
+      final long currentEpoch = this.epoch.get();
+      if (current != null && current.epoch == currentEpoch) {
+        return current.items;
+      }
+
+      final Snapshot<IEntity> updated = new Snapshot<>(currentEpoch, new ArrayList<>(this.entities));
+      this.snapshot = updated;
+      return updated.items;
+    }
+  }
+}
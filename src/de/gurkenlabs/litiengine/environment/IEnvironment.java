@@ -77,6 +77,43 @@ public interface IEnvironment extends IInitializable, IRenderable {
 
   public Collection<IEntity> findEntities(Shape shape);
 
+  /**
+   * Searches for all entities whose bounding box is located within the specified radius around the specified location.
+   * 
+   * @param location
+   *          The center of the area to search.
+   * @param radius
+   *          The maximum distance between the location and the bounding box of an entity.
+   * @return A list of all entities within the radius around the location.
+   */
+  public Collection<IEntity> findEntities(Point2D location, double radius);
+
+  /**
+   * Searches for the entities that are closest to the specified location.
+   * The distance of an entity is measured to the nearest point of its bounding box.
+   * 
+   * @param location
+   *          The location to search from.
+   * @param count
+   *          The maximum number of entities to find.
+   * @return A list of the closest entities, ordered by their distance to the location.
+   */
+  public List<IEntity> findNearestEntities(Point2D location, int count);
+
+  /**
+   * Searches for the entities that are closest to the specified location and satisfy the specified condition.
+   * The distance of an entity is measured to the nearest point of its bounding box.
+   * 
+   * @param location
+   *          The location to search from.
+   * @param count
+   *          The maximum number of entities to find.
+   * @param condition
+   *          An additional condition that determines if an {@link IEntity} should be considered.
+   * @return A list of the closest entities, ordered by their distance to the location.
+   */
+  public List<IEntity> findNearestEntities(Point2D location, int count, Predicate<IEntity> condition);
+
   public IEntity get(final int mapId);
 
   /**
@@ -140,10 +177,55 @@ public interface IEnvironment extends IInitializable, IRenderable {
 
   public ICombatEntity getCombatEntity(final String name);
 
+  /**
+   * Gets all entities of this environment.
+   * 
+   * <p>
+   * <i>The returned collection is a read-only snapshot that is reused by subsequent calls until an entity is added or removed. Hence, it can be
+   * iterated every frame without any allocations.</i>
+   * </p>
+   * 
+   * <p>
+   * Any attempt to modify the returned collection throws an <code>UnsupportedOperationException</code>. Callers that need to modify the result
+   * have to copy it first, e.g. <code>new ArrayList&lt;&gt;(env.getEntities())</code>. It doesn't reflect entities that are added or removed
+   * after this call.
+   * </p>
+   * 
+   * @return A read-only snapshot of all entities.
+   * 
+   * @see #getEntityEpoch()
+   */
   public Collection<IEntity> getEntities();
 
+  /**
+   * Gets a live view on all entities with the specified render type.
+   * 
+   * @param renderType
+   *          The render type of the entities.
+   * @return All entities with the specified render type.
+   */
   public Collection<IEntity> getEntities(RenderType renderType);
 
+  /**
+   * Gets the current epoch of the entities of this environment. The epoch is increased every time an entity is added or removed, so it can be
+   * used to determine whether information that was derived from the entities needs to be updated.
+   * 
+   * @return The current epoch of the entities.
+   */
+  public long getEntityEpoch();
+
+  /**
+   * Gets all entities that are an instance of the specified type.
+   * 
+   * <p>
+   * <i>Once a type has been requested, its entities are indexed by this environment and the returned read-only snapshot is reused until an
+   * entity of this type is added or removed.</i>
+   * </p>
+   * 
+   * @param clss
+   *          The type of the entities.
+   * @return A read-only snapshot of all entities of the specified type.
+   */
   public <T> Collection<T> getByType(Class<? extends T> clss);
 
   public LightSource getLightSource(int mapId);
@@ -186,6 +268,11 @@ public interface IEnvironment extends IInitializable, IRenderable {
 
   public Collection<Creature> getCreatures();
 
+  /**
+   * Gets a read-only live view on the tags that are used by the entities of this environment.
+   * 
+   * @return All tags that are currently used.
+   */
   public Collection<String> getUsedTags();
 
   public Trigger getTrigger(int mapId);
@@ -4,6 +4,7 @@ import java.lang.reflect.Field;
 
 import de.gurkenlabs.litiengine.Align;
 import de.gurkenlabs.litiengine.Valign;
+import de.gurkenlabs.litiengine.entities.CollisionEntity;
 import de.gurkenlabs.litiengine.entities.ICollisionEntity;
 import de.gurkenlabs.litiengine.entities.IEntity;
 import de.gurkenlabs.litiengine.environment.tilemap.IMapObject;
@@ -92,5 +93,11 @@ public abstract class MapObjectLoader implements IMapObjectLoader {
     entity.setCollisionBoxHeight(mapObject.getFloatValue(MapObjectProperty.COLLISIONBOX_HEIGHT, mapObject.getHeight()));
     entity.setCollisionBoxAlign(mapObject.getEnumValue(MapObjectProperty.COLLISION_ALIGN, Align.class, Align.CENTER));
     entity.setCollisionBoxValign(mapObject.getEnumValue(MapObjectProperty.COLLISION_VALIGN, Valign.class, Valign.DOWN));
+    loadCollisionLayers(entity, mapObject);
+  }
+
+  public static void loadCollisionLayers(ICollisionEntity entity, IMapObject mapObject) {
+    entity.setCollisionLayer(mapObject.getIntValue(MapObjectProperty.COLLISION_LAYER, CollisionEntity.DEFAULT_COLLISION_LAYER));
+    entity.setCollisionMask(mapObject.getIntValue(MapObjectProperty.COLLISION_MASK, CollisionEntity.ALL_COLLISION_LAYERS));
   }
 }
@@ -35,6 +35,32 @@ public interface IMapRenderer {
    */
   public MapOrientation getSupportedOrientation();
 
+  /**
+   * Discards everything that has been cached for rendering the specified layer, e.g. after several of its tiles have been replaced.
+   * Renderers that don't cache anything ignore this.
+   * 
+   * @param layer
+   *          The layer whose tiles have changed.
+   */
+  public default void invalidate(ITileLayer layer) {
+    // nothing is cached by default
+  }
+
+  /**
+   * Discards everything that has been cached for rendering the tile at the specified coordinates, e.g. after the tile has been replaced.
+   * Renderers that don't cache anything ignore this.
+   * 
+   * @param layer
+   *          The layer that contains the tile.
+   * @param x
+   *          The x-coordinate of the tile.
+   * @param y
+   *          The y-coordinate of the tile.
+   */
+  public default void invalidate(ITileLayer layer, int x, int y) {
+    // nothing is cached by default
+  }
+
   /**
    * Renders all layers of the specified <code>Map</code> onto the graphics object that meet the specified render types.
    *
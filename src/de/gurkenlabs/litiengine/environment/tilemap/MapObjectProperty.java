@@ -17,6 +17,8 @@ public final class MapObjectProperty {
 
   public static final String COLLISION_ALIGN = "collisionAlign";
   public static final String COLLISION_VALIGN = "collisionValign";
+  public static final String COLLISION_LAYER = "collisionLayer";
+  public static final String COLLISION_MASK = "collisionMask";
 
   // collision box
   public static final String COLLISIONBOX_HEIGHT = "collisionboxHeightFactor";
@@ -35,6 +37,7 @@ public final class MapObjectProperty {
   public static final String MOVEMENT_DECELERATION = "deceleration";
   public static final String MOVEMENT_VELOCITY = "velocity";
   public static final String MOVEMENT_TURNONMOVE = "turnOnMove";
+  public static final String MOVEMENT_CONTINUOUSCOLLISION = "continuousCollision";
 
   
   // combat entity
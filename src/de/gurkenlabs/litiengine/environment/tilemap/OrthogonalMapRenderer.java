@@ -4,22 +4,68 @@ import java.awt.AlphaComposite;
 import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.Image;
-import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
 
 import de.gurkenlabs.litiengine.graphics.ImageRenderer;
 import de.gurkenlabs.litiengine.resources.Resources;
 import de.gurkenlabs.litiengine.util.ImageProcessing;
 
 public class OrthogonalMapRenderer extends MapRenderer {
+  /**
+   * The number of tiles in each direction that are baked into the image of a chunk.
+   */
+  public static final int CHUNK_SIZE = 16;
+
+  /**
+   * The default number of baked chunks that are kept per layer.
+   */
+  public static final int DEFAULT_MAX_CACHED_CHUNKS = 64;
+
+  private final Map<ITileLayer, LayerChunks> layerChunks = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private volatile int maxCachedChunks = DEFAULT_MAX_CACHED_CHUNKS;
+
+  @Override
+  public void invalidate(final ITileLayer layer) {
+    this.layerChunks.remove(layer);
+  }
+
+  @Override
+  public void invalidate(final ITileLayer layer, final int x, final int y) {
+    final LayerChunks chunks = this.layerChunks.get(layer);
+    if (chunks != null) {
+      chunks.invalidate(x / CHUNK_SIZE, y / CHUNK_SIZE);
+    }
+  }
 
   @Override
   public MapOrientation getSupportedOrientation() {
     return MapOrientation.ORTHOGONAL;
   }
 
+  public int getMaxCachedChunks() {
+    return this.maxCachedChunks;
+  }
+
+  /**
+   * Sets the number of baked chunks that are kept per layer. If a layer has more baked chunks, the chunks that haven't been rendered for the
+   * longest time are dropped and baked again once they're rendered the next time. The chunks that are currently rendered are always kept.
+   *
+   * @param maxCachedChunks
+   *          The max number of baked chunks per layer.
+   */
+  public void setMaxCachedChunks(int maxCachedChunks) {
+    this.maxCachedChunks = Math.max(1, maxCachedChunks);
+  }
+
   /**
    * Gets the layer image.
    *
@@ -66,9 +112,14 @@ public class OrthogonalMapRenderer extends MapRenderer {
 
   /**
    * Renders the tiles from the specified layer that lie within the bounds of
-   * the viewport. This rendering of static tiles is cached when when the
-   * related graphics setting is enabled, which tremendously improves the
-   * rendering performance.
+   * the viewport.
+   * <p>
+   * The static tiles of the layer are baked into images of {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} tiles when a chunk is rendered for the first
+   * time, so only the chunks that intersect the viewport need to be drawn. Animated tiles are drawn on top of their chunk in every frame.
+   * </p>
+   * <p>
+   * At most {@link #getMaxCachedChunks()} baked chunks are kept per layer, which bounds the memory of large maps.
+   * </p>
    *
    * @param g
    *          The graphics object to render on.
@@ -86,25 +137,153 @@ public class OrthogonalMapRenderer extends MapRenderer {
     final AlphaComposite ac = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, layer.getOpacity());
     g.setComposite(ac);
 
-    for (int x = 0; x < map.getWidth(); x++) {
-      for (int y = 0; y < map.getHeight(); y++) {
-        ITile tile = layer.getTile(x, y);
-        int tileX = x * map.getTileWidth();
-        int tileY = y * map.getTileHeight();
+    final int tileWidth = map.getTileWidth();
+    final int tileHeight = map.getTileHeight();
+    final double offsetX = -(viewport.getX()) + layer.getOffset().x;
+    final double offsetY = -(viewport.getY()) + layer.getOffset().y;
+
+    // the range of tiles that are covered by the viewport, relative to the layer's offset
+    final int minX = Math.max(0, (int) Math.floor(-offsetX / tileWidth));
+    final int minY = Math.max(0, (int) Math.floor(-offsetY / tileHeight));
+    final int maxX = Math.min(map.getWidth() - 1, (int) Math.floor((viewport.getWidth() - offsetX) / tileWidth));
+    final int maxY = Math.min(map.getHeight() - 1, (int) Math.floor((viewport.getHeight() - offsetY) / tileHeight));
+
+    if (minX <= maxX && minY <= maxY) {
+      final LayerChunks chunks = this.layerChunks.computeIfAbsent(layer, l -> new LayerChunks(map.getWidth()));
+      for (int chunkX = minX / CHUNK_SIZE; chunkX <= maxX / CHUNK_SIZE; chunkX++) {
+        for (int chunkY = minY / CHUNK_SIZE; chunkY <= maxY / CHUNK_SIZE; chunkY++) {
+          final Chunk chunk = chunks.get(chunkX, chunkY, layer, map);
+          final double chunkOffsetX = offsetX + chunkX * CHUNK_SIZE * tileWidth;
+          final double chunkOffsetY = offsetY + chunkY * CHUNK_SIZE * tileHeight;
+          if (chunk.image != null) {
+            ImageRenderer.render(g, chunk.image, chunkOffsetX, chunkOffsetY);
+          }
+
+          for (int i = 0; i < chunk.animatedTiles.length; i++) {
+            final int x = chunk.animatedTiles[i] % CHUNK_SIZE;
+            final int y = chunk.animatedTiles[i] / CHUNK_SIZE;
+            final Image tileTexture = getTileImage(map, layer.getTile(chunkX * CHUNK_SIZE + x, chunkY * CHUNK_SIZE + y));
+            ImageRenderer.render(g, tileTexture, chunkOffsetX + x * tileWidth, chunkOffsetY + y * tileHeight);
+          }
+        }
+      }
 
-        // TODO: incorporate layer offsets, right now this may cut off layers with an offset
-        Rectangle tileBounds = new Rectangle(tileX, tileY, map.getTileWidth(), map.getTileHeight());
-        if (tile == null || !viewport.intersects(tileBounds)) {
+      final int visibleChunks = (maxX / CHUNK_SIZE - minX / CHUNK_SIZE + 1) * (maxY / CHUNK_SIZE - minY / CHUNK_SIZE + 1);
+      chunks.evict(Math.max(this.getMaxCachedChunks(), visibleChunks));
+    }
+
+    g.setComposite(oldComp);
+  }
+
+  private static Chunk bake(final ITileLayer layer, final IMap map, final int chunkX, final int chunkY) {
+    final int tileWidth = map.getTileWidth();
+    final int tileHeight = map.getTileHeight();
+    final int startX = chunkX * CHUNK_SIZE;
+    final int startY = chunkY * CHUNK_SIZE;
+    final int endX = Math.min(startX + CHUNK_SIZE, map.getWidth());
+    final int endY = Math.min(startY + CHUNK_SIZE, map.getHeight());
+
+    final Image[] textures = new Image[CHUNK_SIZE * CHUNK_SIZE];
+    final int[] animated = new int[CHUNK_SIZE * CHUNK_SIZE];
+    int animatedCount = 0;
+    int width = 0;
+    int height = 0;
+    for (int x = startX; x < endX; x++) {
+      for (int y = startY; y < endY; y++) {
+        final ITile tile = layer.getTile(x, y);
+        if (tile == null) {
+          continue;
+        }
+
+        final int index = (y - startY) * CHUNK_SIZE + x - startX;
+        if (MapUtilities.hasAnimation(map, tile)) {
+          animated[animatedCount++] = index;
+          continue;
+        }
+
+        final Image texture = getTileImage(map, tile);
+        if (texture == null) {
           continue;
         }
-        final Image tileTexture = getTileImage(map, tile);
-        final double offsetX = -(viewport.getX()) + layer.getOffset().x;
-        final double offsetY = -(viewport.getY()) + layer.getOffset().y;
 
-        ImageRenderer.render(g, tileTexture, offsetX + tileX, offsetY + tileY);
+        // tiles that are larger than the map's grid overlap the tiles to the right and below them
+        textures[index] = texture;
+        width = Math.max(width, (x - startX) * tileWidth + texture.getWidth(null));
+        height = Math.max(height, (y - startY) * tileHeight + texture.getHeight(null));
       }
     }
 
-    g.setComposite(oldComp);
+    BufferedImage image = null;
+    if (width > 0 && height > 0) {
+      image = ImageProcessing.getCompatibleImage(width, height);
+      final Graphics2D imageGraphics = image.createGraphics();
+      for (int i = 0; i < textures.length; i++) {
+        if (textures[i] != null) {
+          ImageRenderer.render(imageGraphics, textures[i], i % CHUNK_SIZE * tileWidth, i / CHUNK_SIZE * tileHeight);
+        }
+      }
+
+      imageGraphics.dispose();
+    }
+
+    return new Chunk(image, Arrays.copyOf(animated, animatedCount));
+  }
+
+  private static class Chunk {
+    private final BufferedImage image;
+    private final int[] animatedTiles;
+
+    private Chunk(BufferedImage image, int[] animatedTiles) {
+      this.image = image;
+      this.animatedTiles = animatedTiles;
+    }
+  }
+
+  int getCachedChunks(ITileLayer layer) {
+    final LayerChunks chunks = this.layerChunks.get(layer);
+    return chunks != null ? chunks.size() : 0;
+  }
+
+  /**
+   * The baked chunks of a layer in the order in which they were rendered last, which makes the first chunks the ones to evict.
+   */
+  private static class LayerChunks {
+    private final int columns;
+    private final LinkedHashMap<Integer, Chunk> chunks;
+
+    private LayerChunks(int width) {
+      this.columns = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      this.chunks = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private synchronized Chunk get(int chunkX, int chunkY, ITileLayer layer, IMap map) {
+      final Integer index = chunkY * this.columns + chunkX;
+      Chunk chunk = this.chunks.get(index);
+      if (chunk == null) {
+        // chunks are baked lazily when they are rendered for the first time
+        chunk = bake(layer, map, chunkX, chunkY);
+        this.chunks.put(index, chunk);
+      }
+
+      return chunk;
+    }
+
+    private synchronized void invalidate(int chunkX, int chunkY) {
+      if (chunkX >= 0 && chunkX < this.columns && chunkY >= 0) {
+        this.chunks.remove(chunkY * this.columns + chunkX);
+      }
+    }
+
+    private synchronized void evict(int maxChunks) {
+      final Iterator<Chunk> iterator = this.chunks.values().iterator();
+      while (this.chunks.size() > maxChunks && iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+
+    private synchronized int size() {
+      return this.chunks.size();
+    }
   }
 }
\ No newline at end of file
@@ -3,27 +3,28 @@ package de.gurkenlabs.litiengine.graphics;
 import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.MultipleGradientPaint.CycleMethod;
 import java.awt.Paint;
-import java.awt.RadialGradientPaint;
+import java.awt.RenderingHints;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
-import java.awt.geom.Line2D;
-import java.awt.geom.Path2D;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+import de.gurkenlabs.litiengine.Game;
+import de.gurkenlabs.litiengine.configuration.LightingBackend;
 import de.gurkenlabs.litiengine.entities.LightSource;
 import de.gurkenlabs.litiengine.entities.StaticShadow;
 import de.gurkenlabs.litiengine.environment.IEnvironment;
 import de.gurkenlabs.litiengine.util.MathUtilities;
-import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
-import de.gurkenlabs.litiengine.util.geom.Vector2D;
 
 public class AmbientLight extends ColorLayer {
   public static final Color DEFAULT_COLOR = new Color(0, 0, 0, 0);
 
+  private final Map<LightSource, LightGeometry> lightGeometries = Collections.synchronizedMap(new WeakHashMap<>());
+
   public AmbientLight(final IEnvironment env, final Color ambientColor) {
     super(env, ambientColor);
   }
@@ -39,6 +40,11 @@ public class AmbientLight extends ColorLayer {
     final double mapHeight = this.getEnvironment().getMap().getSizeInPixels().height;
     double longerDimension = mapWidth < mapHeight ? mapHeight : mapWidth;
 
+    if (Game.config() != null && Game.config().graphics().getLightingBackend() == LightingBackend.RASTER) {
+      this.renderLightmap(g, section, longerDimension, Game.config().graphics().getLightmapCellSize());
+      return;
+    }
+
     final Area darkArea = new Area(new Rectangle2D.Double(0, 0, width, height));
 
     for (final LightSource light : this.getEnvironment().getLightSources()) {
@@ -64,94 +70,55 @@ public class AmbientLight extends ColorLayer {
     }
   }
 
-  private void renderLightSource(final Graphics2D g, final LightSource light, final double longerDimension, Rectangle2D section) {
+  /**
+   * Gets the geometry of the specified light, which is cached until the light changes or a static shadow within its bounding box is added
+   * or removed. This way, updating a section only computes the shadows of the lights that actually changed.
+   */
+  private LightGeometry getLightGeometry(final LightSource light, final double longerDimension) {
+    final List<StaticShadow> staticShadows = LightGeometry.getStaticShadows(light, this.getEnvironment().getStaticShadows());
+    LightGeometry geometry = this.lightGeometries.get(light);
+    if (geometry == null || !geometry.isValid(light, staticShadows, longerDimension)) {
+      geometry = new LightGeometry(light, staticShadows, longerDimension);
+      this.lightGeometries.put(light, geometry);
+    }
 
-    final Point2D lightCenter = light.getCenter();
-    final Point2D lightFocus = new Point2D.Double(lightCenter.getX() + light.getBoundingBox().getWidth() * light.getFocusOffsetX(), lightCenter.getY() + light.getBoundingBox().getHeight() * light.getFocusOffsetY());
-    Shape fillShape;
+    return geometry;
+  }
 
-    Area lightArea = null;
-    if (light.getLightShapeType().equals(LightSource.RECTANGLE)) {
-      g.setColor(new Color(light.getColor().getRed(), light.getColor().getGreen(), light.getColor().getBlue(), light.getColor().getAlpha()));
-      fillShape = new Rectangle2D.Double(light.getBoundingBox().getX() - section.getX(), light.getBoundingBox().getY() - section.getY(), light.getBoundingBox().getWidth(), light.getBoundingBox().getHeight());
-      g.fill(fillShape);
-      return;
-    }
+  private void renderLightmap(final Graphics2D g, final Rectangle2D section, final double longerDimension, final int cellSize) {
+    final RasterLightmap lightmap = new RasterLightmap(section, cellSize);
+    lightmap.render(this.getColor(), this.getEnvironment().getLightSources(), light -> this.getLightGeometry(light, longerDimension), this.getEnvironment().getMap().getTileHeight());
 
-    // cut the light area where shadow Boxes are (this simulates light falling
-    // into and out of rooms)
-    for (final StaticShadow col : this.getEnvironment().getStaticShadows()) {
-      if (!light.getBoundingBox().intersects(col.getBoundingBox())) {
-        continue;
-      }
+    if (cellSize > 1) {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    }
 
-      if (lightArea == null) {
-        lightArea = new Area(light.getLightShape());
-      }
+    g.drawImage(lightmap.getImage(), 0, 0, lightmap.getWidth() * Math.max(1, cellSize), lightmap.getHeight() * Math.max(1, cellSize), null);
+  }
 
-      if (!lightArea.intersects(col.getBoundingBox())) {
-        continue;
-      }
+  private void renderLightSource(final Graphics2D g, final LightSource light, final double longerDimension, Rectangle2D section) {
+    final LightGeometry geometry = this.getLightGeometry(light, longerDimension);
 
-      final Area boxInLight = new Area(col.getBoundingBox());
-
-      final Line2D[] bounds = GeometricUtilities.getLines(col.getBoundingBox());
-      for (final Line2D line : bounds) {
-        final Vector2D lineVector = new Vector2D(line.getP1(), line.getP2());
-        final Vector2D lightVector = new Vector2D(lightFocus, line.getP1());
-
-        if (light.getCenter().getY() < line.getY1() && light.getCenter().getY() < line.getY2() && col.getBoundingBox().contains(light.getCenter()) || lineVector.normalVector().dotProduct(lightVector) >= 0) {
-          continue;
-        }
-
-        final Path2D shadowParallelogram = new Path2D.Double();
-        final Point2D shadowPoint1 = GeometricUtilities.project(lightFocus, line.getP1(), longerDimension);
-        final Point2D shadowPoint2 = GeometricUtilities.project(lightFocus, line.getP2(), longerDimension);
-
-        // construct a shape from our points
-        shadowParallelogram.moveTo(line.getP1().getX(), line.getP1().getY());
-        shadowParallelogram.lineTo(shadowPoint1.getX(), shadowPoint1.getY());
-        shadowParallelogram.lineTo(shadowPoint2.getX(), shadowPoint2.getY());
-        shadowParallelogram.lineTo(line.getP2().getX(), line.getP2().getY());
-        shadowParallelogram.closePath();
-
-        final Area shadowArea = new Area(shadowParallelogram);
-        if (light.getCenter().getY() < col.getBoundingBox().getMaxY() && !col.getBoundingBox().contains(light.getCenter())) {
-          shadowArea.add(boxInLight);
-        }
-        shadowArea.intersect(lightArea);
-        lightArea.subtract(shadowArea);
-      }
+    // the geometry is cached in map coordinates
+    g.translate(-section.getX(), -section.getY());
+    if (geometry.isRectangle()) {
+      g.setColor(new Color(light.getColor().getRed(), light.getColor().getGreen(), light.getColor().getBlue(), light.getColor().getAlpha()));
+      g.fill(light.getBoundingBox());
+      g.translate(section.getX(), section.getY());
+      return;
     }
 
     final Paint oldPaint = g.getPaint();
 
     // render parts that lie within the shadow with a gradient from the light
     // color to transparent
-    final Shape lightShape = light.getLightShape();
-
-    final double radius = lightShape.getBounds2D().getWidth() > lightShape.getBounds2D().getHeight() ? lightShape.getBounds2D().getWidth() : lightShape.getBounds2D().getHeight();
-    final Color[] transColors = new Color[] { light.getColor(), new Color(light.getColor().getRed(), light.getColor().getGreen(), light.getColor().getBlue(), 0) };
-    final Point2D center = new Point2D.Double(lightShape.getBounds2D().getCenterX() - section.getX(), lightShape.getBounds2D().getCenterY() - section.getY());
-    final Point2D focus = new Point2D.Double(center.getX() + lightShape.getBounds2D().getWidth() * light.getFocusOffsetX(), center.getY() + lightShape.getBounds2D().getHeight() * light.getFocusOffsetY());
-    RadialGradientPaint paint = new RadialGradientPaint(
-        center,
-        (float) (radius / 2d),
-        focus,
-        new float[] { 0.0f, 1.00f },
-        transColors,
-        CycleMethod.NO_CYCLE);
-
-    g.setPaint(paint);
-
-    if (lightArea != null) {
-      lightArea.transform(AffineTransform.getTranslateInstance(-section.getX(), -section.getY()));
-      fillShape = lightArea;
-    } else {
-      fillShape = new Rectangle2D.Double(light.getBoundingBox().getX() - section.getX(), light.getBoundingBox().getY() - section.getY(), light.getBoundingBox().getWidth(), light.getBoundingBox().getHeight());
-    }
+    g.setPaint(geometry.getGradientPaint());
+
+    final Area lightArea = geometry.getLightArea();
+    final Shape fillShape = lightArea != null ? lightArea : light.getBoundingBox();
 
     g.fill(fillShape);
     g.setPaint(oldPaint);
+    g.translate(section.getX(), section.getY());
   }
 }
\ No newline at end of file
@@ -255,7 +255,8 @@ public class Camera implements ICamera {
 
     final double viewPortX = this.getFocus().getX() - this.getViewPortCenterX();
     final double viewPortY = this.getFocus().getY() - this.getViewPortCenterY();
-    this.viewPort = new Rectangle2D.Double(viewPortX, viewPortY, Game.window().getResolution().getWidth() / this.getRenderScale(), Game.window().getResolution().getHeight() / this.getRenderScale());
+    final Dimension resolution = getResolution();
+    this.viewPort = new Rectangle2D.Double(viewPortX, viewPortY, resolution.getWidth() / this.getRenderScale(), resolution.getHeight() / this.getRenderScale());
   }
 
   @Override
@@ -278,7 +279,7 @@ public class Camera implements ICamera {
     final Dimension mapSize = Game.world().environment().getMap().getSizeInPixels();
 
     // TODO: Implement special handling for maps that are smaller than the camera area: use Align, Valign to determine where to render them
-    final Dimension resolution = Game.window().getResolution();
+    final Dimension resolution = getResolution();
     double minX = resolution.getWidth() / this.getRenderScale() / 2.0;
     double maxX = mapSize.getWidth() - minX;
     double minY = resolution.getHeight() / this.getRenderScale() / 2.0;
@@ -333,11 +334,16 @@ public class Camera implements ICamera {
   }
 
   private double getViewPortCenterX() {
-    return Game.window().getResolution().getWidth() * 0.5 / this.getRenderScale();
+    return getResolution().getWidth() * 0.5 / this.getRenderScale();
   }
 
   private double getViewPortCenterY() {
-    return Game.window().getResolution().getHeight() * 0.5 / this.getRenderScale();
+    return getResolution().getHeight() * 0.5 / this.getRenderScale();
+  }
+
+  private static Dimension getResolution() {
+    // a headless game has no window, so the camera doesn't have a visible area
+    return Game.window() != null ? Game.window().getResolution() : new Dimension();
   }
 
   private boolean isShakeEffectActive() {
@@ -8,8 +8,15 @@ import java.awt.Shape;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import de.gurkenlabs.litiengine.Game;
+import de.gurkenlabs.litiengine.IGameLoop;
 import de.gurkenlabs.litiengine.environment.IEnvironment;
 import de.gurkenlabs.litiengine.environment.tilemap.IMap;
 import de.gurkenlabs.litiengine.environment.tilemap.ITile;
@@ -21,46 +28,62 @@ import de.gurkenlabs.litiengine.util.MathUtilities;
 import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
 
 public abstract class ColorLayer implements IRenderable {
+  private static final Logger log = Logger.getLogger(ColorLayer.class.getName());
+  private static final int MAX_DIRTY_SECTIONS = 64;
+
   private final IEnvironment environment;
-  private final Image[][] tiles;
+  private final int[] tileOffsets;
+  private final List<Rectangle2D> dirtySections;
+  private final AtomicBoolean updating;
 
-  private Color color;
+  private volatile Image[][] tiles;
+  private volatile Color color;
 
   protected ColorLayer(IEnvironment env, final Color color) {
     this.environment = env;
     this.color = color;
+    this.tileOffsets = getTileOffsets(env.getMap());
+    this.dirtySections = new ArrayList<>();
+    this.updating = new AtomicBoolean();
     this.tiles = new Image[env.getMap().getWidth()][env.getMap().getHeight()];
-    this.updateSection(this.environment.getMap().getBounds());
+    this.renderSections(Collections.singletonList(this.environment.getMap().getBounds()), this.tiles);
   }
 
   @Override
   public void render(Graphics2D g) {
-    final Rectangle2D viewport = Game.world().camera().getViewport();
+    this.updateDirtySections();
 
+    final Rectangle2D viewport = Game.world().camera().getViewport();
     final IMap map = this.getEnvironment().getMap();
+    final Image[][] currentTiles = this.tiles;
 
-    // draw the tile on the layer image
-    for (int x = 0; x < map.getWidth(); x++) {
-      for (int y = 0; y < map.getHeight(); y++) {
-        Rectangle2D tileBounds = map.getTileShape(x, y).getBounds2D();
-        ITile tile = map.getTileLayers().get(0).getTile(x, y);
-        if (!viewport.intersects(tileBounds)) {
+    // the tiles that are covered by the viewport, padded by one tile for staggered tiles and tile offsets
+    final Point minTile = MapUtilities.getTile(map, viewport.getX(), viewport.getY());
+    final Point maxTile = MapUtilities.getTile(map, viewport.getMaxX(), viewport.getMaxY());
+    final int minX = Math.max(0, minTile.x - 1);
+    final int minY = Math.max(0, minTile.y - 1);
+    final int maxX = Math.min(currentTiles.length - 1, maxTile.x + 1);
+    final int maxY = Math.min(map.getHeight() - 1, maxTile.y + 1);
+
+    final double offsetX = -(viewport.getX());
+    final double offsetY = -(viewport.getY());
+    for (int x = minX; x <= maxX; x++) {
+      for (int y = minY; y <= maxY; y++) {
+        final Image tile = currentTiles[x][y];
+        if (tile == null) {
           continue;
         }
-        final double offsetX = -(viewport.getX());
-        final double offsetY = -(viewport.getY());
 
+        final Rectangle2D tileBounds = map.getTileShape(x, y).getBounds2D();
         int tileOffsetX = 0;
         int tileOffsetY = 0;
-        ITileset tileset = MapUtilities.findTileSet(map, tile);
-        if (tileset != null) {
-          final ITileOffset tileOffset = tileset.getTileOffset();
-          if (tileOffset != null) {
-            tileOffsetX = tileOffset.getX();
-            tileOffsetY = tileOffset.getY();
-          }
+        if (this.tileOffsets != null) {
+          final int index = (x * map.getHeight() + y) * 2;
+          tileOffsetX = this.tileOffsets[index];
+          tileOffsetY = this.tileOffsets[index + 1];
         }
-        ImageRenderer.render(g, tiles[x][y], offsetX + tileBounds.getX() + tileOffsetX, offsetY + tileBounds.getY() + tileOffsetY);
+
+        ImageRenderer.render(g, tile, offsetX + tileBounds.getX() + tileOffsetX, offsetY + tileBounds.getY() + tileOffsetY);
       }
     }
   }
@@ -71,7 +94,6 @@ public abstract class ColorLayer implements IRenderable {
 
   public void setAlpha(int ambientAlpha) {
     this.setColor(new Color(this.getColor().getRed(), this.getColor().getGreen(), this.getColor().getBlue(), MathUtilities.clamp(ambientAlpha, 0, 255)));
-    this.updateSection(this.environment.getMap().getBounds());
   }
 
   public void setColor(final Color color) {
@@ -79,35 +101,147 @@ public abstract class ColorLayer implements IRenderable {
     this.updateSection(this.environment.getMap().getBounds());
   }
 
+  /**
+   * Marks the specified section of this layer as dirty.
+   * <p>
+   * The dirty sections are not re-rendered immediately; instead, all sections that were marked since the last frame are merged and re-rendered
+   * once before this layer is rendered the next time. If asynchronous color layers are enabled in the {@link de.gurkenlabs.litiengine.configuration.GraphicConfiguration},
+   * the sections are re-rendered by a worker of the game loop and the layer keeps rendering its previous tiles until the new ones are
+   * available.
+   * </p>
+   *
+   * @param section
+   *          The section of the map that needs to be re-rendered.
+   */
   public void updateSection(Rectangle2D section) {
-    if (this.getColor() == null) {
+    if (this.getColor() == null || section == null) {
       return;
     }
 
-    final IMap map = this.getEnvironment().getMap();
+    synchronized (this.dirtySections) {
+      this.dirtySections.add(new Rectangle2D.Double(section.getX(), section.getY(), section.getWidth(), section.getHeight()));
+
+      // keep the pending sections bounded while the layer isn't rendered, e.g. while the game is minimized
+      if (this.dirtySections.size() >= MAX_DIRTY_SECTIONS) {
+        final List<Rectangle2D> merged = merge(this.dirtySections);
+        this.dirtySections.clear();
+        if (merged.size() < MAX_DIRTY_SECTIONS) {
+          this.dirtySections.addAll(merged);
+        } else {
+          this.dirtySections.add(merged.stream().reduce(Rectangle2D::createUnion).orElse(section));
+        }
+      }
+    }
+  }
+
+  protected abstract void renderSection(Graphics2D g, Rectangle2D section);
+
+  protected IEnvironment getEnvironment() {
+    return this.environment;
+  }
+
+  /**
+   * Merges all intersecting sections until none of the resulting sections intersect each other.
+   *
+   * @param sections
+   *          The sections to merge.
+   * @return The merged sections.
+   */
+  static List<Rectangle2D> merge(List<Rectangle2D> sections) {
+    final List<Rectangle2D> merged = new ArrayList<>(sections);
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = 0; i < merged.size() && !changed; i++) {
+        for (int j = i + 1; j < merged.size(); j++) {
+          if (merged.get(i).intersects(merged.get(j)) || merged.get(i).contains(merged.get(j)) || merged.get(j).contains(merged.get(i))) {
+            merged.set(i, merged.get(i).createUnion(merged.remove(j)));
+            changed = true;
+            break;
+          }
+        }
+      }
+    }
+
+    return merged;
+  }
+
+  private void updateDirtySections() {
+    // only one update is in progress at any time, further sections are collected in the meantime
+    if (!this.updating.compareAndSet(false, true)) {
+      return;
+    }
+
+    final List<Rectangle2D> sections;
+    synchronized (this.dirtySections) {
+      if (this.dirtySections.isEmpty()) {
+        this.updating.set(false);
+        return;
+      }
+
+      sections = merge(this.dirtySections);
+      this.dirtySections.clear();
+    }
+
+    final IGameLoop loop = Game.loop();
+    if (loop == null || Game.config() == null || !Game.config().graphics().asyncColorLayers()) {
+      try {
+        this.renderSections(sections, this.tiles);
+      } finally {
+        this.updating.set(false);
+      }
 
-    final Rectangle2D tileSection = MapUtilities.getTileBoundingBox(map, section);
-    if (tileSection == null) {
       return;
     }
-    final BufferedImage img = ImageProcessing.getCompatibleImage((int) tileSection.getWidth(), (int) tileSection.getHeight());
-    final Graphics2D g = img.createGraphics();
 
-    this.renderSection(g, tileSection);
+    // the sections are rendered to a copy of the tiles that replaces the current tiles once all sections are rendered
+    loop.async(() -> this.renderSections(sections, copy(this.tiles))).whenComplete((updatedTiles, e) -> {
+      if (e != null) {
+        log.log(Level.WARNING, "Could not update the sections of the color layer: {0}", e.getMessage());
+        synchronized (this.dirtySections) {
+          this.dirtySections.addAll(sections);
+        }
+      } else {
+        this.tiles = updatedTiles;
+      }
+
+      this.updating.set(false);
+    });
+  }
+
+  private Image[][] renderSections(List<Rectangle2D> sections, Image[][] target) {
+    if (this.getColor() == null) {
+      return target;
+    }
+
+    final IMap map = this.getEnvironment().getMap();
+    for (Rectangle2D section : sections) {
+      final Rectangle2D tileSection = MapUtilities.getTileBoundingBox(map, section);
+      if (tileSection == null) {
+        continue;
+      }
 
-    g.dispose();
+      final BufferedImage img = ImageProcessing.getCompatibleImage((int) tileSection.getWidth(), (int) tileSection.getHeight());
+      final Graphics2D g = img.createGraphics();
+
+      this.renderSection(g, tileSection);
+
+      g.dispose();
+
+      this.setTiles(img, tileSection, target);
+    }
 
-    this.setTiles(img, tileSection);
+    return target;
   }
 
-  private void setTiles(BufferedImage img, Rectangle2D section) {
+  private void setTiles(BufferedImage img, Rectangle2D section, Image[][] target) {
     final IMap map = this.getEnvironment().getMap();
     final Point startTile = MapUtilities.getTile(map, new Point2D.Double(section.getX(), section.getY()));
     final Point endTile = MapUtilities.getTile(map, new Point2D.Double(section.getMaxX(), section.getMaxY()));
-    final int startX = MathUtilities.clamp(startTile.x, 0, Math.min(startTile.x + (endTile.x - startTile.x), tiles.length) - 1);
-    final int startY = MathUtilities.clamp(startTile.y, 0, Math.min(startTile.y + (endTile.y - startTile.y), tiles[0].length) - 1);
-    final int endX = MathUtilities.clamp(endTile.x, 0, Math.min(startTile.x + (endTile.x - startTile.x), tiles.length) - 1);
-    final int endY = MathUtilities.clamp(endTile.y, 0, Math.min(startTile.y + (endTile.y - startTile.y), tiles[0].length) - 1);
+    final int startX = MathUtilities.clamp(startTile.x, 0, Math.min(startTile.x + (endTile.x - startTile.x), target.length) - 1);
+    final int startY = MathUtilities.clamp(startTile.y, 0, Math.min(startTile.y + (endTile.y - startTile.y), target[0].length) - 1);
+    final int endX = MathUtilities.clamp(endTile.x, 0, Math.min(startTile.x + (endTile.x - startTile.x), target.length) - 1);
+    final int endY = MathUtilities.clamp(endTile.y, 0, Math.min(startTile.y + (endTile.y - startTile.y), target[0].length) - 1);
 
     final Shape startTileShape = map.getTileShape(startX, startY);
     for (int x = startX; x <= endX; x++) {
@@ -122,14 +256,52 @@ public abstract class ColorLayer implements IRenderable {
         g.clip(translatedTile);
         g.drawImage(smallImage, 0, 0, null);
         g.dispose();
-        this.tiles[x][y] = clippedImage;
+        target[x][y] = clippedImage;
       }
     }
   }
 
-  protected abstract void renderSection(Graphics2D g, Rectangle2D section);
+  private static Image[][] copy(Image[][] tiles) {
+    final Image[][] copy = new Image[tiles.length][];
+    for (int x = 0; x < tiles.length; x++) {
+      copy[x] = tiles[x].clone();
+    }
 
-  protected IEnvironment getEnvironment() {
-    return this.environment;
+    return copy;
+  }
+
+  /**
+   * Resolves the offsets of the tilesets once for every tile of the first tile layer.
+   *
+   * @return The x and y offsets of all tiles; or null if none of the tilesets has an offset.
+   */
+  private static int[] getTileOffsets(IMap map) {
+    boolean hasOffsets = false;
+    for (ITileset tileset : map.getTilesets()) {
+      final ITileOffset tileOffset = tileset.getTileOffset();
+      if (tileOffset != null && (tileOffset.getX() != 0 || tileOffset.getY() != 0)) {
+        hasOffsets = true;
+        break;
+      }
+    }
+
+    if (!hasOffsets || map.getTileLayers().isEmpty()) {
+      return null;
+    }
+
+    final int[] offsets = new int[map.getWidth() * map.getHeight() * 2];
+    for (int x = 0; x < map.getWidth(); x++) {
+      for (int y = 0; y < map.getHeight(); y++) {
+        final ITile tile = map.getTileLayers().get(0).getTile(x, y);
+        final ITileset tileset = MapUtilities.findTileSet(map, tile);
+        if (tileset != null && tileset.getTileOffset() != null) {
+          final int index = (x * map.getHeight() + y) * 2;
+          offsets[index] = tileset.getTileOffset().getX();
+          offsets[index + 1] = tileset.getTileOffset().getY();
+        }
+      }
+    }
+
+    return offsets;
   }
 }
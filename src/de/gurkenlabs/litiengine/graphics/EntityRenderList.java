@@ -0,0 +1,178 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import de.gurkenlabs.litiengine.entities.EntityYComparator;
+import de.gurkenlabs.litiengine.entities.IEntity;
+import de.gurkenlabs.litiengine.physics.SpatialHash;
+
+/**
+ * The entities of one render type that are visible in the viewport, in the order in which they are rendered.
+ * <br>
+ * The list persists from frame to frame: Every update only looks up the entities in the viewport's cells of a spatial index, drops the entities
+ * that left the viewport and appends the ones that entered it. Since the Y order of the entities barely changes between two frames, the list is
+ * re-sorted with an insertion sort, which takes linear time for an almost sorted list. After the list's arrays have grown to the number of
+ * visible entities, an update doesn't allocate any memory.
+ * <br>
+ * Entities are culled by the bounds of their current sprite, extended by a margin. Renderable entities (e.g. emitters) draw arbitrary content
+ * outside of their bounds, so they are never culled.
+ *
+ * @see RenderEngine#renderEntities(java.awt.Graphics2D, SpatialHash, Collection, RenderType)
+ * @see RenderSnapshotBuffer#capture(long, long, SpatialHash, Collection, Rectangle2D, double)
+ */
+final class EntityRenderList {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final RenderType renderType;
+  private final Map<IEntity, int[]> frames;
+  private final Predicate<IEntity> collector;
+
+  private SpatialHash<? extends IEntity> index;
+  private Rectangle2D viewport;
+  private double margin;
+  private IEntity[] entities;
+  private double[] sortKeys;
+  private int size;
+  private int frame;
+
+  EntityRenderList(RenderType renderType) {
+    this.renderType = renderType;
+    this.frames = new IdentityHashMap<>();
+    this.collector = this::collect;
+    this.entities = new IEntity[INITIAL_CAPACITY];
+    this.sortKeys = new double[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Updates this list to contain the entities of its render type that intersect the specified viewport.
+   *
+   * @param index
+   *          The spatial index of all entities of the environment.
+   * @param viewport
+   *          The viewport of the camera.
+   * @param sort
+   *          Whether the entities are sorted by their Y coordinate.
+   */
+  void update(SpatialHash<? extends IEntity> index, Rectangle2D viewport, boolean sort) {
+    this.update(index, Collections.emptyList(), viewport, 0, sort);
+  }
+
+  /**
+   * Updates this list to contain the entities of its render type that intersect the specified viewport, extended by the specified margin, and
+   * the specified unculled entities.
+   *
+   * @param index
+   *          The spatial index of all entities of the environment.
+   * @param unculledEntities
+   *          The entities that are rendered regardless of their location, e.g. renderable entities.
+   * @param viewport
+   *          The viewport of the camera.
+   * @param margin
+   *          The distance by which the sprites of entities may exceed the viewport and still be rendered.
+   * @param sort
+   *          Whether the entities are sorted by their Y coordinate.
+   */
+  void update(SpatialHash<? extends IEntity> index, Collection<? extends IEntity> unculledEntities, Rectangle2D viewport, double margin, boolean sort) {
+    if (this.index != index) {
+      this.clear();
+      this.index = index;
+    }
+
+    this.viewport = viewport;
+    this.margin = margin;
+    this.frame++;
+    index.find(viewport.getMinX() - margin, viewport.getMinY() - margin, viewport.getMaxX() + margin, viewport.getMaxY() + margin, this.collector);
+    for (IEntity entity : unculledEntities) {
+      this.collect(entity);
+    }
+
+    this.viewport = null;
+
+    // drop the entities that were not found in this frame and keep the order of the others
+    int count = 0;
+    for (int i = 0; i < this.size; i++) {
+      final IEntity entity = this.entities[i];
+      if (this.frames.get(entity)[0] != this.frame) {
+        this.frames.remove(entity);
+        continue;
+      }
+
+      this.entities[count] = entity;
+      this.sortKeys[count] = sort ? EntityYComparator.getSortKey(entity) : 0;
+      count++;
+    }
+
+    Arrays.fill(this.entities, count, this.size, null);
+    this.size = count;
+
+    if (sort) {
+      this.sort();
+    }
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  IEntity get(int index) {
+    return this.entities[index];
+  }
+
+  void clear() {
+    Arrays.fill(this.entities, 0, this.size, null);
+    this.frames.clear();
+    this.size = 0;
+    this.index = null;
+  }
+
+  private boolean collect(IEntity entity) {
+    if (entity.getRenderType() != this.renderType) {
+      return false;
+    }
+
+    if (!(entity instanceof IRenderable) && !RenderEngine.isVisible(entity, this.viewport, this.margin)) {
+      return false;
+    }
+
+    final int[] lastFrame = this.frames.get(entity);
+    if (lastFrame != null) {
+      lastFrame[0] = this.frame;
+      return false;
+    }
+
+    // the entity entered the viewport
+    this.frames.put(entity, new int[] { this.frame });
+    if (this.size == this.entities.length) {
+      this.entities = Arrays.copyOf(this.entities, this.size * 2);
+      this.sortKeys = Arrays.copyOf(this.sortKeys, this.size * 2);
+    }
+
+    this.entities[this.size++] = entity;
+    return false;
+  }
+
+  /**
+   * A stable insertion sort by the sort keys, which only needs to move the few entities that changed their order since the last frame.
+   */
+  private void sort() {
+    for (int i = 1; i < this.size; i++) {
+      final IEntity entity = this.entities[i];
+      final double key = this.sortKeys[i];
+      int j = i - 1;
+      while (j >= 0 && this.sortKeys[j] > key) {
+        this.entities[j + 1] = this.entities[j];
+        this.sortKeys[j + 1] = this.sortKeys[j];
+        j--;
+      }
+
+      this.entities[j + 1] = entity;
+      this.sortKeys[j + 1] = key;
+    }
+  }
+}
@@ -52,7 +52,8 @@ public class FreeFlightCamera extends Camera implements IUpdateable {
   }
 
   private void handleFreeFlightCamera() {
-    if (Game.world().environment() == null || Game.world().environment().getMap() == null) {
+    // the camera scrolls when the mouse approaches the edges of the window, which doesn't exist in a headless game
+    if (Game.window() == null || Game.world().environment() == null || Game.world().environment().getMap() == null) {
       return;
     }
 
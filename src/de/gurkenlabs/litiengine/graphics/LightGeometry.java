@@ -0,0 +1,222 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import java.awt.Color;
+import java.awt.MultipleGradientPaint.CycleMethod;
+import java.awt.RadialGradientPaint;
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import de.gurkenlabs.litiengine.entities.LightSource;
+import de.gurkenlabs.litiengine.entities.StaticShadow;
+import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
+import de.gurkenlabs.litiengine.util.geom.Vector2D;
+
+/**
+ * The geometry of a light source that is required to render it into the {@link AmbientLight}, in map coordinates.
+ * <p>
+ * Computing the shadows that static shadows cast into a light is expensive, but static shadows don't move. So the geometry is computed
+ * lazily once and remains valid until the light itself changes or a static shadow within its bounding box is added or removed.
+ * </p>
+ *
+ * @see #isValid(LightSource, List, double)
+ */
+final class LightGeometry {
+  private final Rectangle2D bounds;
+  private final Rectangle2D shapeBounds;
+  private final Shape shape;
+  private final String shapeType;
+  private final double focusOffsetX;
+  private final double focusOffsetY;
+  private final Color color;
+  private final double longerDimension;
+  private final List<StaticShadow> staticShadows;
+
+  private Area lightArea;
+  private List<double[]> shadowVolumes;
+  private RadialGradientPaint gradientPaint;
+
+  LightGeometry(LightSource light, List<StaticShadow> staticShadows, double longerDimension) {
+    this.bounds = light.getBoundingBox();
+    this.shape = light.getLightShape();
+    this.shapeBounds = this.shape.getBounds2D();
+    this.shapeType = light.getLightShapeType();
+    this.focusOffsetX = light.getFocusOffsetX();
+    this.focusOffsetY = light.getFocusOffsetY();
+    this.color = light.getColor();
+    this.longerDimension = longerDimension;
+    this.staticShadows = staticShadows;
+  }
+
+  /**
+   * Gets the static shadows whose bounding box intersects the bounding box of the specified light.
+   *
+   * @param light
+   *          The light source.
+   * @param staticShadows
+   *          All static shadows of the environment.
+   * @return The static shadows that might cast shadows into the light.
+   */
+  static List<StaticShadow> getStaticShadows(LightSource light, Collection<StaticShadow> staticShadows) {
+    List<StaticShadow> intersecting = null;
+    final Rectangle2D lightBounds = light.getBoundingBox();
+    for (StaticShadow staticShadow : staticShadows) {
+      if (lightBounds.intersects(staticShadow.getBoundingBox())) {
+        if (intersecting == null) {
+          intersecting = new ArrayList<>();
+        }
+
+        intersecting.add(staticShadow);
+      }
+    }
+
+    return intersecting != null ? intersecting : Collections.emptyList();
+  }
+
+  /**
+   * Checks whether this geometry still matches the specified light.
+   *
+   * @param light
+   *          The light source this geometry was computed for.
+   * @param staticShadows
+   *          The static shadows that currently intersect the light.
+   * @param longerDimension
+   *          The length by which the shadow volumes are projected.
+   * @return True if neither the light nor the static shadows within its bounding box have changed.
+   */
+  boolean isValid(LightSource light, List<StaticShadow> staticShadows, double longerDimension) {
+    if (this.longerDimension != longerDimension || this.shape != light.getLightShape() || !this.bounds.equals(light.getBoundingBox()) || !this.shapeType.equals(light.getLightShapeType())
+        || this.focusOffsetX != light.getFocusOffsetX() || this.focusOffsetY != light.getFocusOffsetY() || !this.color.equals(light.getColor())
+        || this.staticShadows.size() != staticShadows.size()) {
+      return false;
+    }
+
+    for (int i = 0; i < staticShadows.size(); i++) {
+      if (this.staticShadows.get(i) != staticShadows.get(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  boolean isRectangle() {
+    return LightSource.RECTANGLE.equals(this.shapeType);
+  }
+
+  /**
+   * Checks whether the light needs to be clipped to its shape, which is the case if any static shadow intersects its bounding box.
+   * Otherwise, the light's gradient fills its whole bounding box.
+   *
+   * @return True if the light is clipped to its shape.
+   */
+  boolean isClippedToShape() {
+    return !this.staticShadows.isEmpty();
+  }
+
+  Shape getShape() {
+    return this.shape;
+  }
+
+  /**
+   * Gets the shape of the light without the shadows that the static shadows cast into it.
+   *
+   * @return The lit area of the light; or null if no static shadow intersects the light.
+   */
+  Area getLightArea() {
+    if (this.lightArea != null || !this.isClippedToShape()) {
+      return this.lightArea;
+    }
+
+    final Area area = new Area(this.shape);
+    for (StaticShadow staticShadow : this.staticShadows) {
+      if (!area.intersects(staticShadow.getBoundingBox())) {
+        continue;
+      }
+
+      for (double[] volume : this.getShadowVolumes(staticShadow)) {
+        final Path2D path = new Path2D.Double();
+        path.moveTo(volume[0], volume[1]);
+        for (int i = 2; i < volume.length; i += 2) {
+          path.lineTo(volume[i], volume[i + 1]);
+        }
+
+        path.closePath();
+        area.subtract(new Area(path));
+      }
+    }
+
+    this.lightArea = area;
+    return this.lightArea;
+  }
+
+  /**
+   * Gets the shadow volumes that the static shadows cast into the light, each as a quadrilateral of the form x0, y0, x1, y1, ...
+   *
+   * @return The shadow volumes of the light.
+   */
+  List<double[]> getShadowVolumes() {
+    if (this.shadowVolumes != null) {
+      return this.shadowVolumes;
+    }
+
+    final List<double[]> volumes = new ArrayList<>();
+    for (StaticShadow staticShadow : this.staticShadows) {
+      if (this.shape.intersects(staticShadow.getBoundingBox())) {
+        volumes.addAll(this.getShadowVolumes(staticShadow));
+      }
+    }
+
+    this.shadowVolumes = volumes;
+    return this.shadowVolumes;
+  }
+
+  RadialGradientPaint getGradientPaint() {
+    if (this.gradientPaint != null) {
+      return this.gradientPaint;
+    }
+
+    final double radius = Math.max(this.shapeBounds.getWidth(), this.shapeBounds.getHeight());
+    final Color[] transColors = new Color[] { this.color, new Color(this.color.getRed(), this.color.getGreen(), this.color.getBlue(), 0) };
+    final Point2D center = new Point2D.Double(this.shapeBounds.getCenterX(), this.shapeBounds.getCenterY());
+    final Point2D focus = new Point2D.Double(center.getX() + this.shapeBounds.getWidth() * this.focusOffsetX, center.getY() + this.shapeBounds.getHeight() * this.focusOffsetY);
+    this.gradientPaint = new RadialGradientPaint(center, (float) (radius / 2d), focus, new float[] { 0.0f, 1.00f }, transColors, CycleMethod.NO_CYCLE);
+    return this.gradientPaint;
+  }
+
+  private List<double[]> getShadowVolumes(StaticShadow staticShadow) {
+    final Rectangle2D box = staticShadow.getBoundingBox();
+    final Point2D lightCenter = new Point2D.Double(this.bounds.getCenterX(), this.bounds.getCenterY());
+    final Point2D lightFocus = new Point2D.Double(lightCenter.getX() + this.bounds.getWidth() * this.focusOffsetX, lightCenter.getY() + this.bounds.getHeight() * this.focusOffsetY);
+
+    final List<double[]> volumes = new ArrayList<>();
+    boolean shadowsBox = false;
+    for (final Line2D line : GeometricUtilities.getLines(box)) {
+      final Vector2D lineVector = new Vector2D(line.getP1(), line.getP2());
+      final Vector2D lightVector = new Vector2D(lightFocus, line.getP1());
+      if (lightCenter.getY() < line.getY1() && lightCenter.getY() < line.getY2() && box.contains(lightCenter) || lineVector.normalVector().dotProduct(lightVector) >= 0) {
+        continue;
+      }
+
+      final Point2D shadowPoint1 = GeometricUtilities.project(lightFocus, line.getP1(), this.longerDimension);
+      final Point2D shadowPoint2 = GeometricUtilities.project(lightFocus, line.getP2(), this.longerDimension);
+      volumes.add(new double[] { line.getX1(), line.getY1(), shadowPoint1.getX(), shadowPoint1.getY(), shadowPoint2.getX(), shadowPoint2.getY(), line.getX2(), line.getY2() });
+
+      // the static shadow itself is shadowed if the light lies above its bottom
+      shadowsBox |= lightCenter.getY() < box.getMaxY() && !box.contains(lightCenter);
+    }
+
+    if (shadowsBox) {
+      volumes.add(new double[] { box.getX(), box.getY(), box.getMaxX(), box.getY(), box.getMaxX(), box.getMaxY(), box.getX(), box.getMaxY() });
+    }
+
+    return volumes;
+  }
+}
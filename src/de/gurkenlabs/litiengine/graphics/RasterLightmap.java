@@ -0,0 +1,296 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import de.gurkenlabs.litiengine.entities.LightSource;
+import de.gurkenlabs.litiengine.util.MathUtilities;
+
+/**
+ * A lightmap that rasterizes the ambient light of a section of the map directly into an <code>int[]</code> of ARGB values.
+ * <p>
+ * The lightmap composes the same image as the <code>Area</code> based rendering of the {@link AmbientLight}: The ambient color is reduced
+ * wherever a light shines and the lights are blended on top of it with their intensity. Instead of constructing shapes, the shadow volumes of
+ * static shadows are filled line by line with the {@link ScanlineRasterizer}. Every cell of the lightmap covers <code>cellSize x cellSize</code>
+ * pixels and the rows of the lightmap are rendered in bands of one tile row in parallel.
+ * </p>
+ */
+final class RasterLightmap {
+  private static final float GRADIENT_FOCUS_SCALE = 0.99f;
+
+  private final Rectangle2D section;
+  private final int cellSize;
+  private final int width;
+  private final int height;
+  private final BufferedImage image;
+  private final int[] pixels;
+
+  RasterLightmap(Rectangle2D section, int cellSize) {
+    this.section = section;
+    this.cellSize = Math.max(1, cellSize);
+    this.width = Math.max(1, (int) Math.ceil(section.getWidth() / this.cellSize));
+    this.height = Math.max(1, (int) Math.ceil(section.getHeight() / this.cellSize));
+    this.image = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_ARGB);
+    this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+  }
+
+  /**
+   * Gets the image that is backed by this lightmap. It has the size of the section divided by the cell size.
+   *
+   * @return The image of this lightmap.
+   */
+  BufferedImage getImage() {
+    return this.image;
+  }
+
+  int getWidth() {
+    return this.width;
+  }
+
+  int getHeight() {
+    return this.height;
+  }
+
+  int[] getPixels() {
+    return this.pixels;
+  }
+
+  /**
+   * Renders the ambient color and the specified lights into this lightmap.
+   *
+   * @param ambientColor
+   *          The color of the ambient light.
+   * @param lightSources
+   *          The light sources of the environment.
+   * @param lightGeometries
+   *          Provides the geometry of a light, including the shadows that static shadows cast into it.
+   * @param tileHeight
+   *          The height of the tiles; one row of tiles is rendered per task.
+   */
+  void render(Color ambientColor, Collection<LightSource> lightSources, Function<LightSource, LightGeometry> lightGeometries, int tileHeight) {
+    final List<Light> lights = new ArrayList<>();
+    for (LightSource lightSource : lightSources) {
+      if (lightSource.isActive() && lightSource.getBoundingBox().intersects(this.section)) {
+        lights.add(new Light(lightSource, lightGeometries.apply(lightSource)));
+      }
+    }
+
+    final int bandHeight = Math.max(1, tileHeight / this.cellSize);
+    final int bands = (this.height + bandHeight - 1) / bandHeight;
+    IntStream.range(0, bands).parallel().forEach(band -> this.renderRows(band * bandHeight, Math.min(this.height, (band + 1) * bandHeight), lights, ambientColor));
+  }
+
+  private void renderRows(int fromRow, int toRow, List<Light> lights, Color ambientColor) {
+    final float[][] lightAlphas = new float[lights.size()][this.width];
+    final int[] lightFrom = new int[lights.size()];
+    final int[] lightTo = new int[lights.size()];
+    final boolean[] shadowed = new boolean[this.width];
+    final int[] spans = new int[Light.MAX_VERTICES];
+    final float[] remaining = new float[this.width];
+    final float[] red = new float[this.width];
+    final float[] green = new float[this.width];
+    final float[] blue = new float[this.width];
+    final float[] alpha = new float[this.width];
+
+    for (int row = fromRow; row < toRow; row++) {
+      final double y = this.section.getY() + (row + 0.5) * this.cellSize;
+
+      // the share of the ambient color that is left after all lights cut into it
+      Arrays.fill(remaining, 1f);
+      for (int i = 0; i < lights.size(); i++) {
+        final Light light = lights.get(i);
+        lightFrom[i] = this.getCell(light.bounds.getX());
+        lightTo[i] = this.getCell(light.bounds.getMaxX());
+        if (y < light.bounds.getY() || y >= light.bounds.getMaxY() || lightFrom[i] >= lightTo[i]) {
+          lightTo[i] = lightFrom[i];
+          continue;
+        }
+
+        light.shade(row, lightFrom[i], lightTo[i], this.width, shadowed, spans);
+        for (int x = lightFrom[i]; x < lightTo[i]; x++) {
+          final float a = shadowed[x] ? 0 : light.getAlpha(this.section.getX() + (x + 0.5) * this.cellSize, y);
+          lightAlphas[i][x] = a;
+          remaining[x] *= 1 - a;
+        }
+      }
+
+      for (int x = 0; x < this.width; x++) {
+        red[x] = ambientColor.getRed() / 255f;
+        green[x] = ambientColor.getGreen() / 255f;
+        blue[x] = ambientColor.getBlue() / 255f;
+        alpha[x] = ambientColor.getAlpha() / 255f * remaining[x];
+      }
+
+      // blend the lights on top of the ambient color with their intensity
+      for (int i = 0; i < lights.size(); i++) {
+        final Light light = lights.get(i);
+        if (light.intensity <= 0) {
+          continue;
+        }
+
+        for (int x = lightFrom[i]; x < lightTo[i]; x++) {
+          final float src = lightAlphas[i][x] * light.intensity;
+          if (src <= 0) {
+            continue;
+          }
+
+          final float dst = alpha[x] * (1 - src);
+          final float out = src + dst;
+          red[x] = (light.red * src + red[x] * dst) / out;
+          green[x] = (light.green * src + green[x] * dst) / out;
+          blue[x] = (light.blue * src + blue[x] * dst) / out;
+          alpha[x] = out;
+        }
+      }
+
+      final int offset = row * this.width;
+      for (int x = 0; x < this.width; x++) {
+        this.pixels[offset + x] = toArgb(alpha[x]) << 24 | toArgb(red[x]) << 16 | toArgb(green[x]) << 8 | toArgb(blue[x]);
+      }
+    }
+  }
+
+  /**
+   * Gets the first cell whose center lies at or after the specified x-coordinate.
+   */
+  private int getCell(double x) {
+    return MathUtilities.clamp((int) Math.ceil((x - this.section.getX()) / this.cellSize - 0.5), 0, this.width);
+  }
+
+  private static int toArgb(float value) {
+    return MathUtilities.clamp(Math.round(value * 255), 0, 255);
+  }
+
+  private final class Light {
+    private static final int MAX_VERTICES = 4;
+
+    private final Rectangle2D bounds;
+    private final Shape shape;
+    private final boolean rectangle;
+    private final float red;
+    private final float green;
+    private final float blue;
+    private final float alpha;
+    private final float intensity;
+
+    private final double centerX;
+    private final double centerY;
+    private final double focusX;
+    private final double focusY;
+    private final double radius;
+
+    private final List<double[]> shadowVolumes;
+    private final boolean clipToShape;
+
+    private Light(LightSource lightSource, LightGeometry geometry) {
+      this.bounds = lightSource.getBoundingBox();
+      this.shape = geometry.getShape();
+      this.rectangle = geometry.isRectangle();
+      this.red = lightSource.getColor().getRed() / 255f;
+      this.green = lightSource.getColor().getGreen() / 255f;
+      this.blue = lightSource.getColor().getBlue() / 255f;
+      this.alpha = lightSource.getColor().getAlpha() / 255f;
+      this.intensity = MathUtilities.clamp((float) lightSource.getIntensity() / 255, 0, 1);
+
+      final Rectangle2D shapeBounds = this.shape.getBounds2D();
+      this.centerX = shapeBounds.getCenterX();
+      this.centerY = shapeBounds.getCenterY();
+      this.radius = Math.max(shapeBounds.getWidth(), shapeBounds.getHeight()) / 2d;
+
+      // like the RadialGradientPaint, keep the focus within the gradient's circle
+      double offsetX = shapeBounds.getWidth() * lightSource.getFocusOffsetX();
+      double offsetY = shapeBounds.getHeight() * lightSource.getFocusOffsetY();
+      final double focusDistance = Math.sqrt(offsetX * offsetX + offsetY * offsetY);
+      if (focusDistance > this.radius * GRADIENT_FOCUS_SCALE) {
+        offsetX *= this.radius * GRADIENT_FOCUS_SCALE / focusDistance;
+        offsetY *= this.radius * GRADIENT_FOCUS_SCALE / focusDistance;
+      }
+
+      this.focusX = this.centerX + offsetX;
+      this.focusY = this.centerY + offsetY;
+
+      this.shadowVolumes = new ArrayList<>();
+      this.clipToShape = !this.rectangle && geometry.isClippedToShape();
+      if (this.clipToShape) {
+        for (double[] volume : geometry.getShadowVolumes()) {
+          this.shadowVolumes.add(this.toCells(volume));
+        }
+      }
+    }
+
+    /**
+     * Converts a shadow volume from map coordinates to the coordinates of the lightmap's cells.
+     */
+    private double[] toCells(double[] volume) {
+      final double[] cells = new double[volume.length];
+      for (int i = 0; i < volume.length; i += 2) {
+        cells[i] = (volume[i] - RasterLightmap.this.section.getX()) / RasterLightmap.this.cellSize;
+        cells[i + 1] = (volume[i + 1] - RasterLightmap.this.section.getY()) / RasterLightmap.this.cellSize;
+      }
+
+      return cells;
+    }
+
+    private void shade(int row, int from, int to, int width, boolean[] shadowed, int[] spans) {
+      Arrays.fill(shadowed, from, to, false);
+      final double[] xs = new double[MAX_VERTICES];
+      final double[] ys = new double[MAX_VERTICES];
+      for (double[] volume : this.shadowVolumes) {
+        for (int i = 0; i < MAX_VERTICES; i++) {
+          xs[i] = volume[i * 2];
+          ys[i] = volume[i * 2 + 1];
+        }
+
+        final int count = ScanlineRasterizer.getSpans(xs, ys, MAX_VERTICES, row, width, spans);
+        for (int i = 0; i < count; i += 2) {
+          Arrays.fill(shadowed, Math.max(from, spans[i]), Math.max(from, Math.min(to, spans[i + 1])), true);
+        }
+      }
+    }
+
+    private float getAlpha(double x, double y) {
+      if (this.rectangle) {
+        return this.alpha;
+      }
+
+      if (this.clipToShape && !this.shape.contains(x, y)) {
+        return 0;
+      }
+
+      final float fraction = this.getGradientFraction(x, y);
+      return fraction >= 1 ? 0 : this.alpha * (1 - fraction);
+    }
+
+    /**
+     * Gets the position of the specified point on the radial gradient of this light, which is the distance from the focus relative to the
+     * distance between the focus and the gradient's circle in the same direction.
+     */
+    private float getGradientFraction(double x, double y) {
+      if (this.radius <= 0) {
+        return 1;
+      }
+
+      final double dx = x - this.focusX;
+      final double dy = y - this.focusY;
+      final double distance = Math.sqrt(dx * dx + dy * dy);
+      if (distance == 0) {
+        return 0;
+      }
+
+      final double offsetX = this.focusX - this.centerX;
+      final double offsetY = this.focusY - this.centerY;
+      final double b = (dx * offsetX + dy * offsetY) / distance;
+      final double c = offsetX * offsetX + offsetY * offsetY - this.radius * this.radius;
+      return (float) (distance / (-b + Math.sqrt(b * b - c)));
+    }
+  }
+}
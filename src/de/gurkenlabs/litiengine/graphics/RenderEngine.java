@@ -7,6 +7,7 @@ import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,17 +28,25 @@ import de.gurkenlabs.litiengine.environment.tilemap.MapOrientation;
 import de.gurkenlabs.litiengine.environment.tilemap.OrthogonalMapRenderer;
 import de.gurkenlabs.litiengine.graphics.animation.IEntityAnimationController;
 import de.gurkenlabs.litiengine.gui.GuiProperties;
+import de.gurkenlabs.litiengine.physics.SpatialHash;
 
 public final class RenderEngine {
   public static final float DEFAULT_RENDERSCALE = 3.0f;
 
+  /**
+   * The default distance in pixels by which the sprite of an entity may exceed the viewport and still be rendered.
+   */
+  public static final int DEFAULT_CULLING_MARGIN = 32;
+
   private final EntityYComparator entityComparator;
   private final List<Consumer<RenderEvent<IEntity>>> entityRenderedConsumer;
   private final List<Predicate<IEntity>> entityRenderingConditions;
   private final List<Consumer<RenderEvent<IEntity>>> entityRenderingConsumer;
   private final EnumMap<MapOrientation, IMapRenderer> mapRenderer;
+  private final EnumMap<RenderType, EntityRenderList> renderLists;
 
   private float baseRenderScale;
+  private volatile int cullingMargin;
 
   /**
    * Instantiates a new RenderEngine instance.
@@ -54,11 +63,16 @@ public final class RenderEngine {
     this.entityRenderingConditions = new CopyOnWriteArrayList<>();
     this.mapRenderer = new EnumMap<>(MapOrientation.class);
     this.entityComparator = new EntityYComparator();
+    this.renderLists = new EnumMap<>(RenderType.class);
+    for (RenderType renderType : RenderType.values()) {
+      this.renderLists.put(renderType, new EntityRenderList(renderType));
+    }
 
     this.mapRenderer.put(MapOrientation.ORTHOGONAL, new OrthogonalMapRenderer());
     this.mapRenderer.put(MapOrientation.HEXAGONAL, new HexagonalMapRenderer());
 
     this.baseRenderScale = DEFAULT_RENDERSCALE;
+    this.cullingMargin = DEFAULT_CULLING_MARGIN;
   }
 
   /**
@@ -233,11 +247,90 @@ public final class RenderEngine {
     this.renderEntities(g, entities, true, clip);
   }
 
+  /**
+   * Renders the entities of the specified render type from the specified snapshot in their captured order and with their captured sprite.
+   * Entities whose sprite is not within the camera's viewport, extended by the {@link #getCullingMargin()}, are skipped. Renderable entities
+   * (e.g. emitters) are never skipped because they can render anything outside of their bounds.
+   * <p>
+   * The entities are rendered between their location of the previous tick and their captured location according to the interpolation alpha of
+   * the current frame, so they move smoothly even if fewer ticks than frames are processed.
+   * </p>
+   * 
+   * @param g
+   *          The graphics object to render on.
+   * @param snapshot
+   *          The snapshot that contains the captured render state of the entities.
+   * @param renderType
+   *          The render type of the entities to render.
+   * 
+   * @see RenderSnapshotBuffer#acquire()
+   * @see de.gurkenlabs.litiengine.RenderLoop#getInterpolationAlpha()
+   */
+  public void renderEntities(final Graphics2D g, final RenderSnapshot snapshot, final RenderType renderType) {
+    final Rectangle2D viewport = Game.world().camera().getViewport();
+    final float alpha = Game.renderLoop() != null ? Game.renderLoop().getInterpolationAlpha() : 1;
+    final int margin = this.getCullingMargin();
+    for (int i = snapshot.getStart(renderType); i < snapshot.getEnd(renderType); i++) {
+      final double x = snapshot.getX(i, alpha);
+      final double y = snapshot.getY(i, alpha);
+      if (!(snapshot.getEntity(i) instanceof IRenderable)
+          && !isVisible(viewport, margin, x, y, snapshot.getWidth(i), snapshot.getHeight(i), snapshot.getSprite(i), snapshot.isAutoScaling(i))) {
+        continue;
+      }
+
+      this.renderEntity(g, snapshot.getEntity(i), snapshot.isAnimated(i), snapshot.getSprite(i), snapshot.getTransform(i), snapshot.isAutoScaling(i),
+          x, y, snapshot.getWidth(i), snapshot.getHeight(i));
+    }
+  }
+
+  /**
+   * Renders the entities of the specified render type that are located within the camera's viewport.
+   * <p>
+   * The visible entities are looked up in the specified spatial index and kept in a persistent render list per render type. The entities of the
+   * <code>RenderType.NORMAL</code> are sorted by their Y coordinate, which only requires a few swaps per frame because their order barely
+   * changes between two frames.
+   * </p>
+   * <p>
+   * Entities are culled by the bounds of their current sprite, extended by the {@link #getCullingMargin()}. The specified unculled entities
+   * (e.g. emitters) are rendered regardless of their location.
+   * </p>
+   * 
+   * @param g
+   *          The graphics object to render on.
+   * @param entities
+   *          The spatial index that contains all entities of the environment.
+   * @param unculledEntities
+   *          The entities that are rendered even if they're not within the viewport.
+   * @param renderType
+   *          The render type of the entities to render.
+   * 
+   * @see EntityYComparator
+   */
+  public void renderEntities(final Graphics2D g, final SpatialHash<? extends IEntity> entities, final Collection<? extends IEntity> unculledEntities, final RenderType renderType) {
+    final EntityRenderList renderList = this.renderLists.get(renderType);
+    renderList.update(entities, unculledEntities, Game.world().camera().getViewport(), this.getCullingMargin(), renderType == RenderType.NORMAL);
+    for (int i = 0; i < renderList.size(); i++) {
+      this.renderEntity(g, renderList.get(i));
+    }
+  }
+
   public void renderEntity(final Graphics2D g, final IEntity entity) {
     if (entity == null) {
       return;
     }
 
+    final IEntityAnimationController animationController = entity.getAnimationController();
+    if (animationController == null) {
+      this.renderEntity(g, entity, false, null, null, false, entity.getX(), entity.getY(), entity.getWidth(), entity.getHeight());
+      return;
+    }
+
+    this.renderEntity(g, entity, true, animationController.getCurrentSprite(), animationController.getAffineTransform(), animationController.isAutoScaling(), entity.getX(), entity.getY(),
+        entity.getWidth(), entity.getHeight());
+  }
+
+  private void renderEntity(final Graphics2D g, final IEntity entity, final boolean animated, final BufferedImage img, final AffineTransform transform, final boolean autoScaling, final double x,
+      final double y, final double width, final double height) {
     if (entity.getRenderType() == RenderType.NONE || !this.canRender(entity)) {
       return;
     }
@@ -248,22 +341,20 @@ public final class RenderEngine {
       }
     }
 
-    final IEntityAnimationController animationController = entity.getAnimationController();
-    if (animationController != null) {
-      final BufferedImage img = animationController.getCurrentSprite();
+    if (animated) {
       if (img == null) {
         return;
       }
 
-      if (animationController.isAutoScaling()) {
-        final double ratioX = entity.getWidth() / img.getWidth();
-        final double ratioY = entity.getHeight() / img.getHeight();
-        ImageRenderer.renderScaled(g, img, Game.world().camera().getViewportLocation(entity.getLocation()), ratioX, ratioY);
+      if (autoScaling) {
+        final double ratioX = width / img.getWidth();
+        final double ratioY = height / img.getHeight();
+        ImageRenderer.renderScaled(g, img, Game.world().camera().getViewportLocation(x, y), ratioX, ratioY);
       } else {
-        float deltaX = (entity.getWidth() - img.getWidth()) / 2.0f;
-        float deltaY = (entity.getHeight() - img.getHeight()) / 2.0f;
+        double deltaX = (width - img.getWidth()) / 2.0;
+        double deltaY = (height - img.getHeight()) / 2.0;
 
-        ImageRenderer.renderTransformed(g, img, Game.world().camera().getViewportLocation(entity.getX() + deltaX, entity.getY() + deltaY), animationController.getAffineTransform());
+        ImageRenderer.renderTransformed(g, img, Game.world().camera().getViewportLocation(x + deltaX, y + deltaY), transform);
       }
     }
 
@@ -278,6 +369,21 @@ public final class RenderEngine {
     }
   }
 
+  public int getCullingMargin() {
+    return this.cullingMargin;
+  }
+
+  /**
+   * Sets the distance in pixels by which the sprite of an entity may exceed the viewport and still be rendered. This needs to cover the parts of
+   * sprites that are moved outside of their entity's bounds, e.g. by the transform of an animation controller.
+   * 
+   * @param cullingMargin
+   *          The culling margin in pixels.
+   */
+  public void setCullingMargin(int cullingMargin) {
+    this.cullingMargin = Math.max(0, cullingMargin);
+  }
+
   public void render(final Graphics2D g, final IMap map, final RenderType... renderTypes) {
     if (map == null) {
       return;
@@ -287,6 +393,41 @@ public final class RenderEngine {
     this.mapRenderer.get(map.getOrientation()).render(g, map, Game.world().camera().getViewport(), renderTypes);
   }
 
+  /**
+   * Determines whether the current sprite of the specified entity intersects the specified viewport, extended by the specified margin.
+   */
+  static boolean isVisible(final IEntity entity, final Rectangle2D viewport, final double margin) {
+    final Rectangle2D boundingBox = entity.getBoundingBox();
+    if (boundingBox == null) {
+      return false;
+    }
+
+    final IEntityAnimationController animationController = entity.getAnimationController();
+    final BufferedImage sprite = animationController != null ? animationController.getCurrentSprite() : null;
+    return isVisible(viewport, margin, boundingBox.getX(), boundingBox.getY(), boundingBox.getWidth(), boundingBox.getHeight(), sprite,
+        animationController != null && animationController.isAutoScaling());
+  }
+
+  static boolean isVisible(final Rectangle2D viewport, final double margin, final double x, final double y, final double width, final double height,
+      final BufferedImage sprite, final boolean autoScaling) {
+    double minX = x;
+    double minY = y;
+    double maxX = x + width;
+    double maxY = y + height;
+
+    // sprites that are not scaled are centered on their entity and can be larger than it
+    if (sprite != null && !autoScaling) {
+      final double spriteX = x + (width - sprite.getWidth()) / 2.0;
+      final double spriteY = y + (height - sprite.getHeight()) / 2.0;
+      minX = Math.min(minX, spriteX);
+      minY = Math.min(minY, spriteY);
+      maxX = Math.max(maxX, spriteX + sprite.getWidth());
+      maxY = Math.max(maxY, spriteY + sprite.getHeight());
+    }
+
+    return viewport.intersects(minX - margin, minY - margin, maxX - minX + margin * 2, maxY - minY + margin * 2);
+  }
+
   /**
    * Sets the global base scale that is used to calculate the actual render scale of the game.
    * 
@@ -0,0 +1,370 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+import de.gurkenlabs.litiengine.entities.EntityYComparator;
+import de.gurkenlabs.litiengine.entities.IEntity;
+import de.gurkenlabs.litiengine.graphics.animation.IEntityAnimationController;
+
+/**
+ * The state of all entities that is required to render them at a certain tick, i.e. their location and size, their current sprite and their order.
+ * <br>
+ * Snapshots are captured on the update thread and rendered on the render thread, which prevents the renderer from reading entities while they're
+ * moved or animated. The state is kept in parallel arrays that are reused for every capture.
+ * <br>
+ * Every snapshot also keeps the location that each entity had in the snapshot of the previous tick. This allows to render the entities between
+ * their previous and their captured location, which keeps their movement smooth if the game loop runs with a fixed timestep.
+ * 
+ * @see RenderSnapshotBuffer
+ * @see RenderEngine#renderEntities(java.awt.Graphics2D, RenderSnapshot, RenderType)
+ */
+public final class RenderSnapshot {
+  private static final RenderType[] RENDER_TYPES = RenderType.values();
+  private static final int INITIAL_CAPACITY = 64;
+
+  // the number of indices in the previous snapshot that are searched for an entity that isn't at the expected index
+  private static final int PREVIOUS_SEARCH_RANGE = 16;
+
+  private final int[] offsets;
+
+  private IEntity[] entities;
+  private BufferedImage[] sprites;
+  private AffineTransform[] transforms;
+  private boolean[] transformed;
+  private boolean[] animated;
+  private boolean[] autoScaling;
+  private double[] bounds;
+  private double[] previousLocations;
+
+  private IEntity[] sortBuffer;
+  private long[] sortKeys;
+
+  private int size;
+  private long tick;
+  private long epoch;
+
+  RenderSnapshot() {
+    this.offsets = new int[RENDER_TYPES.length + 1];
+    this.entities = new IEntity[INITIAL_CAPACITY];
+    this.sprites = new BufferedImage[INITIAL_CAPACITY];
+    this.transforms = new AffineTransform[INITIAL_CAPACITY];
+    this.transformed = new boolean[INITIAL_CAPACITY];
+    this.animated = new boolean[INITIAL_CAPACITY];
+    this.autoScaling = new boolean[INITIAL_CAPACITY];
+    this.bounds = new double[INITIAL_CAPACITY * 4];
+    this.previousLocations = new double[INITIAL_CAPACITY * 2];
+    this.sortBuffer = new IEntity[INITIAL_CAPACITY];
+    this.sortKeys = new long[INITIAL_CAPACITY];
+    this.tick = -1;
+  }
+
+  /**
+   * Captures the render state of the specified entities. The entities of the <code>RenderType.NORMAL</code> are sorted by their Y coordinate.
+   * 
+   * @param tick
+   *          The tick at which the entities are captured.
+   * @param epoch
+   *          The version of the entity collections that are captured.
+   * @param entitiesByType
+   *          A function that provides the entities of a render type.
+   * 
+   * @see EntityYComparator
+   */
+  public void capture(long tick, long epoch, Function<RenderType, Collection<? extends IEntity>> entitiesByType) {
+    this.capture(tick, epoch, entitiesByType, null);
+  }
+
+  /**
+   * Captures the render state of the specified entities and keeps the locations that they had in the specified snapshot of the previous tick.
+   * If the previous snapshot wasn't captured at the preceding tick, the entities aren't interpolated.
+   * 
+   * @param tick
+   *          The tick at which the entities are captured.
+   * @param epoch
+   *          The version of the entity collections that are captured.
+   * @param entitiesByType
+   *          A function that provides the entities of a render type.
+   * @param previous
+   *          The snapshot that was captured before this one; or null.
+   * 
+   * @see #getX(int, float)
+   * @see #getY(int, float)
+   */
+  public void capture(long tick, long epoch, Function<RenderType, Collection<? extends IEntity>> entitiesByType, RenderSnapshot previous) {
+    final int previousSize = this.size;
+    this.size = 0;
+    for (RenderType type : RENDER_TYPES) {
+      this.offsets[type.ordinal()] = this.size;
+      final Collection<? extends IEntity> typeEntities = type != RenderType.NONE ? entitiesByType.apply(type) : null;
+      if (typeEntities == null) {
+        continue;
+      }
+
+      if (type == RenderType.NORMAL) {
+        this.captureSorted(typeEntities);
+      } else {
+        for (IEntity entity : typeEntities) {
+          this.capture(entity);
+        }
+      }
+    }
+
+    this.complete(tick, epoch, previousSize, previous);
+  }
+
+  /**
+   * Captures the render state of the entities in the specified render lists in their order, which is already sorted.
+   * 
+   * @param tick
+   *          The tick at which the entities are captured.
+   * @param epoch
+   *          The version of the entity collections that are captured.
+   * @param renderLists
+   *          The render lists that contain the entities of each render type.
+   * @param previous
+   *          The snapshot that was captured before this one; or null.
+   */
+  void capture(long tick, long epoch, Map<RenderType, EntityRenderList> renderLists, RenderSnapshot previous) {
+    final int previousSize = this.size;
+    this.size = 0;
+    for (RenderType type : RENDER_TYPES) {
+      this.offsets[type.ordinal()] = this.size;
+      final EntityRenderList renderList = type != RenderType.NONE ? renderLists.get(type) : null;
+      if (renderList == null) {
+        continue;
+      }
+
+      for (int i = 0; i < renderList.size(); i++) {
+        this.capture(renderList.get(i));
+      }
+    }
+
+    this.complete(tick, epoch, previousSize, previous);
+  }
+
+  private void complete(long tick, long epoch, int previousSize, RenderSnapshot previous) {
+    this.offsets[RENDER_TYPES.length] = this.size;
+    this.capturePreviousLocations(previous != null && previous != this && previous.getTick() == tick - 1 ? previous : null);
+
+    // release the references of the previous capture so that removed entities and their sprites can be collected
+    if (previousSize > this.size) {
+      Arrays.fill(this.entities, this.size, previousSize, null);
+      Arrays.fill(this.sprites, this.size, previousSize, null);
+    }
+
+    this.tick = tick;
+    this.epoch = epoch;
+  }
+
+  /**
+   * Gets the tick at which this snapshot was captured.
+   * 
+   * @return The tick of this snapshot; or -1 if it hasn't been captured yet.
+   */
+  public long getTick() {
+    return this.tick;
+  }
+
+  public long getEpoch() {
+    return this.epoch;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public int size(RenderType renderType) {
+    return this.getEnd(renderType) - this.getStart(renderType);
+  }
+
+  int getStart(RenderType renderType) {
+    return this.offsets[renderType.ordinal()];
+  }
+
+  int getEnd(RenderType renderType) {
+    return this.offsets[renderType.ordinal() + 1];
+  }
+
+  IEntity getEntity(int index) {
+    return this.entities[index];
+  }
+
+  BufferedImage getSprite(int index) {
+    return this.sprites[index];
+  }
+
+  AffineTransform getTransform(int index) {
+    return this.transformed[index] ? this.transforms[index] : null;
+  }
+
+  boolean isAnimated(int index) {
+    return this.animated[index];
+  }
+
+  boolean isAutoScaling(int index) {
+    return this.autoScaling[index];
+  }
+
+  double getX(int index) {
+    return this.bounds[index * 4];
+  }
+
+  double getY(int index) {
+    return this.bounds[index * 4 + 1];
+  }
+
+  double getWidth(int index) {
+    return this.bounds[index * 4 + 2];
+  }
+
+  double getHeight(int index) {
+    return this.bounds[index * 4 + 3];
+  }
+
+  /**
+   * Gets the x-coordinate of the entity with the specified index, interpolated between its previous and its captured location.
+   * 
+   * @param index
+   *          The index of the entity.
+   * @param alpha
+   *          The progress from the previous to the captured location, ranging from 0 to 1.
+   * @return The interpolated x-coordinate.
+   */
+  double getX(int index, float alpha) {
+    final double previous = this.previousLocations[index * 2];
+    return previous + (this.getX(index) - previous) * alpha;
+  }
+
+  /**
+   * Gets the y-coordinate of the entity with the specified index, interpolated between its previous and its captured location.
+   * 
+   * @param index
+   *          The index of the entity.
+   * @param alpha
+   *          The progress from the previous to the captured location, ranging from 0 to 1.
+   * @return The interpolated y-coordinate.
+   */
+  double getY(int index, float alpha) {
+    final double previous = this.previousLocations[index * 2 + 1];
+    return previous + (this.getY(index) - previous) * alpha;
+  }
+
+  private void captureSorted(Collection<? extends IEntity> typeEntities) {
+    int count = 0;
+    for (IEntity entity : typeEntities) {
+      if (count == this.sortBuffer.length) {
+        this.sortBuffer = Arrays.copyOf(this.sortBuffer, count * 2);
+        this.sortKeys = Arrays.copyOf(this.sortKeys, count * 2);
+      }
+
+      this.sortBuffer[count] = entity;
+      this.sortKeys[count] = sortKey(EntityYComparator.getSortKey(entity), count);
+      count++;
+    }
+
+    // the keys are primitives, so sorting them neither allocates nor calls a comparator
+    Arrays.sort(this.sortKeys, 0, count);
+    for (int i = 0; i < count; i++) {
+      this.capture(this.sortBuffer[(int) this.sortKeys[i]]);
+    }
+
+    Arrays.fill(this.sortBuffer, 0, count, null);
+  }
+
+  private void capture(IEntity entity) {
+    if (this.size == this.entities.length) {
+      this.grow();
+    }
+
+    final int index = this.size++;
+    final IEntityAnimationController animationController = entity.getAnimationController();
+    this.entities[index] = entity;
+    this.animated[index] = animationController != null;
+    this.sprites[index] = animationController != null ? animationController.getCurrentSprite() : null;
+    this.autoScaling[index] = animationController != null && animationController.isAutoScaling();
+
+    // the transform of an animation controller is mutable, so it's copied into the transform that this slot keeps across captures
+    final AffineTransform transform = animationController != null ? animationController.getAffineTransform() : null;
+    this.transformed[index] = transform != null;
+    if (transform != null) {
+      if (this.transforms[index] == null) {
+        this.transforms[index] = new AffineTransform(transform);
+      } else {
+        this.transforms[index].setTransform(transform);
+      }
+    }
+
+    this.bounds[index * 4] = entity.getX();
+    this.bounds[index * 4 + 1] = entity.getY();
+    this.bounds[index * 4 + 2] = entity.getWidth();
+    this.bounds[index * 4 + 3] = entity.getHeight();
+  }
+
+  /**
+   * Looks up the previous location of every entity. Since the order of the entities barely changes between two ticks, the previous snapshot is
+   * walked alongside this one and only a few indices around the expected one are searched. Entities that aren't found (e.g. because they were
+   * just added) are rendered at their captured location.
+   */
+  private void capturePreviousLocations(RenderSnapshot previous) {
+    for (RenderType type : RENDER_TYPES) {
+      int expected = previous != null ? previous.getStart(type) : 0;
+      for (int i = this.getStart(type); i < this.getEnd(type); i++) {
+        final int match = previous != null ? previous.indexOf(this.entities[i], type, expected) : -1;
+        if (match < 0) {
+          this.previousLocations[i * 2] = this.getX(i);
+          this.previousLocations[i * 2 + 1] = this.getY(i);
+          continue;
+        }
+
+        this.previousLocations[i * 2] = previous.getX(match);
+        this.previousLocations[i * 2 + 1] = previous.getY(match);
+        expected = match + 1;
+      }
+    }
+  }
+
+  private int indexOf(IEntity entity, RenderType type, int expected) {
+    final int start = this.getStart(type);
+    final int end = this.getEnd(type);
+    for (int i = expected; i < end && i < expected + PREVIOUS_SEARCH_RANGE; i++) {
+      if (this.entities[i] == entity) {
+        return i;
+      }
+    }
+
+    for (int i = expected - 1; i >= start && i >= expected - PREVIOUS_SEARCH_RANGE; i--) {
+      if (this.entities[i] == entity) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  private void grow() {
+    final int capacity = this.entities.length * 2;
+    this.entities = Arrays.copyOf(this.entities, capacity);
+    this.sprites = Arrays.copyOf(this.sprites, capacity);
+    this.transforms = Arrays.copyOf(this.transforms, capacity);
+    this.transformed = Arrays.copyOf(this.transformed, capacity);
+    this.animated = Arrays.copyOf(this.animated, capacity);
+    this.autoScaling = Arrays.copyOf(this.autoScaling, capacity);
+    this.bounds = Arrays.copyOf(this.bounds, capacity * 4);
+    this.previousLocations = Arrays.copyOf(this.previousLocations, capacity * 2);
+  }
+
+  /**
+   * Combines the sort key with the index of the entity, so the order of the entities can be determined by sorting the combined keys.
+   * The float bits of the key are transformed such that their order as signed integers equals the order of the float values.
+   */
+  private static long sortKey(double key, int index) {
+    int bits = Float.floatToIntBits((float) key);
+    bits ^= (bits >> 31) & Integer.MAX_VALUE;
+    return ((long) bits << 32) | index;
+  }
+}
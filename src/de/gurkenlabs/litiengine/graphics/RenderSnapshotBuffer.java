@@ -0,0 +1,119 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.gurkenlabs.litiengine.entities.IEntity;
+import de.gurkenlabs.litiengine.physics.SpatialHash;
+
+/**
+ * A lock-free triple buffer that hands <code>RenderSnapshots</code> from the update thread over to the render thread.
+ * <br>
+ * The update thread captures the entities into the back buffer and publishes it afterwards; the render thread acquires the latest published
+ * snapshot at the beginning of a frame. Neither thread ever waits for the other one and a snapshot is never modified while it's rendered.
+ * <p>
+ * <i>Each side of the buffer must only be used by a single thread at a time.</i>
+ * </p>
+ */
+public final class RenderSnapshotBuffer {
+  private static final int INDEX_MASK = 3;
+  private static final int PUBLISHED = 4;
+
+  private final RenderSnapshot[] snapshots;
+  private final Map<RenderType, EntityRenderList> renderLists;
+
+  // the index of the latest published snapshot and a flag that indicates whether it hasn't been acquired yet
+  private final AtomicInteger latest;
+
+  private int back;
+  private int front;
+  private int published;
+
+  public RenderSnapshotBuffer() {
+    this.snapshots = new RenderSnapshot[] { new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot() };
+    this.back = 0;
+    this.front = 1;
+    this.latest = new AtomicInteger(2);
+    this.published = 2;
+    this.renderLists = new EnumMap<>(RenderType.class);
+    for (RenderType renderType : RenderType.values()) {
+      this.renderLists.put(renderType, new EntityRenderList(renderType));
+    }
+  }
+
+  /**
+   * Captures the entities of the specified spatial index whose sprite intersects the specified area, extended by the specified margin, and the
+   * unculled entities into the back buffer and publishes it.
+   * <p>
+   * The entities are kept in a persistent render list per render type, so every capture only looks up the cells of the area and re-sorts the
+   * entities of the <code>RenderType.NORMAL</code> with an insertion sort, which barely has to move any entities between two ticks.
+   * </p>
+   * 
+   * @param tick
+   *          The tick at which the entities are captured.
+   * @param epoch
+   *          The version of the entity collections that are captured.
+   * @param entities
+   *          The spatial index that contains all entities of the environment.
+   * @param unculledEntities
+   *          The entities that are captured regardless of their location, e.g. renderable entities.
+   * @param area
+   *          The area of the map whose entities are captured.
+   * @param margin
+   *          The distance by which the sprites of entities may exceed the area and still be captured.
+   * 
+   * @see RenderEngine#getCullingMargin()
+   */
+  public void capture(long tick, long epoch, SpatialHash<? extends IEntity> entities, Collection<? extends IEntity> unculledEntities, Rectangle2D area, double margin) {
+    for (Map.Entry<RenderType, EntityRenderList> entry : this.renderLists.entrySet()) {
+      entry.getValue().update(entities, unculledEntities, area, margin, entry.getKey() == RenderType.NORMAL);
+    }
+
+    this.getBackBuffer().capture(tick, epoch, this.renderLists, this.getPublished());
+    this.publish();
+  }
+
+  /**
+   * Gets the snapshot that can be captured by the update thread. It's not visible to the render thread until it's published.
+   * 
+   * @return The back buffer of the update thread.
+   * 
+   * @see #publish()
+   */
+  public RenderSnapshot getBackBuffer() {
+    return this.snapshots[this.back];
+  }
+
+  /**
+   * Gets the snapshot that has been published last by the update thread. It may be rendered at the same time, so it must not be modified.
+   * 
+   * @return The last published snapshot.
+   */
+  public RenderSnapshot getPublished() {
+    return this.snapshots[this.published];
+  }
+
+  /**
+   * Publishes the back buffer and provides the update thread with a new back buffer.
+   */
+  public void publish() {
+    this.published = this.back;
+    this.back = this.latest.getAndSet(this.back | PUBLISHED) & INDEX_MASK;
+  }
+
+  /**
+   * Gets the latest snapshot that has been published. The returned snapshot stays unchanged until the next call of this method.
+   * 
+   * @return The latest published snapshot or the previously acquired one if no new snapshot has been published since.
+   */
+  public RenderSnapshot acquire() {
+    if ((this.latest.get() & PUBLISHED) != 0) {
+      this.front = this.latest.getAndSet(this.front) & INDEX_MASK;
+    }
+
+    return this.snapshots[this.front];
+  }
+}
@@ -0,0 +1,154 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * Determines which pixels of a row are covered by a polygon, using the even-odd rule.
+ * <br>
+ * A pixel is covered if its center lies within the polygon, so polygons that share an edge never cover the same pixel twice.
+ */
+final class ScanlineRasterizer {
+  private static final double ERROR_STEP = Integer.MAX_VALUE;
+
+  private ScanlineRasterizer() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Gets the spans of the specified row that are covered by the polygon.
+   *
+   * @param xs
+   *          The x-coordinates of the polygon's vertices in pixels.
+   * @param ys
+   *          The y-coordinates of the polygon's vertices in pixels.
+   * @param count
+   *          The number of vertices.
+   * @param row
+   *          The row whose pixels are tested.
+   * @param width
+   *          The width of the row; spans are clipped to <code>[0, width)</code>.
+   * @param spans
+   *          The array that receives the start (inclusive) and end (exclusive) of every span. It needs to provide space for at least
+   *          <code>count</code> values.
+   * @return The number of values that were written to the spans array, which is twice the number of spans.
+   */
+  static int getSpans(double[] xs, double[] ys, int count, int row, int width, int[] spans) {
+    final double y = row + 0.5;
+    int crossings = 0;
+    for (int i = 0, j = count - 1; i < count; j = i++) {
+      // half-open edges so that a vertex on the scanline is only counted once
+      if ((ys[i] <= y && y < ys[j]) || (ys[j] <= y && y < ys[i])) {
+        final double x = xs[i] + (y - ys[i]) * (xs[j] - xs[i]) / (ys[j] - ys[i]);
+        int pixel = (int) Math.ceil(x - 0.5);
+        pixel = Math.max(0, Math.min(width, pixel));
+
+        // insertion sort, polygons only have a few crossings per row
+        int k = crossings++;
+        while (k > 0 && spans[k - 1] > pixel) {
+          spans[k] = spans[k - 1];
+          k--;
+        }
+
+        spans[k] = pixel;
+      }
+    }
+
+    return crossings & ~1;
+  }
+
+  /**
+   * Fills the polygon into the specified coverage mask.
+   * <p>
+   * Unlike {@link #getSpans(double[], double[], int, int, int, int[])}, the edges are walked from row to row with single precision and an
+   * integer error term, which is exactly how Java2D steps the edges of a shape that it fills without antialiasing. Hence the mask covers the
+   * same pixels as filling the polygon with a <code>Graphics2D</code>, even if a pixel center lies exactly on an edge.
+   * </p>
+   *
+   * @param xs
+   *          The x-coordinates of the polygon's vertices in pixels.
+   * @param ys
+   *          The y-coordinates of the polygon's vertices in pixels.
+   * @param count
+   *          The number of vertices.
+   * @param width
+   *          The width of the mask.
+   * @param height
+   *          The height of the mask.
+   * @param mask
+   *          The coverage mask of <code>width x height</code> pixels, row by row.
+   */
+  static void fill(float[] xs, float[] ys, int count, int width, int height, boolean[] mask) {
+    final int[] edgeX = new int[count];
+    final int[] firstRow = new int[count];
+    final int[] lastRow = new int[count];
+    final int[] error = new int[count];
+    final int[] stepX = new int[count];
+    final int[] stepError = new int[count];
+    final int[] crossings = new int[count];
+
+    int minRow = Integer.MAX_VALUE;
+    int maxRow = Integer.MIN_VALUE;
+    for (int i = 0, j = count - 1; i < count; j = i++) {
+      final boolean down = ys[j] <= ys[i];
+      float x0 = down ? xs[j] : xs[i];
+      final float y0 = down ? ys[j] : ys[i];
+      final float x1 = down ? xs[i] : xs[j];
+      final float y1 = down ? ys[i] : ys[j];
+
+      // the rows whose centers the edge crosses, the edges of rows above the mask are stepped as well
+      firstRow[i] = (int) Math.ceil(y0 - 0.5f);
+      lastRow[i] = (int) Math.ceil(y1 - 0.5f);
+      if (firstRow[i] >= lastRow[i]) {
+        continue;
+      }
+
+      final float dx = x1 - x0;
+      final float slope = dx / (y1 - y0);
+      x0 += (firstRow[i] + 0.5f - y0) * dx / (y1 - y0);
+      edgeX[i] = (int) Math.ceil(x0 - 0.5f);
+      stepX[i] = (int) Math.floor(slope);
+      stepError[i] = (int) ((slope - Math.floor(slope)) * ERROR_STEP);
+      error[i] = (int) ((x0 - (edgeX[i] - 0.5f)) * ERROR_STEP);
+
+      minRow = Math.min(minRow, firstRow[i]);
+      maxRow = Math.max(maxRow, lastRow[i]);
+    }
+
+    for (int row = minRow; row < Math.min(maxRow, height); row++) {
+      int crossingCount = 0;
+      for (int i = 0; i < count; i++) {
+        if (row < firstRow[i] || row >= lastRow[i]) {
+          continue;
+        }
+
+        if (row > firstRow[i]) {
+          // carry the error into the x-coordinate once it exceeds a whole pixel
+          edgeX[i] += stepX[i];
+          error[i] += stepError[i];
+          edgeX[i] -= error[i] >> 31;
+          error[i] &= Integer.MAX_VALUE;
+        }
+
+        int k = crossingCount++;
+        while (k > 0 && crossings[k - 1] > edgeX[i]) {
+          crossings[k] = crossings[k - 1];
+          k--;
+        }
+
+        crossings[k] = edgeX[i];
+      }
+
+      if (row < 0) {
+        continue;
+      }
+
+      for (int i = 0; i + 1 < crossingCount; i += 2) {
+        final int from = Math.max(0, Math.min(width, crossings[i]));
+        final int to = Math.max(0, Math.min(width, crossings[i + 1]));
+        if (from < to) {
+          Arrays.fill(mask, row * width + from, row * width + to, true);
+        }
+      }
+    }
+  }
+}
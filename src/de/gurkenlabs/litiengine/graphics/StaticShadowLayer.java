@@ -1,11 +1,19 @@
 package de.gurkenlabs.litiengine.graphics;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Collection;
 
+import de.gurkenlabs.litiengine.Game;
+import de.gurkenlabs.litiengine.configuration.LightingBackend;
 import de.gurkenlabs.litiengine.entities.StaticShadow;
 import de.gurkenlabs.litiengine.environment.IEnvironment;
 
@@ -16,14 +24,35 @@ public class StaticShadowLayer extends ColorLayer {
 
   @Override
   protected void renderSection(Graphics2D g, Rectangle2D section) {
-    final Color color = this.getColor();
+    if (Game.config() != null && Game.config().graphics().getLightingBackend() == LightingBackend.RASTER) {
+      g.setComposite(AlphaComposite.Src);
+      g.drawImage(rasterizeShadows(this.getEnvironment().getStaticShadows(), section, this.getColor()), 0, 0, null);
+      return;
+    }
+
+    fillShadows(g, this.getEnvironment().getStaticShadows(), section, this.getColor());
+  }
+
+  /**
+   * Fills the union of all static shadows that intersect the specified section.
+   *
+   * @param g
+   *          The graphics object to render on, with its origin at the top left corner of the section.
+   * @param staticShadows
+   *          The static shadows of the environment.
+   * @param section
+   *          The section to render.
+   * @param color
+   *          The color of the shadows.
+   */
+  static void fillShadows(Graphics2D g, Collection<StaticShadow> staticShadows, Rectangle2D section, Color color) {
     g.setColor(color);
 
     // check if the collision boxes have shadows. if so, determine which
     // shadow is needed, create the shape and add it to the
     // list of static shadows.
     final Area ar = new Area();
-    for (final StaticShadow staticShadow : this.getEnvironment().getStaticShadows()) {
+    for (final StaticShadow staticShadow : staticShadows) {
       if (!staticShadow.getBoundingBox().intersects(section) || staticShadow.getShadowType() == StaticShadowType.NONE) {
         continue;
       }
@@ -35,4 +64,80 @@ public class StaticShadowLayer extends ColorLayer {
     ar.transform(AffineTransform.getTranslateInstance(-section.getX(), -section.getY()));
     g.fill(ar);
   }
+
+  /**
+   * Rasterizes all static shadows that intersect the specified section into an image of the section's size.
+   * <p>
+   * Instead of building the union of the shadows' areas, every shadow polygon is filled independently into a coverage mask with the
+   * {@link ScanlineRasterizer}, which scales linearly with the number of shadows. The vertices are normalized like Java2D normalizes them when
+   * filling a shape without antialiasing, so the result is identical to {@link #fillShadows(Graphics2D, Collection, Rectangle2D, Color)}.
+   * The only exception are single pixels where the slanted edges of two overlapping shadows cross, because the union snaps the intersection
+   * points to a quarter pixel as well.
+   * </p>
+   *
+   * @param staticShadows
+   *          The static shadows of the environment.
+   * @param section
+   *          The section to render.
+   * @param color
+   *          The color of the shadows.
+   * @return An image of the section that contains the shadows.
+   */
+  static BufferedImage rasterizeShadows(Collection<StaticShadow> staticShadows, Rectangle2D section, Color color) {
+    final int width = Math.max(1, (int) Math.ceil(section.getWidth()));
+    final int height = Math.max(1, (int) Math.ceil(section.getHeight()));
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    final int rgb = color.getRGB();
+
+    final boolean[] mask = new boolean[width * height];
+    final double[] coordinates = new double[6];
+    float[] xs = new float[8];
+    float[] ys = new float[8];
+    for (final StaticShadow staticShadow : staticShadows) {
+      if (!staticShadow.getBoundingBox().intersects(section) || staticShadow.getShadowType() == StaticShadowType.NONE) {
+        continue;
+      }
+
+      int count = 0;
+      final PathIterator path = staticShadow.getArea().getPathIterator(null);
+      while (!path.isDone()) {
+        final int segment = path.currentSegment(coordinates);
+        if (segment == PathIterator.SEG_MOVETO || segment == PathIterator.SEG_CLOSE) {
+          ScanlineRasterizer.fill(xs, ys, count, width, height, mask);
+          count = 0;
+        }
+
+        if (segment == PathIterator.SEG_MOVETO || segment == PathIterator.SEG_LINETO) {
+          if (count == xs.length) {
+            xs = Arrays.copyOf(xs, count * 2);
+            ys = Arrays.copyOf(ys, count * 2);
+          }
+
+          xs[count] = normalize((float) (coordinates[0] - section.getX()));
+          ys[count] = normalize((float) (coordinates[1] - section.getY()));
+          count++;
+        }
+
+        path.next();
+      }
+
+      ScanlineRasterizer.fill(xs, ys, count, width, height, mask);
+    }
+
+    for (int i = 0; i < mask.length; i++) {
+      if (mask[i]) {
+        pixels[i] = rgb;
+      }
+    }
+
+    return image;
+  }
+
+  /**
+   * Moves the coordinate to a quarter pixel like the default <code>STROKE_NORMALIZE</code> control of Java2D does before it fills a shape.
+   */
+  private static float normalize(float coordinate) {
+    return (float) Math.floor(coordinate + 0.25f) + 0.25f;
+  }
 }
@@ -84,7 +84,10 @@ public class SpeechBubble implements IUpdateable, IRenderable, IEntityProvider {
     this.lastTextDispay = Game.loop().getTicks();
     this.createBubbleImage();
     Game.world().environment().add(this, RenderType.UI);
-    Game.renderLoop().attach(this);
+    if (Game.renderLoop() != null) {
+      Game.renderLoop().attach(this);
+    }
+
     activeSpeechBubbles.put(entity, this);
   }
 
@@ -176,7 +179,9 @@ public class SpeechBubble implements IUpdateable, IRenderable, IEntityProvider {
   public void update() {
     if (this.currentText == null) {
       Game.world().environment().removeRenderable(this);
-      Game.renderLoop().detach(this);
+      if (Game.renderLoop() != null) {
+        Game.renderLoop().detach(this);
+      }
 
       if (activeSpeechBubbles.containsKey(this.getEntity()) && activeSpeechBubbles.get(this.getEntity()).equals(this)) {
         activeSpeechBubbles.remove(this.getEntity());
@@ -209,7 +214,10 @@ public class SpeechBubble implements IUpdateable, IRenderable, IEntityProvider {
 
   private void cancel() {
     Game.world().environment().removeRenderable(this);
-    Game.renderLoop().detach(this);
+    if (Game.renderLoop() != null) {
+      Game.renderLoop().detach(this);
+    }
+
     if (activeSpeechBubbles.get(this.getEntity()) != null && activeSpeechBubbles.remove(this.getEntity()).equals(this)) {
       activeSpeechBubbles.remove(this.getEntity());
     }
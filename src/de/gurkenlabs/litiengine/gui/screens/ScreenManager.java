@@ -40,8 +40,11 @@ public final class ScreenManager {
   }
 
   public void add(final Screen screen) {
-    screen.setWidth(Game.window().getWidth());
-    screen.setHeight(Game.window().getHeight());
+    if (Game.window() != null) {
+      screen.setWidth(Game.window().getWidth());
+      screen.setHeight(Game.window().getHeight());
+    }
+
     this.screens.add(screen);
 
     if (this.current() == null) {
@@ -45,6 +45,12 @@ public class GamepadEntityController<T extends IMobileEntity> extends MovementCo
     super.update();
   }
 
+  @Override
+  protected boolean isIdle() {
+    // the gamepad values are polled on every update
+    return false;
+  }
+
   public double getGamepadDeadzone() {
     return this.gamepadDeadzone;
   }
@@ -275,6 +275,11 @@ public class Mouse implements IMouse {
     this.location = adjustMouse;
     this.lastLocation = adjustMouse;
 
+    // a headless game has no render component that could be the source of the event
+    if (Game.window() == null) {
+      return;
+    }
+
     final MouseEvent mouseEvent = new MouseEvent(Game.window().getRenderComponent(), MouseEvent.MOUSE_MOVED, 0, 0, (int) this.getLocation().getX(), (int) this.getLocation().getY(), 0, false, MouseEvent.NOBUTTON);
     final MouseEvent wrappedEvent = this.createEvent(mouseEvent);
     for (final Consumer<MouseEvent> cons : this.mouseMovedConsumer) {
@@ -315,7 +320,7 @@ public class Mouse implements IMouse {
    *          The location of the original mouse.
    */
   private void setLocation(final MouseEvent e) {
-    if (this.grabMouse && !Game.window().isFocusOwner()) {
+    if (Game.window() == null || this.grabMouse && !Game.window().isFocusOwner()) {
       return;
     }
 
@@ -28,6 +28,7 @@ public class MousePathController extends MovementController<IMobileEntity> {
   public void mousePressed(final MouseEvent e) {
     if (SwingUtilities.isRightMouseButton(e)) {
       this.navigating = true;
+      this.wake();
     }
   }
 
@@ -50,4 +51,9 @@ public class MousePathController extends MovementController<IMobileEntity> {
       this.navigator.navigate(Input.mouse().getMapLocation());
     }
   }
+
+  @Override
+  protected boolean isIdle() {
+    return super.isIdle() && !this.navigating;
+  }
 }
@@ -73,4 +73,25 @@ public interface IMovementController extends IEntityController {
    *          the logic that will be called after the entity has been moved.
    */
   public void onMoved(Consumer<Point2D> cons);
+
+  /**
+   * Determines whether this controller is sleeping. A sleeping controller has no active forces, no velocity and no pending movement and is
+   * therefore not updated by the game loop until it is woken up.
+   *
+   * <p>
+   * Implementations that are never put to sleep don't need to override this.
+   * </p>
+   *
+   * @return true, if this controller is sleeping.
+   */
+  public default boolean isSleeping() {
+    return false;
+  }
+
+  /**
+   * Wakes this controller up so that it is updated by the game loop again. This is implicitly called when a force is applied, a movement is
+   * requested or another entity moves into the controlled entity.
+   */
+  public default void wake() {
+  }
 }
@@ -3,6 +3,7 @@ package de.gurkenlabs.litiengine.physics;
 import java.awt.geom.Point2D;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -16,28 +17,35 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
   private final T mobileEntity;
   private final List<Predicate<IMobileEntity>> movementPredicates;
   private final List<Consumer<Point2D>> movedConsumer;
+  private final AtomicBoolean sleeping;
 
-  private float dx;
-  private float dy;
-  private boolean movedX;
-  private boolean movedY;
+  // the pending movement is requested by the input thread while the game thread decides whether this controller can sleep
+  private volatile float dx;
+  private volatile float dy;
+  private volatile boolean movedX;
+  private volatile boolean movedY;
   private double velocityX;
   private double velocityY;
+  private volatile int updatePhase;
+  private volatile boolean parallelUpdate;
 
   public MovementController(final T mobileEntity) {
     this.activeForces = new CopyOnWriteArrayList<>();
     this.movementPredicates = new CopyOnWriteArrayList<>();
     this.movedConsumer = new CopyOnWriteArrayList<>();
+    this.sleeping = new AtomicBoolean();
     this.mobileEntity = mobileEntity;
   }
 
   @Override
   public void attach() {
+    this.sleeping.set(false);
     Game.loop().attach(this);
   }
 
   @Override
   public void detach() {
+    this.sleeping.set(false);
     Game.loop().detach(this);
   }
 
@@ -46,6 +54,21 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
     if (!this.activeForces.contains(force)) {
       this.activeForces.add(force);
     }
+
+    this.wake();
+  }
+
+  @Override
+  public boolean isSleeping() {
+    return this.sleeping.get();
+  }
+
+  @Override
+  public void wake() {
+    // only a controller that was put to sleep is attached again, in the update phase it was attached to before
+    if (this.sleeping.compareAndSet(true, false)) {
+      Game.loop().attach(this, this.updatePhase, this.parallelUpdate);
+    }
   }
 
   @Override
@@ -67,6 +90,9 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
   public void setDx(float dx) {
     this.dx = dx;
     this.setMovedX(this.dx != 0);
+    if (this.dx != 0) {
+      this.wake();
+    }
   }
 
   @Override
@@ -78,6 +104,9 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
   public void setDy(float dy) {
     this.dy = dy;
     this.setMovedY(this.dy != 0);
+    if (this.dy != 0) {
+      this.wake();
+    }
   }
 
   @Override
@@ -91,6 +120,10 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
   public void update() {
     this.handleForces();
     this.handleMovement();
+
+    if (this.isIdle()) {
+      this.sleep();
+    }
   }
 
   @Override
@@ -107,7 +140,7 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
 
     final double maxPixelsPerTick = this.getEntity().getTickVelocity();
 
-    final double deltaTime = Game.loop().getDeltaTime() * Game.loop().getTimeScale();
+    final double deltaTime = Game.loop().getPreciseDeltaTime() * Game.loop().getTimeScale();
     double accelerationRatio = deltaTime / (double) this.getEntity().getAcceleration();
     double decelerationRatio = deltaTime / (double) this.getEntity().getDeceleration();
 
@@ -170,10 +203,16 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
 
   protected void setVelocityX(double velocityX) {
     this.velocityX = velocityX;
+    if (velocityX != 0) {
+      this.wake();
+    }
   }
 
   protected void setVelocityY(double velocityY) {
     this.velocityY = velocityY;
+    if (velocityY != 0) {
+      this.wake();
+    }
   }
 
   public void decelerateVelocityX(double dec) {
@@ -221,20 +260,34 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
   }
 
   protected double getStopThreshold() {
-    return 0.0025 * Game.loop().getDeltaTime();
+    return 0.0025 * Game.loop().getPreciseDeltaTime();
   }
 
   protected void moveEntity(double deltaX, double deltaY) {
-    final Point2D newLocation = new Point2D.Double(this.getEntity().getX() + deltaX, this.getEntity().getY() + deltaY);
-    final Point2D oldLocation = this.getEntity().getLocation();
-    Game.physics().move(this.getEntity(), newLocation);
+    final double oldX = this.getEntity().getX();
+    final double oldY = this.getEntity().getY();
+    Game.physics().move(this.getEntity(), oldX + deltaX, oldY + deltaY, null);
 
-    final Point2D delta = new Point2D.Double(this.getEntity().getX() - oldLocation.getX(), this.getEntity().getY() - oldLocation.getY());
+    if (this.movedConsumer.isEmpty()) {
+      return;
+    }
+
+    final Point2D delta = new Point2D.Double(this.getEntity().getX() - oldX, this.getEntity().getY() - oldY);
     for (Consumer<Point2D> cons : this.movedConsumer) {
       cons.accept(delta);
     }
   }
 
+  /**
+   * Determines whether this controller has nothing to do in the current tick, in which case it is put to sleep until it is woken up.
+   * Controllers that poll for movement (e.g. from a gamepad) must override this and return false while they are polling.
+   *
+   * @return True if there are no active forces, no velocity and no pending movement; otherwise false.
+   */
+  protected boolean isIdle() {
+    return this.activeForces.isEmpty() && this.getVelocityX() == 0 && this.getVelocityY() == 0 && !this.isMovedX() && !this.isMovedY();
+  }
+
   protected boolean isMovementAllowed() {
     for (final Predicate<IMobileEntity> predicate : this.movementPredicates) {
       if (!predicate.test(this.getEntity())) {
@@ -245,6 +298,19 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
     return true;
   }
 
+  private void sleep() {
+    // detach before the controller is marked as sleeping so that a concurrent wake up can't be lost
+    this.updatePhase = Game.loop().getUpdatePhase(this);
+    this.parallelUpdate = Game.loop().isParallel(this);
+    Game.loop().detach(this);
+    this.sleeping.set(true);
+
+    // movement might have been requested by another thread in the meantime
+    if (!this.isIdle()) {
+      this.wake();
+    }
+  }
+
   private void handleForces() {
     // clean up forces
     this.activeForces.forEach(x -> {
@@ -253,6 +319,10 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
       }
     });
 
+    if (this.activeForces.isEmpty()) {
+      return;
+    }
+
     // disable turn-on-move for force handling
     boolean turn = this.getEntity().turnOnMove();
     this.getEntity().setTurnOnMove(false);
@@ -267,7 +337,7 @@ public class MovementController<T extends IMobileEntity> implements IMovementCon
 
         final Point2D collisionBoxCenter = this.getEntity().getCollisionBoxCenter();
         final double angle = GeometricUtilities.calcRotationAngleInDegrees(collisionBoxCenter, force.getLocation());
-        final double strength = Game.loop().getDeltaTime() * 0.001f * force.getStrength() * Game.loop().getTimeScale();
+        final double strength = Game.loop().getPreciseDeltaTime() * 0.001f * force.getStrength() * Game.loop().getTimeScale();
         deltaX += GeometricUtilities.getXDelta(angle, strength);
         deltaY += GeometricUtilities.getYDelta(angle, strength);
       }
@@ -1,23 +1,29 @@
 package de.gurkenlabs.litiengine.physics;
 
-import java.awt.Shape;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import de.gurkenlabs.litiengine.Direction;
 import de.gurkenlabs.litiengine.Game;
 import de.gurkenlabs.litiengine.IUpdateable;
+import de.gurkenlabs.litiengine.entities.CollisionEntity;
+import de.gurkenlabs.litiengine.entities.EntityTransformListener;
 import de.gurkenlabs.litiengine.entities.ICollisionEntity;
+import de.gurkenlabs.litiengine.entities.IEntity;
 import de.gurkenlabs.litiengine.entities.IMobileEntity;
 import de.gurkenlabs.litiengine.entities.Prop;
 import de.gurkenlabs.litiengine.util.MathUtilities;
 import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
+import de.gurkenlabs.litiengine.util.geom.Vector2D;
 
 /**
  * This class is used to hold all collision aware instances and static collision boxes.
@@ -25,20 +31,31 @@ import de.gurkenlabs.litiengine.util.geom.GeometricUtilities;
  * group.
  * <br>
  * The <b><code>collides</code></b> method group can detect a collision at a certain location, for rectangles, or collision aware entities.
- * Also, there's an overload that takes a <code>Line2D</code> to perform a basic raycast check.
+ * Also, there's an overload that takes a <code>Line2D</code> to perform a basic raycast check. The <b><code>raycast</code></b> method group provides
+ * detailed information about the nearest hit and can cast a batch of rays at once.
+ * <br>
+ * All queries are accelerated by a uniform spatial hash so that they only need to consider collision boxes in the grid cells that are overlapped by
+ * the queried location.
+ * 
+ * @see SpatialHash
  */
 public final class PhysicsEngine implements IUpdateable {
+  private static final int PARALLEL_RAYCAST_THRESHOLD = 64;
+  private static final int MAX_SWEEP_ITERATIONS = 3;
+
+  // the collision queries are reused per thread so that moving entities doesn't allocate any objects
+  private static final ThreadLocal<CollisionQuery> QUERY = ThreadLocal.withInitial(CollisionQuery::new);
+
   private final List<ICollisionEntity> collisionEntities;
 
   private Rectangle2D environmentBounds;
 
   private final List<Rectangle2D> staticCollisionBoxes;
 
-  private final List<CollisionBox> entityCollisionBoxes;
-  private final List<CollisionBox> allCollisionBoxes;
-  private final List<CollisionBox> staticBoxes;
-  private final List<Rectangle2D> allCollisionBoxRectangles;
-  private final List<Rectangle2D> entityCollisionBoxRectangles;
+  private final SpatialHash<CollisionBox> collisionGrid;
+  private final Map<ICollisionEntity, CollisionBox> entityCollisionBoxLookup;
+  private final Map<Rectangle2D, CollisionBox> staticCollisionBoxLookup;
+  private final EntityTransformListener transformListener;
 
   /**
    * Instantiates a new PhysicsEngine instance.
@@ -52,13 +69,24 @@ public final class PhysicsEngine implements IUpdateable {
   public PhysicsEngine() {
     this.collisionEntities = new CopyOnWriteArrayList<>();
     this.staticCollisionBoxes = new CopyOnWriteArrayList<>();
-    
-    // these collections are updated every tick so they don't use a CopyOnWriteArrayList due to performance
-    this.entityCollisionBoxes = Collections.synchronizedList(new ArrayList<>());
-    this.allCollisionBoxes = Collections.synchronizedList(new ArrayList<>());
-    this.staticBoxes = Collections.synchronizedList(new ArrayList<>());
-    this.allCollisionBoxRectangles = Collections.synchronizedList(new ArrayList<>());
-    this.entityCollisionBoxRectangles = Collections.synchronizedList(new ArrayList<>());
+
+    // the collision boxes are maintained incrementally when participants are added or removed and when entities are transformed
+    this.collisionGrid = new SpatialHash<>();
+    this.entityCollisionBoxLookup = new ConcurrentHashMap<>();
+    this.staticCollisionBoxLookup = new ConcurrentHashMap<>();
+
+    // re-bucket the collision boxes of entities as soon as they are moved or resized
+    this.transformListener = new EntityTransformListener() {
+      @Override
+      public void locationChanged(IEntity entity) {
+        updateCollisionGrid(entity);
+      }
+
+      @Override
+      public void sizeChanged(IEntity entity) {
+        updateCollisionGrid(entity);
+      }
+    };
   }
 
   /**
@@ -81,13 +109,16 @@ public final class PhysicsEngine implements IUpdateable {
     if (entity instanceof Prop) {
       Prop prop = (Prop) entity;
       if (prop.isObstacle()) {
-        this.add(prop.getCollisionBox());
+        this.add(prop.getCollisionBox(), prop.getCollisionLayer(), prop.getCollisionMask());
         return;
       }
     }
 
-    if (!this.collisionEntities.contains(entity)) {
+    final CollisionBox collisionBox = new CollisionBox(entity);
+    if (this.entityCollisionBoxLookup.putIfAbsent(entity, collisionBox) == null) {
       this.collisionEntities.add(entity);
+      this.collisionGrid.add(collisionBox, entity.getCollisionBox());
+      entity.addTransformListener(this.transformListener);
     }
   }
 
@@ -98,8 +129,27 @@ public final class PhysicsEngine implements IUpdateable {
    *          The static collision box to be added.
    */
   public void add(final Rectangle2D staticCollisionBox) {
-    if (!this.staticCollisionBoxes.contains(staticCollisionBox)) {
+    this.add(staticCollisionBox, CollisionEntity.DEFAULT_COLLISION_LAYER, CollisionEntity.ALL_COLLISION_LAYERS);
+  }
+
+  /**
+   * Adds the specified static collision box to the physics engine.
+   * 
+   * @param staticCollisionBox
+   *          The static collision box to be added.
+   * @param collisionLayer
+   *          The collision layers that the collision box belongs to as a bit mask.
+   * @param collisionMask
+   *          The collision layers that the collision box collides with as a bit mask.
+   * 
+   * @see ICollisionEntity#getCollisionLayer()
+   * @see ICollisionEntity#getCollisionMask()
+   */
+  public void add(final Rectangle2D staticCollisionBox, final int collisionLayer, final int collisionMask) {
+    final CollisionBox collisionBox = new CollisionBox(staticCollisionBox, collisionLayer, collisionMask);
+    if (this.staticCollisionBoxLookup.putIfAbsent(staticCollisionBox, collisionBox) == null) {
       this.staticCollisionBoxes.add(staticCollisionBox);
+      this.collisionGrid.add(collisionBox, staticCollisionBox);
     }
   }
 
@@ -119,7 +169,14 @@ public final class PhysicsEngine implements IUpdateable {
       }
     }
 
-    this.collisionEntities.remove(entity);
+    if (this.collisionEntities.remove(entity)) {
+      entity.removeTransformListener(this.transformListener);
+    }
+
+    final CollisionBox collisionBox = this.entityCollisionBoxLookup.remove(entity);
+    if (collisionBox != null) {
+      this.collisionGrid.remove(collisionBox);
+    }
   }
 
   /**
@@ -130,6 +187,11 @@ public final class PhysicsEngine implements IUpdateable {
    */
   public void remove(final Rectangle2D staticCollisionBox) {
     this.staticCollisionBoxes.remove(staticCollisionBox);
+
+    final CollisionBox collisionBox = this.staticCollisionBoxLookup.remove(staticCollisionBox);
+    if (collisionBox != null) {
+      this.collisionGrid.remove(collisionBox);
+    }
   }
 
   /**
@@ -137,17 +199,37 @@ public final class PhysicsEngine implements IUpdateable {
    * This includes all entities, static collision boxes and the map boundaries.
    */
   public void clear() {
+    for (final ICollisionEntity entity : this.collisionEntities) {
+      entity.removeTransformListener(this.transformListener);
+    }
+
     this.collisionEntities.clear();
     this.staticCollisionBoxes.clear();
-    this.allCollisionBoxes.clear();
-    this.staticBoxes.clear();
-    this.allCollisionBoxRectangles.clear();
-    this.entityCollisionBoxRectangles.clear();
+    this.collisionGrid.clear();
+    this.entityCollisionBoxLookup.clear();
+    this.staticCollisionBoxLookup.clear();
     this.setBounds(null);
   }
 
+  /**
+   * Gets the collision boxes of all entities with an enabled collision and all static collision boxes.
+   * <p>
+   * <i>The returned list is a snapshot that is created upon calling this method. Entities that move afterwards provide a new collision box that
+   * won't be reflected by this list.</i>
+   * </p>
+   * 
+   * @return A new list containing all collision boxes.
+   */
   public List<Rectangle2D> getAllCollisionBoxes() {
-    return this.getAllCollisionBoxRectangles();
+    final List<Rectangle2D> allCollisionBoxes = new ArrayList<>(this.collisionEntities.size() + this.staticCollisionBoxes.size());
+    for (final ICollisionEntity entity : this.collisionEntities) {
+      if (entity.hasCollision()) {
+        allCollisionBoxes.add(entity.getCollisionBox());
+      }
+    }
+
+    allCollisionBoxes.addAll(this.staticCollisionBoxes);
+    return allCollisionBoxes;
   }
 
   public List<ICollisionEntity> getCollisionEntities() {
@@ -166,84 +248,177 @@ public final class PhysicsEngine implements IUpdateable {
     this.environmentBounds = environmentBounds;
   }
 
+  /**
+   * Gets the size of the grid cells that are used by the spatial hash to accelerate collision queries.
+   * 
+   * @return The width and height of a single grid cell in pixels.
+   */
+  public double getCellSize() {
+    return this.collisionGrid.getCellSize();
+  }
+
+  /**
+   * Sets the size of the grid cells that are used by the spatial hash to accelerate collision queries.
+   * <p>
+   * <i>When an environment is loaded, this is set to the tile size of its map.</i>
+   * </p>
+   * 
+   * @param cellSize
+   *          The width and height of a single grid cell in pixels.
+   */
+  public void setCellSize(final double cellSize) {
+    this.collisionGrid.setCellSize(cellSize);
+  }
+
   public boolean collides(final double x, final double y) {
-    return this.collides(new Point2D.Double(x, y));
+    if (this.environmentBounds != null && !this.environmentBounds.contains(x, y)) {
+      return true;
+    }
+
+    return this.collides(QUERY.get().point(x, y, null, CollisionType.ALL), null);
   }
 
   public boolean collides(double x, double y, CollisionType collisionType) {
-    return this.collides(new Point2D.Double(x, y), collisionType);
+    if (collisionType == CollisionType.ALL) {
+      return this.collides(x, y);
+    }
+
+    return this.collides(QUERY.get().point(x, y, null, collisionType), null);
   }
 
   public boolean collides(double x, double y, ICollisionEntity collisionEntity) {
-    return collides(new Point2D.Double(x, y), collisionEntity);
+    return this.collides(QUERY.get().point(x, y, collisionEntity, null), null);
+  }
+
+  /**
+   * Checks whether the specified rectangle collides with any collision box.
+   * 
+   * @param x
+   *          The x-coordinate of the rectangle.
+   * @param y
+   *          The y-coordinate of the rectangle.
+   * @param width
+   *          The width of the rectangle.
+   * @param height
+   *          The height of the rectangle.
+   * @return True if the specified rectangle collides with any collision box; otherwise false.
+   */
+  public boolean collides(double x, double y, double width, double height) {
+    return this.collides(x, y, width, height, null, null);
+  }
+
+  /**
+   * Checks whether the specified rectangle collides with any collision box that the specified entity can collide with.
+   * <br>
+   * This overload doesn't allocate any objects, so it can be used for collision checks that are performed for every entity in every tick.
+   * 
+   * @param x
+   *          The x-coordinate of the rectangle.
+   * @param y
+   *          The y-coordinate of the rectangle.
+   * @param width
+   *          The width of the rectangle.
+   * @param height
+   *          The height of the rectangle.
+   * @param collisionEntity
+   *          The entity to check the collision for; or null if all collision boxes should be considered.
+   * @param intersection
+   *          A mutable rectangle that receives the intersection with the colliding collision box (or the whole collision box, if it contains the
+   *          specified rectangle); or null if the intersection is not needed.
+   * @return True if the specified rectangle collides with any collision box that the entity can collide with; otherwise false.
+   */
+  public boolean collides(double x, double y, double width, double height, ICollisionEntity collisionEntity, Rectangle2D intersection) {
+    return this.collides(QUERY.get().rectangle(x, y, width, height, collisionEntity), intersection);
   }
 
   public boolean collides(Point2D point, ICollisionEntity collisionEntity) {
-    return this.collidesWithAnyEntity(collisionEntity, point) || this.collidesWithAnyStaticCollisionBox(point);
+    return this.collides(point.getX(), point.getY(), collisionEntity);
   }
 
   public boolean collides(Point2D point, CollisionType collisionType) {
-    switch (collisionType) {
-    case ALL:
-      return this.collides(point);
-    case ENTITY:
-      return this.collidesWithAnyEntity(null, point);
-    case STATIC:
-      return this.collidesWithAnyStaticCollisionBox(point);
-    default:
-      return false;
-    }
+    return this.collides(point.getX(), point.getY(), collisionType);
   }
 
   public Point2D collides(Line2D rayCast, CollisionType collisionType) {
-    final Point2D rayCastSource = new Point2D.Double(rayCast.getX1(), rayCast.getY1());
-
-    final List<Rectangle2D> collBoxes = this.getAllCollisionBoxRectangles(collisionType);
-    for (final Rectangle2D collisionBox : collBoxes) {
-      if (collisionBox.intersectsLine(rayCast)) {
-        double closestDist = -1;
-        Point2D closestPoint = null;
-        for (final Point2D intersection : GeometricUtilities.getIntersectionPoints(rayCast, collisionBox)) {
-          final double dist = intersection.distance(rayCastSource);
-          if (closestPoint == null || dist < closestDist) {
-            closestPoint = intersection;
-            closestDist = dist;
-          }
-        }
-
-        return closestPoint;
-      }
-    }
-
-    return null;
+    final RaycastHit hit = this.raycast(rayCast, collisionType);
+    return hit != null ? hit.getPoint() : null;
   }
 
   public Point2D collides(final Line2D rayCast) {
     return this.collides(rayCast, CollisionType.ALL);
   }
 
-  public boolean collides(final Point2D point) {
-    if (this.environmentBounds != null && !this.environmentBounds.contains(point)) {
-      return true;
-    }
+  /**
+   * Casts the specified ray and determines the nearest collision box that it hits.
+   * <br>
+   * Only the grid cells along the ray are visited (in the order in which they are crossed) and the traversal stops as soon as the nearest hit is
+   * known.
+   * 
+   * @param ray
+   *          The ray to cast, starting at its first point.
+   * @return The nearest hit; or null if the ray doesn't hit any collision box.
+   */
+  public RaycastHit raycast(final Line2D ray) {
+    return this.raycast(ray, CollisionType.ALL);
+  }
 
-    for (final Rectangle2D collisionBox : this.getAllCollisionBoxes()) {
-      if (collisionBox.contains(point)) {
-        return true;
-      }
-    }
+  /**
+   * Casts the specified ray and determines the nearest collision box of the specified type that it hits.
+   * 
+   * @param ray
+   *          The ray to cast, starting at its first point.
+   * @param collisionType
+   *          The type of the collision boxes to consider.
+   * @return The nearest hit; or null if the ray doesn't hit any collision box of the specified type.
+   * 
+   * @see #raycast(Line2D)
+   */
+  public RaycastHit raycast(final Line2D ray, final CollisionType collisionType) {
+    return this.raycast(ray, box -> box.isOfType(collisionType));
+  }
 
-    return false;
+  /**
+   * Casts the specified ray and determines the nearest collision box that it hits and that the specified entity can collide with.
+   * This excludes the collision box of the entity itself, which makes this overload suitable for line-of-sight checks.
+   * 
+   * @param ray
+   *          The ray to cast, starting at its first point.
+   * @param entity
+   *          The entity that casts the ray.
+   * @return The nearest hit; or null if the ray doesn't hit any collision box that the entity can collide with.
+   * 
+   * @see #raycast(Line2D)
+   */
+  public RaycastHit raycast(final Line2D ray, final ICollisionEntity entity) {
+    return this.raycast(ray, box -> box.canCollideWith(entity));
   }
 
-  public boolean collides(final Rectangle2D rect) {
-    for (final Rectangle2D collisionBox : this.getAllCollisionBoxes()) {
-      if (GeometricUtilities.intersects(rect, collisionBox)) {
-        return true;
-      }
-    }
+  /**
+   * Casts all the specified rays and determines the nearest collision box of the specified type that they hit.
+   * <br>
+   * Large batches are distributed across all available cores.
+   * 
+   * @param rays
+   *          The rays to cast.
+   * @param collisionType
+   *          The type of the collision boxes to consider.
+   * @return A list with the nearest hit for every ray at the index of the ray; or a <code>null</code> element if the ray doesn't hit anything.
+   * 
+   * @see #raycast(Line2D, CollisionType)
+   */
+  public List<RaycastHit> raycast(final List<? extends Line2D> rays, final CollisionType collisionType) {
+    final RaycastHit[] hits = new RaycastHit[rays.size()];
+    final IntStream indices = IntStream.range(0, hits.length);
+    (hits.length >= PARALLEL_RAYCAST_THRESHOLD ? indices.parallel() : indices).forEach(i -> hits[i] = this.raycast(rays.get(i), collisionType));
+    return Arrays.asList(hits);
+  }
+
+  public boolean collides(final Point2D point) {
+    return this.collides(point.getX(), point.getY());
+  }
 
-    return false;
+  public boolean collides(final Rectangle2D rect) {
+    return this.collides(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
   }
 
   /**
@@ -303,8 +478,7 @@ public final class PhysicsEngine implements IUpdateable {
    *         collision.
    */
   public boolean move(final IMobileEntity entity, final double angle, final double delta) {
-    final Point2D newPosition = GeometricUtilities.project(entity.getLocation(), angle, delta);
-    return this.move(entity, newPosition);
+    return this.move(entity, entity.getX() + GeometricUtilities.getXDelta(angle, delta), entity.getY() + GeometricUtilities.getYDelta(angle, delta), null);
   }
 
   public boolean move(IMobileEntity entity, Direction direction, double delta) {
@@ -312,7 +486,10 @@ public final class PhysicsEngine implements IUpdateable {
   }
 
   public boolean move(final IMobileEntity entity, final double x, final double y, final float delta) {
-    return this.move(entity, new Point2D.Double(x, y), delta);
+    final double dx = x - entity.getX();
+    final double dy = y - entity.getY();
+    final double length = Math.hypot(dx, dy);
+    return this.move(entity, entity.getX() + dx * delta / length, entity.getY() + dy * delta / length, null);
   }
 
   public boolean move(final IMobileEntity entity, final float delta) {
@@ -320,91 +497,53 @@ public final class PhysicsEngine implements IUpdateable {
   }
 
   public boolean move(final IMobileEntity entity, Point2D newLocation) {
-    if (entity.turnOnMove()) {
-      entity.setAngle((float) GeometricUtilities.calcRotationAngleInDegrees(entity.getLocation(), newLocation));
-    }
-
-    // don't set new location if it is outside the boundaries of the map
-    if (!this.isInMap(entity.getCollisionBox(newLocation))) {
-      newLocation = this.clamptoMap(entity, newLocation);
-    }
-
-    if (!entity.hasCollision()) {
-      entity.setLocation(newLocation);
-      return true;
-    }
-
-    // check if there is any collision to resolve on the new location
-    if (this.resolveCollisionForNewPosition(entity, newLocation)) {
-      return false;
-    }
-
-    // This method provides a simplified approach for a multi-sampling algorithm
-    // to prevent glitching through collision boxes that are smaller than the
-    // movement step size
-    if (this.resolveCollisionForRaycastToNewPosition(entity, newLocation)) {
-      return false;
-    }
-
-    // set new map location
-    entity.setLocation(newLocation);
-    return true;
+    return this.move(entity, newLocation.getX(), newLocation.getY(), null);
   }
 
   public boolean move(final IMobileEntity entity, final Point2D target, final float delta) {
-    final Point2D newPosition = GeometricUtilities.project(entity.getLocation(), target, delta);
-    return this.move(entity, newPosition);
-  }
-
-  public void update() {
-    this.updateAllCollisionBoxes();
+    return this.move(entity, target.getX(), target.getY(), delta);
   }
 
-  private List<CollisionBox> getAllCollisionBoxesInternal() {
-    if (this.allCollisionBoxes.isEmpty()) {
-      this.updateAllCollisionBoxes();
+  /**
+   * Moves the specified entity to the specified location and resolves any collision on the way.
+   * <br>
+   * The movement is resolved without allocating any objects, so this is the preferred overload for entities that are moved in every tick.
+   * 
+   * @param entity
+   *          The entity to move.
+   * @param x
+   *          The x-coordinate of the new location.
+   * @param y
+   *          The y-coordinate of the new location.
+   * @param result
+   *          A mutable point that receives the location of the entity after the movement has been resolved; or null if the location is not needed.
+   * @return True if the entity was moved to the new location; false if the physics engine detected a collision.
+   */
+  public boolean move(final IMobileEntity entity, final double x, final double y, final Point2D result) {
+    final boolean moved = this.moveEntity(entity, x, y);
+    if (result != null) {
+      result.setLocation(entity.getX(), entity.getY());
     }
 
-    return this.allCollisionBoxes;
+    return moved;
   }
 
-  private List<Rectangle2D> getAllCollisionBoxRectangles() {
-    if (this.allCollisionBoxRectangles.isEmpty()) {
-      this.updateAllCollisionBoxes();
-    }
-
-    return this.allCollisionBoxRectangles;
+  /**
+   * This method does nothing because all collision boxes are maintained incrementally when participants are added or removed and when entities are
+   * moved. The engine is still updateable to keep compatibility with code that attaches it to a loop.
+   */
+  @Override
+  public void update() {
+    // collision boxes are updated by the EntityTransformListener
   }
 
-  private List<Rectangle2D> getAllCollisionBoxRectangles(CollisionType collisionType) {
-    switch (collisionType) {
-    case ENTITY:
-      return this.entityCollisionBoxRectangles;
-    case STATIC:
-      return this.staticCollisionBoxes;
-    default:
-      return getAllCollisionBoxRectangles();
+  private void updateCollisionGrid(final IEntity entity) {
+    final CollisionBox collisionBox = this.entityCollisionBoxLookup.get(entity);
+    if (collisionBox != null) {
+      this.collisionGrid.update(collisionBox, collisionBox.getCollisionBox());
     }
   }
 
-  private void updateAllCollisionBoxes() {
-    this.allCollisionBoxes.clear();
-    this.entityCollisionBoxes.clear();
-    this.staticBoxes.clear();
-
-    this.entityCollisionBoxes.addAll(this.collisionEntities.stream().filter(ICollisionEntity::hasCollision).map(CollisionBox::new).collect(Collectors.toList()));
-    this.staticBoxes.addAll(this.staticCollisionBoxes.stream().map(CollisionBox::new).collect(Collectors.toList()));
-
-    this.allCollisionBoxes.addAll(entityCollisionBoxes);
-    this.allCollisionBoxes.addAll(this.staticBoxes);
-
-    this.allCollisionBoxRectangles.clear();
-    this.entityCollisionBoxRectangles.clear();
-    this.entityCollisionBoxRectangles.addAll(this.entityCollisionBoxes.stream().map(CollisionBox::getCollisionBox).collect(Collectors.toList()));
-
-    this.allCollisionBoxRectangles.addAll(this.allCollisionBoxes.stream().map(CollisionBox::getCollisionBox).collect(Collectors.toList()));
-  }
-
   /**
    * Collides with any entity.
    *
@@ -415,31 +554,12 @@ public final class PhysicsEngine implements IUpdateable {
    * @return true, if successful
    */
   private Rectangle2D collidesWithAnyEntity(final ICollisionEntity entity, final Rectangle2D collisionBox) {
-    for (final ICollisionEntity otherEntity : this.collisionEntities) {
-      if (otherEntity == null || !otherEntity.hasCollision() || entity != null && otherEntity.equals(entity) || entity != null && !entity.canCollideWith(otherEntity)) {
-        continue;
-      }
-
-      if (GeometricUtilities.intersects(otherEntity.getCollisionBox(), collisionBox)) {
-        return otherEntity.getCollisionBox().createIntersection(collisionBox);
-      }
-    }
-
-    return null;
-  }
-
-  private boolean collidesWithAnyEntity(final ICollisionEntity entity, final Point2D location) {
-    for (final ICollisionEntity otherEntity : this.collisionEntities) {
-      if (otherEntity == null || !otherEntity.hasCollision() || entity != null && otherEntity.equals(entity) || entity != null && !entity.canCollideWith(otherEntity)) {
-        continue;
-      }
-
-      if (otherEntity.getCollisionBox().contains(location)) {
-        return true;
-      }
+    final CollisionBox hit = this.collisionGrid.find(collisionBox, box -> box.getEntity() != null && box.canCollideWith(entity) && GeometricUtilities.intersects(box.getCollisionBox(), collisionBox));
+    if (hit == null) {
+      return null;
     }
 
-    return false;
+    return hit.getCollisionBox().createIntersection(collisionBox);
   }
 
   /**
@@ -452,172 +572,637 @@ public final class PhysicsEngine implements IUpdateable {
    * @return true, if successful
    */
   private Rectangle2D collidesWithAnyStaticCollisionBox(final Rectangle2D entityCollisionBox) {
-    for (final Rectangle2D collisionBox : this.staticCollisionBoxes) {
-      if (GeometricUtilities.intersects(collisionBox, entityCollisionBox)) {
-        return collisionBox.createIntersection(entityCollisionBox);
-      }
+    final CollisionBox hit = this.collisionGrid.find(entityCollisionBox, box -> box.getEntity() == null && GeometricUtilities.intersects(box.getCollisionBox(), entityCollisionBox));
+    if (hit == null) {
+      return null;
     }
 
-    return null;
+    return hit.getCollisionBox().createIntersection(entityCollisionBox);
   }
 
-  private boolean collidesWithAnyStaticCollisionBox(final Point2D location) {
-    for (final Rectangle2D collisionBox : this.staticCollisionBoxes) {
-      if (collisionBox.contains(location)) {
-        return true;
-      }
+  private CollisionBox find(final CollisionQuery query) {
+    return this.collisionGrid.find(query.getMinX(), query.getMinY(), query.getMaxX(), query.getMaxY(), query);
+  }
+
+  private boolean collides(final CollisionQuery query, final Rectangle2D intersection) {
+    final CollisionBox hit = this.find(query);
+    if (hit == null) {
+      return false;
+    }
+
+    if (intersection != null) {
+      query.intersect(hit.getCollisionBox(), intersection);
     }
 
-    return false;
+    return true;
   }
 
-  private Rectangle2D collidesWithAnything(final ICollisionEntity entity, final Rectangle2D entityCollisionBox) {
-    for (final CollisionBox collisionBox : this.allCollisionBoxes) {
+  private boolean moveEntity(final IMobileEntity entity, double x, double y) {
+    if (entity.turnOnMove()) {
+      entity.setAngle(GeometricUtilities.calcRotationAngleInDegrees(entity.getX(), entity.getY(), x, y));
+    }
+
+    final Rectangle2D collisionBox = entity.getCollisionBox();
+    final double offsetX = entity.getCollisionBoxAlign().getLocation(entity.getWidth(), collisionBox.getWidth());
+    final double offsetY = entity.getCollisionBoxValign().getLocation(entity.getHeight(), collisionBox.getHeight());
 
-      // an entity cannot collide with itself or other entities that are
-      // excluded from collision by the canCollideWith method
-      if (collisionBox.getEntity() != null && (collisionBox.getEntity().equals(entity) || !entity.canCollideWith(collisionBox.getEntity()))) {
-        continue;
-      }
+    // don't set new location if it is outside the boundaries of the map
+    if (!this.isInMap(x + offsetX, y + offsetY, collisionBox.getWidth(), collisionBox.getHeight())) {
+      x = this.clampToMapX(entity, x);
+      y = this.clampToMapY(entity, y);
+    }
+
+    if (!entity.hasCollision()) {
+      entity.setLocation(x, y);
+      return true;
+    }
+
+    final CollisionQuery query = QUERY.get();
+    if (entity.hasContinuousCollision()) {
+      return this.sweep(entity, x + offsetX, y + offsetY, offsetX, offsetY, query);
+    }
+
+    // check if there is any collision to resolve on the new location
+    final CollisionBox hit = this.find(query.rectangle(x + offsetX, y + offsetY, collisionBox.getWidth(), collisionBox.getHeight(), entity));
+    if (hit != null) {
+      wake(hit);
+      this.resolveCollision(entity, x, y, offsetX, offsetY, query);
+      return false;
+    }
+
+    // This method provides a simplified approach for a multi-sampling algorithm
+    // to prevent glitching through collision boxes that are smaller than the
+    // movement step size
+    final CollisionBox lineHit = this.find(query.line(collisionBox.getCenterX(), collisionBox.getCenterY(), x + offsetX + collisionBox.getWidth() / 2.0, y + offsetY + collisionBox.getHeight() / 2.0, entity));
+    if (lineHit != null) {
+      wake(lineHit);
+      return false;
+    }
+
+    // set new map location
+    entity.setLocation(x, y);
+    return true;
+  }
 
-      if (collisionBox.getCollisionBox().contains(entityCollisionBox)) {
-        return collisionBox.getCollisionBox();
+  /**
+   * Sweeps the collision box of the specified entity towards the specified target and stops it at the first collision box that it would hit on
+   * the way (time of impact). The remaining movement slides along the hit side of the collision box, so fast entities neither tunnel through
+   * thin collision boxes nor get stuck at them.
+   * 
+   * @return True if the entity reached the target without any contact; otherwise false.
+   */
+  private boolean sweep(final IMobileEntity entity, final double targetX, final double targetY, final double offsetX, final double offsetY, final CollisionQuery query) {
+    final Rectangle2D collisionBox = entity.getCollisionBox();
+    final double width = collisionBox.getWidth();
+    final double height = collisionBox.getHeight();
+
+    double x = collisionBox.getX();
+    double y = collisionBox.getY();
+    double dx = targetX - x;
+    double dy = targetY - y;
+    boolean blocked = false;
+    for (int i = 0; i < MAX_SWEEP_ITERATIONS && (dx != 0 || dy != 0); i++) {
+      this.find(query.sweep(x, y, width, height, dx, dy, entity));
+
+      final double timeOfImpact = query.getTimeOfImpact();
+      if (timeOfImpact > 1) {
+        x += dx;
+        y += dy;
+        dx = 0;
+        dy = 0;
+        break;
       }
 
-      if (GeometricUtilities.intersects(collisionBox.getCollisionBox(), entityCollisionBox)) {
-        return collisionBox.getCollisionBox().createIntersection(entityCollisionBox);
+      blocked = true;
+      wake(query.getImpact());
+      if (query.isHorizontalContact()) {
+        // move to the contact point and slide vertically with the remaining movement
+        x = query.getContact();
+        y += dy * timeOfImpact;
+        dx = 0;
+        dy *= 1 - timeOfImpact;
+      } else {
+        // move to the contact point and slide horizontally with the remaining movement
+        y = query.getContact();
+        x += dx * timeOfImpact;
+        dy = 0;
+        dx *= 1 - timeOfImpact;
       }
     }
 
-    return null;
+    entity.setLocation(x - offsetX, y - offsetY);
+    return !blocked;
+  }
+
+  /**
+   * Wakes the movement controller of the entity that owns the specified collision box, because another entity moved into it.
+   */
+  private static void wake(final CollisionBox collisionBox) {
+    if (collisionBox.getEntity() instanceof IMobileEntity) {
+      final IMovementController movementController = ((IMobileEntity) collisionBox.getEntity()).getMovementController();
+      if (movementController != null) {
+        movementController.wake();
+      }
+    }
   }
 
   /**
    * Checks if is in map.
    *
-   * @param collisionBox
-   *          the collision box
    * @return true, if is in map
    */
-  private boolean isInMap(final Shape collisionBox) {
+  private boolean isInMap(final double x, final double y, final double width, final double height) {
     if (this.environmentBounds == null) {
       return true;
     }
 
-    return this.environmentBounds.contains(collisionBox.getBounds());
+    // the integer bounds of the collision box must be within the environment
+    final double minX = Math.floor(x);
+    final double minY = Math.floor(y);
+    return this.environmentBounds.contains(minX, minY, Math.ceil(x + width) - minX, Math.ceil(y + height) - minY);
   }
 
   /**
    * With the current physics implementation is is possible to glitch through
    * other entities, if their collisionbox is smaller than the velocity of the
    * moving entity and they also move towards the currently moving entity.
-   *
-   * @param entity
-   * @param targetPosition
-   * @return
    */
-  private Point2D resolveCollision(final IMobileEntity entity, final Point2D targetPosition) {
-    // first resolve x-axis movement
-    Point2D resolvedPosition = new Point2D.Double(targetPosition.getX(), entity.getY());
+  private void resolveCollision(final IMobileEntity entity, final double targetX, final double targetY, final double offsetX, final double offsetY, final CollisionQuery query) {
+    final Rectangle2D collisionBox = entity.getCollisionBox();
+    final double width = collisionBox.getWidth();
+    final double height = collisionBox.getHeight();
+    final Rectangle2D intersection = query.getIntersection();
 
-    final Rectangle2D targetCollisionBoxX = entity.getCollisionBox(resolvedPosition);
-    final Rectangle2D intersectionX = this.collidesWithAnything(entity, targetCollisionBoxX);
-    if (intersectionX != null) {
-      if (entity.getCollisionBox().getX() < targetCollisionBoxX.getX()) {
+    // first resolve x-axis movement
+    double resolvedX = targetX;
+    if (this.collides(query.rectangle(resolvedX + offsetX, entity.getY() + offsetY, width, height, entity), intersection)) {
+      if (collisionBox.getX() < resolvedX + offsetX) {
         // entity was moved left -> right, so push out to the left
-        resolvedPosition.setLocation(Math.max(entity.getX(), resolvedPosition.getX() - intersectionX.getWidth()), resolvedPosition.getY());
+        resolvedX = Math.max(entity.getX(), resolvedX - intersection.getWidth());
       } else {
         // push it out to the right
-        resolvedPosition.setLocation(Math.min(entity.getX(), resolvedPosition.getX() + intersectionX.getWidth()), resolvedPosition.getY());
+        resolvedX = Math.min(entity.getX(), resolvedX + intersection.getWidth());
       }
     }
 
     // then resolve y-axis movement
-    resolvedPosition.setLocation(resolvedPosition.getX(), targetPosition.getY());
-
-    final Rectangle2D targetCollisionBoxY = entity.getCollisionBox(resolvedPosition);
-    final Rectangle2D intersectionY = this.collidesWithAnything(entity, targetCollisionBoxY);
-    if (intersectionY != null) {
-      if (entity.getCollisionBox().getY() < targetCollisionBoxY.getY()) {
+    double resolvedY = targetY;
+    if (this.collides(query.rectangle(resolvedX + offsetX, resolvedY + offsetY, width, height, entity), intersection)) {
+      if (collisionBox.getY() < resolvedY + offsetY) {
         // entity was moved top -> bottom so push out towards the top
-        resolvedPosition.setLocation(resolvedPosition.getX(), Math.max(entity.getY(), resolvedPosition.getY() - intersectionY.getHeight()));
+        resolvedY = Math.max(entity.getY(), resolvedY - intersection.getHeight());
       } else {
-        resolvedPosition.setLocation(resolvedPosition.getX(), Math.min(entity.getY(), resolvedPosition.getY() + intersectionY.getHeight()));
+        resolvedY = Math.min(entity.getY(), resolvedY + intersection.getHeight());
       }
     }
 
-    return resolvedPosition;
+    entity.setLocation(resolvedX, resolvedY);
   }
 
-  private Point2D clamptoMap(IMobileEntity entity, Point2D newLocation) {
+  private double clampToMapX(IMobileEntity entity, double x) {
     double collisionLocationX = entity.getCollisionBoxAlign().getLocation(entity.getWidth(), entity.getCollisionBoxWidth());
     double leftBoundX = this.getBounds().getMinX() - collisionLocationX;
     double deltaX = entity.getWidth() - entity.getCollisionBoxWidth() - collisionLocationX;
     double rightBoundX = this.getBounds().getMaxX() - entity.getWidth() + deltaX;
 
+    // right and left border minus the collision box width
+    return MathUtilities.clamp(x, leftBoundX, rightBoundX);
+  }
+
+  private double clampToMapY(IMobileEntity entity, double y) {
     double collisionLocationY = entity.getCollisionBoxValign().getLocation(entity.getHeight(), entity.getCollisionBoxHeight());
     double topBoundY = this.getBounds().getMinY() - collisionLocationY;
     double deltaY = entity.getHeight() - entity.getCollisionBoxHeight() - collisionLocationY;
     double buttomBoundY = this.getBounds().getMaxY() - entity.getHeight() + deltaY;
 
-    // right and left border minus the collision box width
-    double x = MathUtilities.clamp(newLocation.getX(), leftBoundX, rightBoundX);
     // bottom and top border minus the collision box height
-    double y = MathUtilities.clamp(newLocation.getY(), topBoundY, buttomBoundY);
-    return new Point2D.Double(x, y);
+    return MathUtilities.clamp(y, topBoundY, buttomBoundY);
   }
 
-  private boolean resolveCollisionForNewPosition(IMobileEntity entity, Point2D location) {
-    // resolve collision for new location
-    if (this.collidesWithAnything(entity, entity.getCollisionBox(location)) != null) {
-      final Point2D resolvedPosition = this.resolveCollision(entity, location);
-      entity.setLocation(resolvedPosition);
-      return true;
+  private RaycastHit raycast(final Line2D ray, final Predicate<CollisionBox> condition) {
+    final double x1 = ray.getX1();
+    final double y1 = ray.getY1();
+    final double dx = ray.getX2() - x1;
+    final double dy = ray.getY2() - y1;
+
+    final CollisionBox hit = this.collisionGrid.raycast(x1, y1, ray.getX2(), ray.getY2(), box -> condition.test(box) ? intersect(x1, y1, dx, dy, box.getCollisionBox()) : Double.NaN);
+    if (hit == null) {
+      return null;
+    }
+
+    final Rectangle2D hitBox = hit.getCollisionBox();
+    final double t = intersect(x1, y1, dx, dy, hitBox);
+    if (Double.isNaN(t)) {
+      // the entity was moved by another thread after it has been hit
+      return null;
     }
 
-    return false;
+    final double length = Math.sqrt(dx * dx + dy * dy);
+    return new RaycastHit(new Point2D.Double(x1 + t * dx, y1 + t * dy), getNormal(x1, y1, dx, dy, length, hitBox), t * length, hit.getEntity(), hitBox);
   }
 
-  private boolean resolveCollisionForRaycastToNewPosition(IMobileEntity entity, Point2D newPosition) {
-    // special case to prevent entities to glitch through collision boxes if
-    // they have a large enough step size
-    final Line2D line = new Line2D.Double(entity.getCollisionBox().getCenterX(), entity.getCollisionBox().getCenterY(), entity.getCollisionBox(newPosition).getCenterX(), entity.getCollisionBox(newPosition).getCenterY());
-    for (final CollisionBox collisionBox : this.getAllCollisionBoxesInternal()) {
-      if (collisionBox.getEntity() != null && (collisionBox.getEntity().equals(entity) || !entity.canCollideWith(collisionBox.getEntity()))) {
-        continue;
-      }
+  /**
+   * Calculates where the specified ray enters the specified rectangle by clipping it against both pairs of opposite sides (slab test).
+   * Rays that only touch the outline of the rectangle don't intersect it.
+   * 
+   * @return The position of the entry along the ray, ranging from 0 (start) to 1 (end); or <code>Double.NaN</code> if the ray doesn't intersect the
+   *         rectangle.
+   */
+  private static double intersect(final double x1, final double y1, final double dx, final double dy, final Rectangle2D box) {
+    double enter = 0;
+    double exit = 1;
+    if (dx != 0) {
+      final double t1 = (box.getMinX() - x1) / dx;
+      final double t2 = (box.getMaxX() - x1) / dx;
+      enter = Math.max(enter, Math.min(t1, t2));
+      exit = Math.min(exit, Math.max(t1, t2));
+    } else if (x1 <= box.getMinX() || x1 >= box.getMaxX()) {
+      return Double.NaN;
+    }
 
-      // there was a collision in between
-      final Point2D intersection = GeometricUtilities.getIntersectionPoint(line, collisionBox.getCollisionBox());
-      if (intersection != null) {
-        return true;
-      }
+    if (dy != 0) {
+      final double t1 = (box.getMinY() - y1) / dy;
+      final double t2 = (box.getMaxY() - y1) / dy;
+      enter = Math.max(enter, Math.min(t1, t2));
+      exit = Math.min(exit, Math.max(t1, t2));
+    } else if (y1 <= box.getMinY() || y1 >= box.getMaxY()) {
+      return Double.NaN;
+    }
+
+    return enter < exit ? enter : Double.NaN;
+  }
+
+  private static Vector2D getNormal(final double x1, final double y1, final double dx, final double dy, final double length, final Rectangle2D box) {
+    final double enterX = dx != 0 ? Math.min((box.getMinX() - x1) / dx, (box.getMaxX() - x1) / dx) : Double.NEGATIVE_INFINITY;
+    final double enterY = dy != 0 ? Math.min((box.getMinY() - y1) / dy, (box.getMaxY() - y1) / dy) : Double.NEGATIVE_INFINITY;
+    if (enterX < 0 && enterY < 0) {
+      // the ray starts within the box
+      return length != 0 ? new Vector2D(-dx / length, -dy / length) : new Vector2D();
     }
 
-    return false;
+    return enterX >= enterY ? new Vector2D(-Math.signum(dx), 0) : new Vector2D(0, -Math.signum(dy));
   }
 
-  private class CollisionBox {
+  private static class CollisionBox {
     private final Rectangle2D box;
 
     private final ICollisionEntity entity;
 
-    private CollisionBox(Rectangle2D box) {
+    private final int collisionLayer;
+
+    private final int collisionMask;
+
+    private CollisionBox(Rectangle2D box, int collisionLayer, int collisionMask) {
       this.box = box;
       this.entity = null;
+      this.collisionLayer = collisionLayer;
+      this.collisionMask = collisionMask;
     }
 
     private CollisionBox(ICollisionEntity entity) {
-      this.box = entity.getCollisionBox();
+      this.box = null;
       this.entity = entity;
+      this.collisionLayer = 0;
+      this.collisionMask = 0;
     }
 
     public Rectangle2D getCollisionBox() {
-      return this.box;
+      return this.entity != null ? this.entity.getCollisionBox() : this.box;
     }
 
     public ICollisionEntity getEntity() {
       return this.entity;
     }
+
+    public boolean hasCollision() {
+      return this.entity == null || this.entity.hasCollision();
+    }
+
+    public boolean isOfType(CollisionType collisionType) {
+      switch (collisionType) {
+      case ALL:
+        return this.hasCollision();
+      case ENTITY:
+        return this.entity != null && this.entity.hasCollision();
+      case STATIC:
+        return this.entity == null;
+      default:
+        return false;
+      }
+    }
+
+    public int getCollisionLayer() {
+      return this.entity != null ? this.entity.getCollisionLayer() : this.collisionLayer;
+    }
+
+    public int getCollisionMask() {
+      return this.entity != null ? this.entity.getCollisionMask() : this.collisionMask;
+    }
+
+    /**
+     * Determines whether the specified entity can collide with this collision box.
+     * An entity cannot collide with itself or other entities that are excluded from collision by the <code>canCollideWith</code> method.
+     * 
+     * @param otherEntity
+     *          The entity to check; or null if any collision box with an enabled collision should be considered.
+     * @return True if the specified entity can collide with this collision box; otherwise false.
+     */
+    public boolean canCollideWith(ICollisionEntity otherEntity) {
+      if (otherEntity == null) {
+        return this.hasCollision();
+      }
+
+      return this.canCollideWith(otherEntity, otherEntity.getCollisionLayer(), otherEntity.getCollisionMask());
+    }
+
+    /**
+     * Determines whether the specified entity with the specified collision layers can collide with this collision box.
+     * The collision layers are compared before any other check, so that entities on unrelated layers are rejected by a single bitwise operation.
+     * 
+     * @param otherEntity
+     *          The entity to check.
+     * @param otherLayer
+     *          The collision layer bits of the entity.
+     * @param otherMask
+     *          The collision mask of the entity.
+     * @return True if the specified entity can collide with this collision box; otherwise false.
+     */
+    public boolean canCollideWith(ICollisionEntity otherEntity, int otherLayer, int otherMask) {
+      if ((otherMask & this.getCollisionLayer()) == 0 || (otherLayer & this.getCollisionMask()) == 0 || !this.hasCollision()) {
+        return false;
+      }
+
+      return this.entity == null || !this.entity.equals(otherEntity) && otherEntity.canCollideWith(this.entity);
+    }
+  }
+
+  /**
+   * A reusable condition for the collision queries that are performed by the <code>PhysicsEngine</code>. The query can either check a point, a
+   * rectangle or a line against the collision boxes or sweep a rectangle along a movement to determine the earliest time of impact.
+   */
+  private static final class CollisionQuery implements Predicate<CollisionBox> {
+    private static final double CONTACT_TOLERANCE = 1e-6;
+
+    private final Rectangle2D intersection = new Rectangle2D.Double();
+    private QueryType type;
+    private ICollisionEntity entity;
+    private int collisionLayer;
+    private int collisionMask;
+    private CollisionType collisionType;
+    private double x1;
+    private double y1;
+    private double x2;
+    private double y2;
+    private double dx;
+    private double dy;
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private double timeOfImpact;
+    private CollisionBox impact;
+    private double contact;
+    private boolean horizontalContact;
+
+    private CollisionQuery point(final double x, final double y, final ICollisionEntity entity, final CollisionType collisionType) {
+      return this.set(QueryType.POINT, x, y, x, y, entity, collisionType);
+    }
+
+    private CollisionQuery rectangle(final double x, final double y, final double width, final double height, final ICollisionEntity entity) {
+      return this.set(QueryType.RECTANGLE, x, y, x + width, y + height, entity, null);
+    }
+
+    private CollisionQuery line(final double x1, final double y1, final double x2, final double y2, final ICollisionEntity entity) {
+      return this.set(QueryType.LINE, x1, y1, x2, y2, entity, null);
+    }
+
+    private CollisionQuery sweep(final double x, final double y, final double width, final double height, final double dx, final double dy, final ICollisionEntity entity) {
+      this.set(QueryType.SWEEP, x, y, x + width, y + height, entity, null);
+      this.dx = dx;
+      this.dy = dy;
+      this.minX = Math.min(this.x1, this.x1 + dx);
+      this.minY = Math.min(this.y1, this.y1 + dy);
+      this.maxX = Math.max(this.x2, this.x2 + dx);
+      this.maxY = Math.max(this.y2, this.y2 + dy);
+      this.timeOfImpact = Double.POSITIVE_INFINITY;
+      this.impact = null;
+      return this;
+    }
+
+    private double getMinX() {
+      return this.minX;
+    }
+
+    private double getMinY() {
+      return this.minY;
+    }
+
+    private double getMaxX() {
+      return this.maxX;
+    }
+
+    private double getMaxY() {
+      return this.maxY;
+    }
+
+    /**
+     * Gets the time of impact of the last sweep, ranging from 0 (start) to 1 (end of the movement).
+     * 
+     * @return The time of impact; or a value greater than 1 if the swept rectangle doesn't hit anything.
+     */
+    private double getTimeOfImpact() {
+      return this.timeOfImpact;
+    }
+
+    /**
+     * Gets the coordinate of the swept rectangle on the blocked axis at the time of impact.
+     * 
+     * @return The x-coordinate for horizontal contacts; otherwise the y-coordinate.
+     */
+    private double getContact() {
+      return this.contact;
+    }
+
+    private boolean isHorizontalContact() {
+      return this.horizontalContact;
+    }
+
+    private CollisionBox getImpact() {
+      return this.impact;
+    }
+
+    private Rectangle2D getIntersection() {
+      return this.intersection;
+    }
+
+    @Override
+    public boolean test(final CollisionBox box) {
+      // an entity cannot collide with itself or other entities that are
+      // excluded from collision by the canCollideWith method
+      if (this.collisionType != null ? !box.isOfType(this.collisionType) : !this.canCollideWith(box)) {
+        return false;
+      }
+
+      final Rectangle2D collisionBox = box.getCollisionBox();
+      switch (this.type) {
+      case POINT:
+        return collisionBox.contains(this.x1, this.y1);
+      case RECTANGLE:
+        return collisionBox.contains(this.x1, this.y1, this.x2 - this.x1, this.y2 - this.y1) || this.intersects(collisionBox);
+      case LINE:
+        return crossesOutline(this.x1, this.y1, this.x2, this.y2, collisionBox);
+      case SWEEP:
+        // all candidates need to be considered to find the earliest impact
+        this.sweep(box, collisionBox);
+        return false;
+      default:
+        return false;
+      }
+    }
+
+    /**
+     * Writes the intersection of the queried rectangle and the specified collision box to the specified result. If the collision box contains the
+     * queried rectangle, the whole collision box is written.
+     */
+    private void intersect(final Rectangle2D collisionBox, final Rectangle2D result) {
+      final double width = this.x2 - this.x1;
+      final double height = this.y2 - this.y1;
+      if (collisionBox.contains(this.x1, this.y1, width, height)) {
+        result.setRect(collisionBox);
+        return;
+      }
+
+      final double minX = Math.max(collisionBox.getMinX(), this.x1);
+      final double minY = Math.max(collisionBox.getMinY(), this.y1);
+      final double maxX = Math.min(collisionBox.getMaxX(), this.x2);
+      final double maxY = Math.min(collisionBox.getMaxY(), this.y2);
+      result.setRect(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Same as {@link GeometricUtilities#intersects(Rectangle2D, Rectangle2D)} with the queried rectangle as second argument.
+     */
+    private boolean intersects(final Rectangle2D collisionBox) {
+      final double width = this.x2 - this.x1;
+      final double height = this.y2 - this.y1;
+      return Math.abs(collisionBox.getCenterX() - (this.x1 + width / 2.0)) < collisionBox.getWidth() * 0.5 + width * 0.5
+          && Math.abs(collisionBox.getCenterY() - (this.y1 + height / 2.0)) < collisionBox.getHeight() * 0.5 + height * 0.5;
+    }
+
+    /**
+     * Determines when the swept rectangle hits the specified collision box by intersecting the intervals in which the rectangle overlaps the
+     * collision box on each axis. Collision boxes that already overlap the rectangle at the start of the movement are ignored so that entities
+     * can always move out of them.
+     */
+    private void sweep(final CollisionBox box, final Rectangle2D collisionBox) {
+      final double width = this.x2 - this.x1;
+      final double height = this.y2 - this.y1;
+
+      final double enterX = enter(this.x1, width, this.dx, collisionBox.getX(), collisionBox.getWidth());
+      final double exitX = exit(this.x1, width, this.dx, collisionBox.getX(), collisionBox.getWidth());
+      final double enterY = enter(this.y1, height, this.dy, collisionBox.getY(), collisionBox.getHeight());
+      final double exitY = exit(this.y1, height, this.dy, collisionBox.getY(), collisionBox.getHeight());
+
+      final double enter = Math.max(enterX, enterY);
+      if (Double.isNaN(enter) || enter == Double.NEGATIVE_INFINITY || enter >= Math.min(exitX, exitY) || enter > 1 || enter >= this.timeOfImpact) {
+        return;
+      }
+
+      this.timeOfImpact = enter;
+      this.impact = box;
+      this.horizontalContact = enterX >= enterY;
+      if (this.horizontalContact) {
+        this.contact = this.dx > 0 ? collisionBox.getX() - width : collisionBox.getMaxX();
+      } else {
+        this.contact = this.dy > 0 ? collisionBox.getY() - height : collisionBox.getMaxY();
+      }
+    }
+
+    private CollisionQuery set(final QueryType type, final double x1, final double y1, final double x2, final double y2, final ICollisionEntity entity, final CollisionType collisionType) {
+      this.type = type;
+      this.x1 = x1;
+      this.y1 = y1;
+      this.x2 = x2;
+      this.y2 = y2;
+      this.minX = Math.min(x1, x2);
+      this.minY = Math.min(y1, y2);
+      this.maxX = Math.max(x1, x2);
+      this.maxY = Math.max(y1, y2);
+      this.entity = entity;
+      this.collisionType = collisionType;
+      if (entity != null) {
+        // the layers of the queried entity are the same for all candidates
+        this.collisionLayer = entity.getCollisionLayer();
+        this.collisionMask = entity.getCollisionMask();
+      }
+
+      return this;
+    }
+
+    private boolean canCollideWith(final CollisionBox box) {
+      return this.entity != null ? box.canCollideWith(this.entity, this.collisionLayer, this.collisionMask) : box.hasCollision();
+    }
+
+    /**
+     * Gets the time at which a moving interval starts to overlap a static interval on one axis.
+     * 
+     * @return The time of entry; negative infinity if the intervals already overlap and will keep doing so; or NaN if they never overlap.
+     */
+    private static double enter(final double location, final double size, final double delta, final double otherLocation, final double otherSize) {
+      if (delta == 0) {
+        return location + size - CONTACT_TOLERANCE > otherLocation && location + CONTACT_TOLERANCE < otherLocation + otherSize ? Double.NEGATIVE_INFINITY : Double.NaN;
+      }
+
+      final double gap = delta > 0 ? otherLocation - (location + size) : location - (otherLocation + otherSize);
+
+      // touching intervals are considered to be separated so that the movement can slide along them
+      return gap >= -CONTACT_TOLERANCE ? Math.max(gap, 0) / Math.abs(delta) : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the time at which a moving interval stops to overlap a static interval on one axis.
+     * 
+     * @return The time of exit; or positive infinity if the interval doesn't move on this axis.
+     */
+    private static double exit(final double location, final double size, final double delta, final double otherLocation, final double otherSize) {
+      if (delta == 0) {
+        return Double.POSITIVE_INFINITY;
+      }
+
+      final double gap = delta > 0 ? otherLocation - (location + size) : location - (otherLocation + otherSize);
+      return (gap + size + otherSize) / Math.abs(delta);
+    }
+
+    /**
+     * Checks whether the specified line crosses the outline of the specified rectangle apart from the start of the line. This is equivalent to
+     * <code>GeometricUtilities.getIntersectionPoint(line, rectangle) != null</code>.
+     */
+    private static boolean crossesOutline(final double x1, final double y1, final double x2, final double y2, final Rectangle2D rectangle) {
+      final double minX = rectangle.getMinX();
+      final double minY = rectangle.getMinY();
+      final double maxX = rectangle.getMaxX();
+      final double maxY = rectangle.getMaxY();
+      return crosses(x1, y1, x2, y2, minX, minY, minX, maxY, rectangle) || crosses(x1, y1, x2, y2, minX, maxY, maxX, maxY, rectangle) || crosses(x1, y1, x2, y2, maxX, maxY, maxX, minY, rectangle)
+          || crosses(x1, y1, x2, y2, maxX, minY, minX, minY, rectangle);
+    }
+
+    private static boolean crosses(final double x1, final double y1, final double x2, final double y2, final double x3, final double y3, final double x4, final double y4, final Rectangle2D rectangle) {
+      final double d = (x1 - x2) * (y3 - y4) - (y1 - y2) * (x3 - x4);
+      if (d == 0) {
+        return false;
+      }
+
+      final double xi = ((x3 - x4) * (x1 * y2 - y1 * x2) - (x1 - x2) * (x3 * y4 - y3 * x4)) / d;
+      final double yi = ((y3 - y4) * (x1 * y2 - y1 * x2) - (y1 - y2) * (x3 * y4 - y3 * x4)) / d;
+      if (xi < Math.min(x1, x2) || xi > Math.max(x1, x2) || yi < Math.min(y1, y2) || yi > Math.max(y1, y2) || xi == x1 && yi == y1) {
+        return false;
+      }
+
+      return rectangle.getX() <= xi && rectangle.getY() <= yi && rectangle.getX() + rectangle.getWidth() >= xi && rectangle.getY() + rectangle.getHeight() >= yi;
+    }
+  }
+
+  private enum QueryType {
+    POINT, RECTANGLE, LINE, SWEEP;
   }
-}
\ No newline at end of file
+}
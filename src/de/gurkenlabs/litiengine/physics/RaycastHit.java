@@ -0,0 +1,84 @@
+package de.gurkenlabs.litiengine.physics;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import de.gurkenlabs.litiengine.entities.ICollisionEntity;
+import de.gurkenlabs.litiengine.util.geom.Vector2D;
+
+/**
+ * Describes the nearest collision box that was hit by a raycast of the <code>PhysicsEngine</code>.
+ *
+ * @see PhysicsEngine#raycast(java.awt.geom.Line2D, CollisionType)
+ */
+public class RaycastHit {
+  private final Point2D point;
+  private final Vector2D normal;
+  private final double distance;
+  private final ICollisionEntity entity;
+  private final Rectangle2D collisionBox;
+
+  public RaycastHit(final Point2D point, final Vector2D normal, final double distance, final ICollisionEntity entity, final Rectangle2D collisionBox) {
+    this.point = point;
+    this.normal = normal;
+    this.distance = distance;
+    this.entity = entity;
+    this.collisionBox = collisionBox;
+  }
+
+  /**
+   * Gets the point at which the ray enters the hit collision box.
+   * If the ray starts within the collision box, this is the origin of the ray.
+   *
+   * @return The point of the hit.
+   */
+  public Point2D getPoint() {
+    return this.point;
+  }
+
+  /**
+   * Gets the unit normal of the side of the collision box that was hit by the ray.
+   * If the ray starts within the collision box, the normal points against the direction of the ray.
+   *
+   * @return The normal of the hit surface.
+   */
+  public Vector2D getNormal() {
+    return this.normal;
+  }
+
+  /**
+   * Gets the distance between the origin of the ray and the point of the hit.
+   *
+   * @return The distance of the hit.
+   */
+  public double getDistance() {
+    return this.distance;
+  }
+
+  /**
+   * Gets the entity whose collision box was hit.
+   *
+   * @return The hit entity; or null if a static collision box was hit.
+   */
+  public ICollisionEntity getEntity() {
+    return this.entity;
+  }
+
+  /**
+   * Gets the collision box that was hit. For entities, this is their collision box at the time of the raycast.
+   *
+   * @return The hit collision box.
+   */
+  public Rectangle2D getCollisionBox() {
+    return this.collisionBox;
+  }
+
+  public boolean isStatic() {
+    return this.entity == null;
+  }
+
+  @Override
+  public String toString() {
+    return "RaycastHit(" + this.point.getX() + ", " + this.point.getY() + ", distance: " + this.distance + ", " + (this.entity != null ? this.entity : "static") + ")";
+  }
+}
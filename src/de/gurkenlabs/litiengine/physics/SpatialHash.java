@@ -0,0 +1,673 @@
+package de.gurkenlabs.litiengine.physics;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A uniform spatial hash that buckets arbitrary items by the grid cells that their bounds overlap.
+ * <br>
+ * The grid is unbounded: the cell coordinates are hashed into a fixed number of buckets, so items that are far apart can share a bucket.
+ * This is why all queries only provide <i>candidates</i> that have to be checked against the actual geometry by the caller.
+ *
+ * <p>
+ * Items whose bounds span a lot of cells (or that don't provide any bounds at all) are not hashed but kept in a separate list that is considered
+ * by every query.
+ * </p>
+ * <p>
+ * Queries don't modify the spatial hash, so they can be executed concurrently from multiple threads. Adding, updating or removing items blocks
+ * all queries until the modification is finished.
+ * </p>
+ * <p>
+ * <i>The conditions and functions that are passed to a query are called while the spatial hash is locked for reading. They must not add, update
+ * or remove items of the same spatial hash (not even indirectly, e.g. by moving an entity) because the lock can't be upgraded and the thread
+ * would wait forever.</i>
+ * </p>
+ *
+ * @param <T>
+ *          The type of the items held by this spatial hash.
+ */
+public final class SpatialHash<T> {
+  public static final double DEFAULT_CELL_SIZE = 32;
+
+  private static final int DEFAULT_BUCKET_COUNT = 1024;
+  private static final int MAX_CELLS_PER_ITEM = 256;
+
+  private final Map<T, Entry<T>> entries;
+  private final List<Entry<T>> unhashedEntries;
+  private final Lock readLock;
+  private final Lock writeLock;
+
+  private List<Entry<T>>[] buckets;
+  private double cellSize;
+
+  /**
+   * Instantiates a new <code>SpatialHash</code> instance with the {@link #DEFAULT_CELL_SIZE}.
+   */
+  public SpatialHash() {
+    this(DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * Instantiates a new <code>SpatialHash</code> instance.
+   *
+   * @param cellSize
+   *          The width and height of a single grid cell.
+   */
+  public SpatialHash(final double cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("The cell size of a spatial hash must be greater than 0.");
+    }
+
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    this.readLock = lock.readLock();
+    this.writeLock = lock.writeLock();
+    this.entries = new HashMap<>();
+    this.unhashedEntries = new ArrayList<>();
+    this.cellSize = cellSize;
+    this.buckets = createBuckets(DEFAULT_BUCKET_COUNT);
+  }
+
+  public double getCellSize() {
+    this.readLock.lock();
+    try {
+      return this.cellSize;
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  /**
+   * Sets the size of the grid cells and re-buckets all items that are currently held by this instance.
+   *
+   * @param cellSize
+   *          The new width and height of a single grid cell.
+   */
+  public void setCellSize(final double cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("The cell size of a spatial hash must be greater than 0.");
+    }
+
+    this.writeLock.lock();
+    try {
+      if (cellSize == this.cellSize) {
+        return;
+      }
+
+      this.cellSize = cellSize;
+      this.rehash(this.buckets.length);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  /**
+   * Adds the specified item with the specified bounds to this instance. If the item has already been added, its bounds are updated instead.
+   *
+   * @param item
+   *          The item to add.
+   * @param bounds
+   *          The bounds of the item; or null if the item should be considered by every query.
+   */
+  public void add(final T item, final Rectangle2D bounds) {
+    if (item == null) {
+      return;
+    }
+
+    this.writeLock.lock();
+    try {
+      Entry<T> entry = this.entries.get(item);
+      if (entry != null) {
+        this.update(entry, bounds);
+        return;
+      }
+
+      if (this.entries.size() >= this.buckets.length) {
+        this.rehash(this.buckets.length * 2);
+      }
+
+      entry = new Entry<>(item);
+      this.entries.put(item, entry);
+      this.setCells(entry, bounds);
+      this.insert(entry);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  /**
+   * Updates the bounds of the specified item. This only touches the buckets of the item if it moved to other grid cells.
+   *
+   * @param item
+   *          The item to update.
+   * @param bounds
+   *          The new bounds of the item.
+   * @return True if the item was moved to other grid cells; otherwise false.
+   */
+  public boolean update(final T item, final Rectangle2D bounds) {
+    this.writeLock.lock();
+    try {
+      final Entry<T> entry = this.entries.get(item);
+      if (entry == null) {
+        return false;
+      }
+
+      return this.update(entry, bounds);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  public boolean remove(final T item) {
+    this.writeLock.lock();
+    try {
+      final Entry<T> entry = this.entries.remove(item);
+      if (entry == null) {
+        return false;
+      }
+
+      this.withdraw(entry);
+      return true;
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  public void clear() {
+    this.writeLock.lock();
+    try {
+      this.entries.clear();
+      this.unhashedEntries.clear();
+      this.buckets = createBuckets(DEFAULT_BUCKET_COUNT);
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  public boolean contains(final T item) {
+    this.readLock.lock();
+    try {
+      return this.entries.containsKey(item);
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  public int size() {
+    this.readLock.lock();
+    try {
+      return this.entries.size();
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  /**
+   * Finds the first item of all candidates in the cells that are overlapped by the specified area which satisfies the specified condition.
+   *
+   * @param area
+   *          The area to search.
+   * @param condition
+   *          The condition that the item must satisfy.
+   * @return The first candidate that satisfies the condition; or null if there is no such item.
+   */
+  public T find(final Rectangle2D area, final Predicate<? super T> condition) {
+    return this.find(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), condition);
+  }
+
+  /**
+   * Finds the first item of all candidates in the cell that contains the specified location which satisfies the specified condition.
+   *
+   * @param x
+   *          The x-coordinate of the location.
+   * @param y
+   *          The y-coordinate of the location.
+   * @param condition
+   *          The condition that the item must satisfy.
+   * @return The first candidate that satisfies the condition; or null if there is no such item.
+   */
+  public T find(final double x, final double y, final Predicate<? super T> condition) {
+    return this.find(x, y, x, y, condition);
+  }
+
+  /**
+   * Finds the first item of all candidates in the cells that are overlapped by the specified bounds which satisfies the specified condition.
+   * Every candidate is tested at most once per query.
+   * <br>
+   * The condition is tested while this instance is locked, so it must not add, update or remove any items of this instance.
+   *
+   * @param minX
+   *          The minimum x-coordinate of the area to search.
+   * @param minY
+   *          The minimum y-coordinate of the area to search.
+   * @param maxX
+   *          The maximum x-coordinate of the area to search.
+   * @param maxY
+   *          The maximum y-coordinate of the area to search.
+   * @param condition
+   *          The condition that the item must satisfy.
+   * @return The first candidate that satisfies the condition; or null if there is no such item.
+   */
+  public T find(final double minX, final double minY, final double maxX, final double maxY, final Predicate<? super T> condition) {
+    this.readLock.lock();
+    try {
+      for (int i = 0; i < this.unhashedEntries.size(); i++) {
+        final T item = this.unhashedEntries.get(i).item;
+        if (condition.test(item)) {
+          return item;
+        }
+      }
+
+      final int minCellX = this.cell(minX);
+      final int minCellY = this.cell(minY);
+      final int maxCellX = this.cell(maxX);
+      final int maxCellY = this.cell(maxY);
+
+      // for very large areas it's cheaper to test every item than to visit all the cells
+      if (cellCount(minCellX, minCellY, maxCellX, maxCellY) > this.buckets.length) {
+        for (final Entry<T> entry : this.entries.values()) {
+          if (entry.hashed && condition.test(entry.item)) {
+            return entry.item;
+          }
+        }
+
+        return null;
+      }
+
+      for (long cellX = minCellX; cellX <= maxCellX; cellX++) {
+        for (long cellY = minCellY; cellY <= maxCellY; cellY++) {
+          final List<Entry<T>> bucket = this.buckets[this.bucket((int) cellX, (int) cellY)];
+          for (int i = 0; i < bucket.size(); i++) {
+            final Entry<T> entry = bucket.get(i);
+
+            // only test an item in the first queried cell that it overlaps, so it's not tested multiple times
+            if (entry.covers(cellX, cellY) && cellX == Math.max(entry.minCellX, minCellX) && cellY == Math.max(entry.minCellY, minCellY) && condition.test(entry.item)) {
+              return entry.item;
+            }
+          }
+        }
+      }
+
+      return null;
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  /**
+   * Adds all candidates in the cells that are overlapped by the specified area to the specified collection.
+   *
+   * @param area
+   *          The area to search.
+   * @param result
+   *          The collection to which the candidates are added.
+   */
+  public void query(final Rectangle2D area, final Collection<? super T> result) {
+    this.find(area, item -> {
+      result.add(item);
+      return false;
+    });
+  }
+
+  /**
+   * Traverses the grid cells along the specified line segment in the order in which they are crossed and determines the candidate that is hit
+   * first.
+   * <br>
+   * The traversal stops as soon as no candidate in the upcoming cells can provide a closer hit than the nearest hit found so far.
+   * <br>
+   * The intersection function is called while this instance is locked, so it must not add, update or remove any items of this instance.
+   *
+   * @param x1
+   *          The x-coordinate of the start of the line segment.
+   * @param y1
+   *          The y-coordinate of the start of the line segment.
+   * @param x2
+   *          The x-coordinate of the end of the line segment.
+   * @param y2
+   *          The y-coordinate of the end of the line segment.
+   * @param intersection
+   *          A function that provides the position of a candidate's hit along the line segment, ranging from 0 (start) to 1 (end); or
+   *          <code>Double.NaN</code> if the candidate is not hit.
+   * @return The candidate that is hit closest to the start of the line segment; or null if no candidate is hit.
+   */
+  public T raycast(final double x1, final double y1, final double x2, final double y2, final ToDoubleFunction<? super T> intersection) {
+    this.readLock.lock();
+    try {
+      T nearest = null;
+      double nearestHit = Double.POSITIVE_INFINITY;
+      for (int i = 0; i < this.unhashedEntries.size(); i++) {
+        final Entry<T> entry = this.unhashedEntries.get(i);
+        final double hit = intersection.applyAsDouble(entry.item);
+        if (hit < nearestHit) {
+          nearestHit = hit;
+          nearest = entry.item;
+        }
+      }
+
+      final int startCellX = this.cell(x1);
+      final int startCellY = this.cell(y1);
+      final int endCellX = this.cell(x2);
+      final int endCellY = this.cell(y2);
+      final long steps = Math.abs(endCellX - (long) startCellX) + Math.abs(endCellY - (long) startCellY);
+
+      // for rays that cross a lot of cells (or have invalid coordinates) it's cheaper to test every item
+      if (steps > this.buckets.length || Double.isNaN(x1 + y1 + x2 + y2)) {
+        for (final Entry<T> entry : this.entries.values()) {
+          final double hit = entry.hashed ? intersection.applyAsDouble(entry.item) : Double.NaN;
+          if (hit < nearestHit) {
+            nearestHit = hit;
+            nearest = entry.item;
+          }
+        }
+
+        return nearest;
+      }
+
+      final double dx = x2 - x1;
+      final double dy = y2 - y1;
+      final int stepX = dx > 0 ? 1 : -1;
+      final int stepY = dy > 0 ? 1 : -1;
+      final double deltaX = dx != 0 ? this.cellSize / Math.abs(dx) : Double.POSITIVE_INFINITY;
+      final double deltaY = dy != 0 ? this.cellSize / Math.abs(dy) : Double.POSITIVE_INFINITY;
+      double nextX = dx != 0 ? ((startCellX + (dx > 0 ? 1 : 0)) * this.cellSize - x1) / dx : Double.POSITIVE_INFINITY;
+      double nextY = dy != 0 ? ((startCellY + (dy > 0 ? 1 : 0)) * this.cellSize - y1) / dy : Double.POSITIVE_INFINITY;
+
+      int cellX = startCellX;
+      int cellY = startCellY;
+      for (long step = 0; step <= steps; step++) {
+        final List<Entry<T>> bucket = this.buckets[this.bucket(cellX, cellY)];
+        for (int i = 0; i < bucket.size(); i++) {
+          final Entry<T> entry = bucket.get(i);
+          if (!entry.covers(cellX, cellY)) {
+            continue;
+          }
+
+          final double hit = intersection.applyAsDouble(entry.item);
+          if (hit < nearestHit) {
+            nearestHit = hit;
+            nearest = entry.item;
+          }
+        }
+
+        // no item in the upcoming cells can be hit before the ray leaves the current cell
+        if (nearestHit <= Math.min(nextX, nextY)) {
+          break;
+        }
+
+        if (nextX < nextY) {
+          nextX += deltaX;
+          cellX += stepX;
+        } else {
+          nextY += deltaY;
+          cellY += stepY;
+        }
+      }
+
+      return nearest;
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  /**
+   * Finds the items that are closest to the specified location and satisfy the specified condition.
+   * The distance of an item is the distance between the location and the nearest point of the item's bounds, which is 0 if the bounds contain
+   * the location.
+   * <br>
+   * The grid cells are visited in rings around the location until no item in the unvisited cells can be closer than the items found so far.
+   * <br>
+   * The condition is tested while this instance is locked, so it must not add, update or remove any items of this instance.
+   *
+   * @param x
+   *          The x-coordinate of the location.
+   * @param y
+   *          The y-coordinate of the location.
+   * @param count
+   *          The maximum number of items to find.
+   * @param condition
+   *          The condition that the items must satisfy.
+   * @return The closest items, ordered by their distance to the location, starting with the closest item.
+   */
+  public List<T> nearest(final double x, final double y, final int count, final Predicate<? super T> condition) {
+    final List<T> result = new ArrayList<>();
+    if (count <= 0) {
+      return result;
+    }
+
+    this.readLock.lock();
+    try {
+      // the farthest candidate is at the head so that it can be replaced when a closer item is found
+      final PriorityQueue<Candidate<T>> candidates = new PriorityQueue<>(count + 1, (a, b) -> Double.compare(b.distance, a.distance));
+      for (int i = 0; i < this.unhashedEntries.size(); i++) {
+        offer(candidates, this.unhashedEntries.get(i), x, y, count, condition);
+      }
+
+      final int hashedCount = this.entries.size() - this.unhashedEntries.size();
+      final Set<Entry<T>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      final long centerX = this.cell(x);
+      final long centerY = this.cell(y);
+      long visitedCells = 0;
+      for (long ring = 0; visited.size() < hashedCount; ring++) {
+        // for sparse grids it's cheaper to test every remaining item than to visit a lot of empty cells
+        if (visitedCells > this.buckets.length || Double.isNaN(x + y)) {
+          for (final Entry<T> entry : this.entries.values()) {
+            if (entry.hashed && visited.add(entry)) {
+              offer(candidates, entry, x, y, count, condition);
+            }
+          }
+
+          break;
+        }
+
+        for (long cellX = centerX - ring; cellX <= centerX + ring; cellX++) {
+          final boolean edge = cellX == centerX - ring || cellX == centerX + ring;
+          for (long cellY = centerY - ring; cellY <= centerY + ring; cellY += edge || ring == 0 ? 1 : 2 * ring) {
+            this.visit(cellX, cellY, candidates, visited, x, y, count, condition);
+            visitedCells++;
+          }
+        }
+
+        // all items that haven't been visited yet are located outside the square that is covered by the visited rings
+        final double minDistance = Math.min(Math.min(x - (centerX - ring) * this.cellSize, (centerX + ring + 1) * this.cellSize - x),
+            Math.min(y - (centerY - ring) * this.cellSize, (centerY + ring + 1) * this.cellSize - y));
+        if (candidates.size() == count && candidates.peek().distance <= minDistance) {
+          break;
+        }
+      }
+
+      while (!candidates.isEmpty()) {
+        result.add(candidates.poll().entry.item);
+      }
+
+      Collections.reverse(result);
+      return result;
+    } finally {
+      this.readLock.unlock();
+    }
+  }
+
+  private void visit(final long cellX, final long cellY, final PriorityQueue<Candidate<T>> candidates, final Set<Entry<T>> visited, final double x, final double y, final int count,
+      final Predicate<? super T> condition) {
+    final List<Entry<T>> bucket = this.buckets[this.bucket((int) cellX, (int) cellY)];
+    for (int i = 0; i < bucket.size(); i++) {
+      final Entry<T> entry = bucket.get(i);
+      if (entry.covers(cellX, cellY) && visited.add(entry)) {
+        offer(candidates, entry, x, y, count, condition);
+      }
+    }
+  }
+
+  private static <T> void offer(final PriorityQueue<Candidate<T>> candidates, final Entry<T> entry, final double x, final double y, final int count,
+      final Predicate<? super T> condition) {
+    final double distance = entry.distance(x, y);
+    if (candidates.size() == count && candidates.peek().distance <= distance || !condition.test(entry.item)) {
+      return;
+    }
+
+    candidates.offer(new Candidate<>(entry, distance));
+    if (candidates.size() > count) {
+      candidates.poll();
+    }
+  }
+
+  private boolean update(final Entry<T> entry, final Rectangle2D bounds) {
+    if (bounds != null && entry.hashed && this.cell(bounds.getMinX()) == entry.minCellX && this.cell(bounds.getMinY()) == entry.minCellY && this.cell(bounds.getMaxX()) == entry.maxCellX
+        && this.cell(bounds.getMaxY()) == entry.maxCellY) {
+      entry.setBounds(bounds);
+      return false;
+    }
+
+    this.withdraw(entry);
+    this.setCells(entry, bounds);
+    this.insert(entry);
+    return true;
+  }
+
+  private void setCells(final Entry<T> entry, final Rectangle2D bounds) {
+    entry.setBounds(bounds);
+    this.updateCells(entry);
+  }
+
+  private void updateCells(final Entry<T> entry) {
+    if (!entry.bounded) {
+      entry.hashed = false;
+      return;
+    }
+
+    entry.minCellX = this.cell(entry.minX);
+    entry.minCellY = this.cell(entry.minY);
+    entry.maxCellX = this.cell(entry.maxX);
+    entry.maxCellY = this.cell(entry.maxY);
+
+    entry.hashed = cellCount(entry.minCellX, entry.minCellY, entry.maxCellX, entry.maxCellY) <= MAX_CELLS_PER_ITEM;
+  }
+
+  private void insert(final Entry<T> entry) {
+    if (!entry.hashed) {
+      this.unhashedEntries.add(entry);
+      return;
+    }
+
+    for (long cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+      for (long cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+        // multiple cells of an item can share a bucket, but the item is only listed once
+        final List<Entry<T>> bucket = this.buckets[this.bucket((int) cellX, (int) cellY)];
+        if (!bucket.contains(entry)) {
+          bucket.add(entry);
+        }
+      }
+    }
+  }
+
+  private void withdraw(final Entry<T> entry) {
+    if (!entry.hashed) {
+      this.unhashedEntries.remove(entry);
+      return;
+    }
+
+    for (long cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+      for (long cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+        this.buckets[this.bucket((int) cellX, (int) cellY)].remove(entry);
+      }
+    }
+  }
+
+  private void rehash(final int bucketCount) {
+    this.buckets = createBuckets(bucketCount);
+    this.unhashedEntries.clear();
+    for (final Entry<T> entry : this.entries.values()) {
+      this.updateCells(entry);
+      this.insert(entry);
+    }
+  }
+
+  private int cell(final double coordinate) {
+    return (int) Math.floor(coordinate / this.cellSize);
+  }
+
+  private int bucket(final int cellX, final int cellY) {
+    int hash = cellX * 0x9E3779B1 ^ cellY * 0x85EBCA6B;
+    hash ^= hash >>> 16;
+    return hash & (this.buckets.length - 1);
+  }
+
+  private static long cellCount(final int minCellX, final int minCellY, final int maxCellX, final int maxCellY) {
+    return (maxCellX - (long) minCellX + 1) * (maxCellY - (long) minCellY + 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<Entry<T>>[] createBuckets(final int count) {
+    final List<Entry<T>>[] buckets = (List<Entry<T>>[]) new List<?>[count];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new ArrayList<>(2);
+    }
+
+    return buckets;
+  }
+
+  private static class Entry<T> {
+    private final T item;
+    private boolean bounded;
+    private boolean hashed;
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private int minCellX;
+    private int minCellY;
+    private int maxCellX;
+    private int maxCellY;
+
+    private Entry(final T item) {
+      this.item = item;
+    }
+
+    private double distance(final double x, final double y) {
+      if (!this.bounded) {
+        return 0;
+      }
+
+      final double dx = Math.max(Math.max(this.minX - x, x - this.maxX), 0);
+      final double dy = Math.max(Math.max(this.minY - y, y - this.maxY), 0);
+      return Math.hypot(dx, dy);
+    }
+
+    private boolean covers(final long cellX, final long cellY) {
+      return cellX >= this.minCellX && cellX <= this.maxCellX && cellY >= this.minCellY && cellY <= this.maxCellY;
+    }
+
+    private void setBounds(final Rectangle2D bounds) {
+      this.bounded = bounds != null;
+      if (!this.bounded) {
+        return;
+      }
+
+      this.minX = bounds.getMinX();
+      this.minY = bounds.getMinY();
+      this.maxX = bounds.getMaxX();
+      this.maxY = bounds.getMaxY();
+    }
+  }
+
+  private static class Candidate<T> {
+    private final Entry<T> entry;
+    private final double distance;
+
+    private Candidate(final Entry<T> entry, final double distance) {
+      this.entry = entry;
+      this.distance = distance;
+    }
+  }
+}
@@ -1,6 +1,16 @@
 package de.gurkenlabs.litiengine;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.Test;
 
@@ -43,4 +53,202 @@ public class GameLoopTest {
       assertEquals(1000, loop.convertToMs(33));
     }
   }
+
+  @Test
+  public void testFixedTimestep() throws InterruptedException {
+    try (final ManualClockLoop loop = new ManualClockLoop(100)) {
+      assertEquals(1, loop.getInterpolationAlpha());
+      loop.setFixedTimestep(true);
+
+      // 35 ms are processed as 3 ticks, the remaining 5 ms are carried over to the next iteration
+      loop.advance(35);
+      loop.process();
+      assertEquals(3, loop.getTicks());
+      assertEquals(10, loop.getDeltaTime());
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(40), loop.deadline);
+
+      loop.advance(5);
+      assertEquals(0.5, loop.getInterpolationAlpha(), 0.001);
+      loop.process();
+      assertEquals(4, loop.getTicks());
+
+      // after a long stall, the loop only catches up on the max number of ticks
+      loop.advance(1000);
+      loop.process();
+      assertEquals(4 + GameLoop.DEFAULT_MAX_CATCHUP_TICKS, loop.getTicks());
+    }
+  }
+
+  @Test
+  public void testFixedTimestepDeltaTimeIsTheRealTickDuration() throws InterruptedException {
+    try (final ManualClockLoop loop = new ManualClockLoop(60)) {
+      loop.setFixedTimestep(true);
+      loop.setTimeScale(2);
+
+      loop.advance(25);
+      loop.process();
+
+      // the ticks are processed twice as often, the consumers of the delta time apply the time scale
+      assertEquals(3, loop.getTicks());
+      assertEquals(1000.0 / 120, loop.getPreciseDeltaTime(), 0.001);
+      assertEquals(8, loop.getDeltaTime());
+    }
+  }
+
+  @Test
+  public void testSimulation() throws InterruptedException {
+    try (final ManualClockLoop loop = new ManualClockLoop(100)) {
+      loop.setSimulation(true);
+      for (int i = 0; i < 300; i++) {
+        loop.process();
+      }
+
+      // the ticks are processed without waiting and without any time passing
+      assertEquals(300, loop.getTicks());
+      assertEquals(-1, loop.deadline);
+      assertEquals(10, loop.getDeltaTime());
+      assertEquals(10.0, loop.getPreciseDeltaTime(), 0.001);
+    }
+  }
+
+  @Test
+  public void testSimulationWithTimeScale() throws InterruptedException {
+    try (final ManualClockLoop loop = new ManualClockLoop(100)) {
+      loop.setSimulation(true);
+      loop.setSimulationSpeed(1);
+      loop.setTimeScale(2);
+      loop.process();
+
+      // like in the fixed timestep mode, the ticks are processed twice as often and the consumers of the delta time apply the time scale
+      assertEquals(1, loop.getTicks());
+      assertEquals(5.0, loop.getPreciseDeltaTime(), 0.001);
+
+      // so an entity moves as far per tick as it does at the time scale 1
+      assertEquals(10.0, loop.getPreciseDeltaTime() * loop.getTimeScale(), 0.001);
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(5), loop.deadline);
+    }
+  }
+
+  @Test
+  public void testPausedSimulationDoesNotSpin() throws InterruptedException {
+    try (final ManualClockLoop loop = new ManualClockLoop(100)) {
+      loop.setSimulation(true);
+      loop.setTimeScale(0);
+      loop.advance(100);
+      loop.process();
+
+      // the paused loop waits for one nominal tick instead of processing the next iteration right away
+      assertEquals(0, loop.getTicks());
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(110), loop.deadline);
+    }
+  }
+
+  @Test
+  public void testAsyncTasksCompleteOnTheGameLoop() throws InterruptedException, ExecutionException, TimeoutException {
+    try (final GameLoop loop = new GameLoop("Test Loop", 100)) {
+      loop.start();
+
+      final Thread[] threads = new Thread[2];
+      final CompletableFuture<Void> future = loop.async(() -> {
+        threads[0] = Thread.currentThread();
+        return 42;
+      }).thenAccept(result -> {
+        assertEquals(42, result.intValue());
+        threads[1] = Thread.currentThread();
+      });
+
+      future.get(5, TimeUnit.SECONDS);
+      assertTrue(threads[0] != loop);
+      assertSame(loop, threads[1]);
+      assertEquals(0, loop.getPendingAsyncTasks());
+    }
+  }
+
+  @Test
+  public void testAsyncTasksThatThrowErrorsCompleteExceptionally() {
+    try (final GameLoop loop = new GameLoop("Test Loop", 100)) {
+      loop.start();
+
+      final CompletableFuture<Integer> future = loop.async(() -> {
+        throw new AssertionError("failed");
+      });
+
+      ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof AssertionError);
+    }
+  }
+
+  @Test
+  public void testAsyncTasksAreRejectedIfTheQueueIsFull() {
+    try (final GameLoop loop = new GameLoop("Test Loop", 100)) {
+      loop.setAsyncWorkers(1);
+      loop.setAsyncQueueCapacity(1);
+      loop.start();
+
+      final long rejectedBefore = Game.metrics().getAsyncTasksRejected();
+
+      final CountDownLatch release = new CountDownLatch(1);
+      final CompletableFuture<Boolean> running = loop.async(() -> {
+        try {
+          return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      });
+
+      // the first task is handed to the worker directly, the second one waits in the queue
+      final CompletableFuture<Integer> queued = loop.async(() -> 1);
+      final CompletableFuture<Integer> rejected = loop.async(() -> 2);
+
+      ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+      assertEquals(rejectedBefore + 1, Game.metrics().getAsyncTasksRejected());
+
+      release.countDown();
+      assertTrue(running.join());
+      assertEquals(1, queued.join().intValue());
+    }
+  }
+
+  @Test
+  public void testSimulationSpeed() throws InterruptedException {
+    try (final ManualClockLoop loop = new ManualClockLoop(100)) {
+      loop.setSimulation(true);
+      loop.setSimulationSpeed(4);
+      loop.advance(100);
+      loop.process();
+
+      // a tick of 10 ms takes 2.5 ms at four times the real time
+      assertEquals(1, loop.getTicks());
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(100) + 2_500_000, loop.deadline);
+    }
+  }
+
+  /**
+   * A game loop that is processed on the test's thread with a clock that only advances when the test advances it. Waiting for the next
+   * iteration just records the deadline.
+   */
+  private static final class ManualClockLoop extends GameLoop {
+    private long nanos;
+    private long deadline = -1;
+
+    private ManualClockLoop(int updateRate) {
+      super("Test Loop", updateRate);
+    }
+
+    @Override
+    long nanoTime() {
+      return this.nanos;
+    }
+
+    @Override
+    protected void waitUntil(long deadline) {
+      this.deadline = deadline;
+    }
+
+    private void advance(long ms) {
+      this.nanos += TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+  }
 }
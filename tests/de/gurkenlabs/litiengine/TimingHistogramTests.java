@@ -0,0 +1,41 @@
+package de.gurkenlabs.litiengine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingHistogramTests {
+
+  @Test
+  public void testPercentiles() {
+    TimingHistogram histogram = new TimingHistogram();
+    assertEquals(0, histogram.getPercentile(50));
+
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_500, histogram.getMean(), 0.001);
+    assertEquals(500_000, histogram.getPercentile(50), 500_000 * 0.125);
+    assertEquals(990_000, histogram.getPercentile(99), 990_000 * 0.125);
+    assertEquals(1_000_000, histogram.getPercentile(100));
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    TimingHistogram histogram = new TimingHistogram();
+    histogram.record(-5);
+    histogram.record(3);
+    histogram.record(7);
+
+    assertEquals(0, histogram.getPercentile(0));
+    assertEquals(3, histogram.getPercentile(50));
+    assertEquals(7, histogram.getPercentile(99));
+  }
+}
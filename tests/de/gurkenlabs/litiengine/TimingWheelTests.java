@@ -0,0 +1,120 @@
+package de.gurkenlabs.litiengine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTests {
+
+  @Test
+  public void testActionsAreExecutedAtTheirTick() {
+    TimingWheel wheel = new TimingWheel(8);
+    List<String> executed = new ArrayList<>();
+
+    wheel.schedule(2, () -> executed.add("a"));
+    wheel.schedule(20, () -> executed.add("b"));
+    wheel.schedule(0, () -> executed.add("c"));
+
+    wheel.advance(1);
+    assertEquals(Arrays.asList("c"), executed);
+
+    wheel.advance(2);
+    assertEquals(Arrays.asList("c", "a"), executed);
+
+    // the action is located in the slot of tick 4 as well, but it's not due before tick 20
+    for (int tick = 3; tick < 20; tick++) {
+      wheel.advance(tick);
+    }
+
+    assertEquals(2, executed.size());
+    wheel.advance(20);
+    assertEquals(Arrays.asList("c", "a", "b"), executed);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testRescheduleAndCancel() {
+    TimingWheel wheel = new TimingWheel(8);
+    List<String> executed = new ArrayList<>();
+
+    int a = wheel.schedule(5, () -> executed.add("a"));
+    int b = wheel.schedule(5, () -> executed.add("b"));
+
+    assertTrue(wheel.reschedule(a, 1));
+    assertTrue(wheel.cancel(b));
+    assertFalse(wheel.cancel(b));
+
+    wheel.advance(1);
+    assertEquals(Arrays.asList("a"), executed);
+    assertFalse(wheel.reschedule(a, 3));
+
+    for (int tick = 2; tick < 10; tick++) {
+      wheel.advance(tick);
+    }
+
+    assertEquals(Arrays.asList("a"), executed);
+  }
+
+  @Test
+  public void testActionsAreExecutedInTheirSchedulingOrder() {
+    TimingWheel wheel = new TimingWheel(8);
+    List<String> executed = new ArrayList<>();
+
+    wheel.schedule(3, () -> executed.add("a"));
+    wheel.schedule(11, () -> executed.add("later"));
+    int b = wheel.schedule(3, () -> executed.add("b"));
+    wheel.schedule(3, () -> executed.add("c"));
+    int d = wheel.schedule(5, () -> executed.add("d"));
+    wheel.schedule(3, () -> executed.add("e"));
+
+    // removing an action from the middle and the tail of a slot keeps the order of the others
+    assertTrue(wheel.cancel(b));
+    assertTrue(wheel.reschedule(d, 3));
+    wheel.schedule(3, () -> executed.add("f"));
+
+    for (int tick = 1; tick <= 3; tick++) {
+      wheel.advance(tick);
+    }
+
+    assertEquals(Arrays.asList("a", "c", "e", "d", "f"), executed);
+  }
+
+  @Test
+  public void testFailingActionsDontPreventOtherActions() {
+    TimingWheel wheel = new TimingWheel(8);
+    List<String> executed = new ArrayList<>();
+
+    wheel.schedule(1, () -> executed.add("a"));
+    wheel.schedule(1, () -> {
+      throw new IllegalStateException("test");
+    });
+    wheel.schedule(1, () -> executed.add("b"));
+
+    wheel.advance(1);
+    assertEquals(Arrays.asList("a", "b"), executed);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testActionsScheduledByActionsAreExecutedWithTheUpcomingTick() {
+    TimingWheel wheel = new TimingWheel(8);
+    List<Long> executed = new ArrayList<>();
+
+    wheel.schedule(1, () -> {
+      executed.add(1L);
+      wheel.schedule(1, () -> executed.add(2L));
+    });
+
+    wheel.advance(1);
+    assertEquals(Arrays.asList(1L), executed);
+
+    wheel.advance(2);
+    assertEquals(Arrays.asList(1L, 2L), executed);
+  }
+}
@@ -0,0 +1,146 @@
+package de.gurkenlabs.litiengine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.configuration.FramePacing;
+
+public class UpdateLoopTests {
+
+  @Test
+  public void testPhasesAreUpdatedInOrder() {
+    TestLoop loop = new TestLoop();
+    List<String> updated = Collections.synchronizedList(new ArrayList<>());
+
+    loop.attach(() -> updated.add("late"), 10, false);
+    loop.attach(() -> updated.add("default"));
+    loop.attach(() -> updated.add("early"), -1, true);
+
+    loop.update();
+    assertEquals(3, updated.size());
+    assertEquals("early", updated.get(0));
+    assertEquals("default", updated.get(1));
+    assertEquals("late", updated.get(2));
+  }
+
+  @Test
+  public void testUpdatePhaseOfAttachedUpdatables() {
+    TestLoop loop = new TestLoop();
+    IUpdateable parallel = () -> {
+    };
+    IUpdateable serial = () -> {
+    };
+
+    loop.attach(parallel, 5, true);
+    loop.attach(serial);
+
+    assertEquals(5, loop.getUpdatePhase(parallel));
+    assertTrue(loop.isParallel(parallel));
+    assertEquals(ILoop.DEFAULT_UPDATE_PHASE, loop.getUpdatePhase(serial));
+    assertFalse(loop.isParallel(serial));
+
+    loop.detach(parallel);
+    assertEquals(ILoop.DEFAULT_UPDATE_PHASE, loop.getUpdatePhase(parallel));
+    assertFalse(loop.isParallel(parallel));
+  }
+
+  @Test
+  public void testParallelUpdatablesAreUpdatedBeforeTheNextPhase() {
+    TestLoop loop = new TestLoop();
+    AtomicInteger parallelUpdates = new AtomicInteger();
+    List<Integer> observed = new ArrayList<>();
+
+    List<IUpdateable> parallel = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      IUpdateable updatable = parallelUpdates::incrementAndGet;
+      parallel.add(updatable);
+      loop.attach(updatable, 0, true);
+    }
+
+    loop.attach(() -> observed.add(parallelUpdates.get()), 1, false);
+
+    loop.update();
+    assertEquals(100, parallelUpdates.get());
+    assertEquals(100, observed.get(0).intValue());
+
+    for (IUpdateable updatable : parallel.subList(0, 50)) {
+      loop.detach(updatable);
+    }
+
+    loop.update();
+    assertEquals(150, parallelUpdates.get());
+    assertEquals(150, observed.get(1).intValue());
+    assertEquals(51, loop.getUpdatables().size());
+  }
+
+  @Test
+  public void testProfilerRecordsUpdateTimes() {
+    TestLoop loop = new TestLoop();
+    UpdateProfiler profiler = new UpdateProfiler();
+    profiler.setTrackInstances(true);
+    loop.setProfiler(profiler);
+
+    SlowUpdatable slow = new SlowUpdatable();
+    loop.attach(slow);
+    loop.update();
+    loop.update();
+
+    UpdateProfiler.UpdateProfile profile = profiler.getProfile(SlowUpdatable.class);
+    assertEquals(2, profile.getHistogram().getCount());
+    assertTrue(profile.getMax() >= 1_000_000);
+    assertEquals(2, profiler.getProfile(slow).getHistogram().getCount());
+
+    loop.detach(slow);
+    assertNull(profiler.getProfile(slow));
+  }
+
+  @Test
+  public void testWaitUntilReachesTheDeadline() throws InterruptedException {
+    TestLoop loop = new TestLoop();
+    loop.setSpinWindow(500_000);
+
+    for (FramePacing pacing : FramePacing.values()) {
+      loop.setFramePacing(pacing);
+      long deadline = System.nanoTime() + 2_000_000;
+      loop.waitUntil(deadline);
+      assertTrue(System.nanoTime() >= deadline, pacing.name());
+    }
+
+    // a deadline in the past doesn't block
+    loop.setFramePacing(FramePacing.PARK);
+    long start = System.nanoTime();
+    loop.waitUntil(start - 1_000_000);
+    assertTrue(System.nanoTime() - start < 1_000_000_000);
+  }
+
+  private static class SlowUpdatable implements IUpdateable {
+    @Override
+    public void update() {
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static class TestLoop extends UpdateLoop {
+    private TestLoop() {
+      super("Test Loop");
+    }
+
+    @Override
+    public void terminate() {
+      // the test loop is never started
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package de.gurkenlabs.litiengine.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LightSourceTests {
+
+  @Test
+  public void testShadowsOfAllEntitiesAreFilledAsOneUnion() {
+    final Point2D origin = new Point2D.Double(100, 100);
+    final List<Creature> creatures = new ArrayList<>();
+    creatures.add(createCreature(130, 90));
+    creatures.add(createCreature(40, 110));
+    creatures.add(createCreature(95, 20));
+    creatures.add(createCreature(100, 150));
+
+    // the shadows of these creatures overlap each other
+    creatures.add(createCreature(140, 100));
+    creatures.add(createCreature(150, 104));
+
+    final Path2D shadows = LightSource.getShadows(origin, creatures);
+    final Area expected = new Area();
+    for (Creature creature : creatures) {
+      expected.add(getShadow(origin, creature));
+    }
+
+    final Area actual = new Area(shadows);
+    for (double x = 0.3; x < 400; x += 1.7) {
+      for (double y = 0.3; y < 400; y += 1.7) {
+        assertEquals(expected.contains(x, y), actual.contains(x, y), x + ", " + y);
+      }
+    }
+  }
+
+  private static Creature createCreature(double x, double y) {
+    final Creature creature = new Creature();
+    creature.setSize(18, 24);
+    creature.setLocation(x, y);
+    return creature;
+  }
+
+  /**
+   * The shadow of an entity as it was constructed for every entity before the shadows were batched.
+   */
+  private static Area getShadow(Point2D origin, IEntity entity) {
+    final int shadowHeight = (int) (entity.getHeight() / 4);
+    final int shadowWidth = (int) (entity.getWidth() / 3);
+    final Ellipse2D ellipse = new Ellipse2D.Double(entity.getX() + (entity.getWidth() - shadowWidth) / 2, entity.getY() + (int) entity.getHeight() - shadowHeight / 2.0, shadowWidth, shadowHeight);
+
+    final double r = shadowWidth / 2.0;
+    final double ry = shadowHeight / 2.0;
+    final double cx = ellipse.getX() + r;
+    final double cy = ellipse.getY() + ry;
+    final double len = origin.distance(cx, cy);
+    final double px = -(cy - origin.getY()) / len;
+    final double py = (cx - origin.getX()) / len;
+
+    final Point2D a = new Point2D.Double(cx - px * r, cy - py * ry);
+    final Point2D b = new Point2D.Double(cx + px * r, cy + py * ry);
+    final Point2D c = project(origin, a);
+    final Point2D d = project(origin, b);
+
+    final Path2D polygon = new Path2D.Double();
+    polygon.moveTo(a.getX(), a.getY());
+    polygon.lineTo(b.getX(), b.getY());
+    polygon.lineTo(d.getX(), d.getY());
+    polygon.lineTo(c.getX(), c.getY());
+    polygon.closePath();
+
+    final Area shadow = new Area(polygon);
+    shadow.add(new Area(ellipse));
+    return shadow;
+  }
+
+  private static Point2D project(Point2D start, Point2D end) {
+    final double len = start.distance(end);
+    return new Point2D.Double(start.getX() + (end.getX() - start.getX()) * 200 / len, start.getY() + (end.getY() - start.getY()) * 200 / len);
+  }
+}
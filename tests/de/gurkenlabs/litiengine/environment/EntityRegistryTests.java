@@ -0,0 +1,118 @@
+package de.gurkenlabs.litiengine.environment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.MapArea;
+
+public class EntityRegistryTests {
+
+  @Test
+  public void testLookupByMapIdAndName() {
+    EntityRegistry registry = new EntityRegistry();
+    MapArea area = new MapArea(1, "area", 0, 0, 10, 10);
+    MapArea local = new MapArea(-1, "local", 0, 0, 10, 10);
+
+    registry.add(area);
+    registry.add(local);
+
+    assertEquals(area, registry.get(1));
+    assertEquals(local, registry.get(-1));
+    assertEquals(area, registry.get("area"));
+    assertNull(registry.get(2));
+    assertNull(registry.get("other"));
+
+    // renamed entities are found by their new name but not by their previous name
+    local.setName("renamed");
+    assertNull(registry.get("local"));
+    assertEquals(local, registry.get("renamed"));
+
+    assertTrue(registry.remove(local));
+    assertFalse(registry.remove(local));
+    assertNull(registry.get(-1));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  public void testRemovingKeepsOtherEntitiesReachable() {
+    EntityRegistry registry = new EntityRegistry();
+    List<MapArea> areas = new ArrayList<>();
+    for (int i = 1; i <= 1000; i++) {
+      MapArea area = new MapArea(i, "area" + i, 0, 0, 10, 10);
+      areas.add(area);
+      registry.add(area);
+    }
+
+    for (int i = 0; i < areas.size(); i += 2) {
+      assertTrue(registry.remove(areas.get(i)));
+    }
+
+    assertEquals(500, registry.size());
+    for (int i = 0; i < areas.size(); i++) {
+      MapArea expected = i % 2 == 0 ? null : areas.get(i);
+      assertEquals(expected, registry.get(i + 1));
+      assertEquals(expected, registry.get("area" + (i + 1)));
+    }
+
+    registry.clear();
+    assertNull(registry.get(2));
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  public void testEntitiesAreReindexedWhenTheirMapIdChanges() {
+    EntityRegistry registry = new EntityRegistry();
+    MapArea area = new MapArea(1, "area", 0, 0, 10, 10);
+    registry.add(area);
+
+    area.setMapId(2);
+    assertNull(registry.get(1));
+    assertEquals(area, registry.get(2));
+    assertEquals(area, registry.get("area"));
+    assertEquals(1, registry.size());
+
+    assertTrue(registry.remove(area));
+    assertNull(registry.get(2));
+    assertNull(registry.get("area"));
+    assertEquals(0, registry.size());
+
+    // removed entities are no longer re-indexed
+    area.setMapId(3);
+    area.setName("removed");
+    assertNull(registry.get(3));
+    assertNull(registry.get("removed"));
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  public void testRenamedEntitiesAreReindexed() {
+    EntityRegistry registry = new EntityRegistry();
+    MapArea first = new MapArea(1, "shared", 0, 0, 10, 10);
+    MapArea second = new MapArea(2, "shared", 0, 0, 10, 10);
+    registry.add(first);
+    registry.add(second);
+
+    first.setName("first");
+    assertEquals(first, registry.get("first"));
+    assertEquals(second, registry.get("shared"));
+
+    second.setName(null);
+    assertNull(registry.get("shared"));
+    assertEquals(second, registry.get(2));
+
+    // an entity that replaces another one with the same map id takes over its registration
+    MapArea replacement = new MapArea(1, "replacement", 0, 0, 10, 10);
+    registry.add(replacement);
+    assertNull(registry.get("first"));
+    first.setName("renamed");
+    assertNull(registry.get("renamed"));
+    assertEquals(replacement, registry.get(1));
+  }
+}
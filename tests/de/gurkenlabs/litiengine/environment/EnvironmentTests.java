@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -12,7 +15,9 @@ import static org.mockito.Mockito.when;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -27,6 +32,7 @@ import org.junit.jupiter.params.provider.EnumSource;
 
 import de.gurkenlabs.litiengine.Game;
 import de.gurkenlabs.litiengine.entities.CollisionBox;
+import de.gurkenlabs.litiengine.entities.Creature;
 import de.gurkenlabs.litiengine.entities.ICombatEntity;
 import de.gurkenlabs.litiengine.entities.IEntity;
 import de.gurkenlabs.litiengine.entities.IMobileEntity;
@@ -497,6 +503,102 @@ public class EnvironmentTests {
     assertFalse(found2.contains(entity2));
   }
 
+  @Test
+  public void testFindEntitiesInRadius() {
+    MapArea entity = new MapArea(0, 0, 10, 10);
+    MapArea entity2 = new MapArea(30, 0, 10, 10);
+    MapArea entity3 = new MapArea(100, 100, 10, 10);
+
+    this.testEnvironment.add(entity);
+    this.testEnvironment.add(entity2);
+    this.testEnvironment.add(entity3);
+
+    Collection<IEntity> found = this.testEnvironment.findEntities(new Point2D.Double(15, 5), 15);
+    assertTrue(found.contains(entity));
+    assertTrue(found.contains(entity2));
+    assertFalse(found.contains(entity3));
+
+    // the index follows the entities when they are moved
+    entity3.setLocation(20, 0);
+    assertTrue(this.testEnvironment.findEntities(new Point2D.Double(15, 5), 15).contains(entity3));
+
+    this.testEnvironment.remove(entity3);
+    assertFalse(this.testEnvironment.findEntities(new Point2D.Double(15, 5), 15).contains(entity3));
+  }
+
+  @Test
+  public void testFindNearestEntities() {
+    MapArea entity = new MapArea(0, 0, 10, 10);
+    MapArea entity2 = new MapArea(30, 0, 10, 10);
+    MapArea entity3 = new MapArea(100, 100, 10, 10);
+
+    this.testEnvironment.add(entity);
+    this.testEnvironment.add(entity2);
+    this.testEnvironment.add(entity3);
+
+    List<IEntity> nearest = this.testEnvironment.findNearestEntities(new Point2D.Double(95, 95), 2);
+    assertEquals(2, nearest.size());
+    assertEquals(entity3, nearest.get(0));
+    assertEquals(entity2, nearest.get(1));
+
+    assertEquals(entity, this.testEnvironment.findNearestEntities(new Point2D.Double(95, 95), 1, e -> e.getX() < 30).get(0));
+  }
+
+  @Test
+  public void testQueryConditionsCanMoveEntities() {
+    Creature creature = new Creature();
+    creature.setSize(10, 10);
+    creature.setLocation(0, 0);
+    MapArea area = new MapArea(30, 0, 10, 10);
+
+    this.testEnvironment.add(creature);
+    this.testEnvironment.add(area);
+
+    // the conditions update the spatial index of the environment, which must not block the queries that test them
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+      Collection<ICombatEntity> found = this.testEnvironment.findCombatEntities(new Rectangle2D.Double(0, 0, 20, 20), e -> {
+        e.setLocation(200, 200);
+        return true;
+      });
+
+      assertEquals(1, found.size());
+      assertTrue(this.testEnvironment.findEntities(new Point2D.Double(205, 205), 5).contains(creature));
+
+      List<IEntity> nearest = this.testEnvironment.findNearestEntities(new Point2D.Double(0, 0), 1, e -> {
+        e.setLocation(e.getX(), e.getY() + 1);
+        return e == creature;
+      });
+
+      assertEquals(Arrays.asList(creature), nearest);
+      assertEquals(1, area.getY());
+      assertEquals(201, creature.getY());
+    });
+  }
+
+  @Test
+  public void testEntitySnapshotsAreReusedUntilEntitiesChange() {
+    MapArea entity = new MapArea(0, 0, 10, 10);
+    this.testEnvironment.add(entity);
+
+    long epoch = this.testEnvironment.getEntityEpoch();
+    Collection<IEntity> entities = this.testEnvironment.getEntities();
+    Collection<MapArea> areas = this.testEnvironment.getByType(MapArea.class);
+    assertSame(entities, this.testEnvironment.getEntities());
+    assertSame(areas, this.testEnvironment.getByType(MapArea.class));
+    assertEquals(1, areas.size());
+
+    // adding an entity of another type only invalidates the snapshot of all entities
+    this.testEnvironment.add(new Spawnpoint());
+    assertNotEquals(epoch, this.testEnvironment.getEntityEpoch());
+    assertNotSame(entities, this.testEnvironment.getEntities());
+    assertEquals(2, this.testEnvironment.getEntities().size());
+    assertSame(areas, this.testEnvironment.getByType(MapArea.class));
+
+    this.testEnvironment.remove(entity);
+    assertTrue(this.testEnvironment.getByType(MapArea.class).isEmpty());
+    assertEquals(1, areas.size());
+  }
+
   @Test
   public void testFindCombatEntitiesInShape() {
     ICombatEntity combatEntity = mock(ICombatEntity.class);
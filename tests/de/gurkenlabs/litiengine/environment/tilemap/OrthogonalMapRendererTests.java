@@ -0,0 +1,181 @@
+package de.gurkenlabs.litiengine.environment.tilemap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.Game;
+import de.gurkenlabs.litiengine.graphics.Spritesheet;
+
+public class OrthogonalMapRendererTests {
+  private static final int TILE_SIZE = 16;
+  private static final int MAP_SIZE = 40;
+  private static final Color[] SPRITE_COLORS = { Color.RED, Color.YELLOW, Color.BLUE, Color.GREEN };
+
+  private static int mapCount;
+
+  private OrthogonalMapRenderer renderer;
+  private IMap map;
+  private ITileLayer layer;
+  private ITile[][] tiles;
+
+  @BeforeAll
+  public static void setup() {
+    Game.init(Game.COMMADLINE_ARG_HEADLESS);
+  }
+
+  @AfterAll
+  public static void terminateGame() {
+    Game.terminate();
+    Game.runHeadless(false);
+  }
+
+  @BeforeEach
+  public void createMap() {
+    this.renderer = new OrthogonalMapRenderer();
+
+    // grid id 1 is red, grid id 2 is animated and shows the blue sprite, grid id 4 is green
+    final ITileAnimationFrame frame = mock(ITileAnimationFrame.class);
+    when(frame.getTileId()).thenReturn(2);
+    when(frame.getDuration()).thenReturn(100);
+    final ITileAnimation animation = mock(ITileAnimation.class);
+    when(animation.getFrames()).thenReturn(Collections.singletonList(frame));
+    when(animation.getTotalDuration()).thenReturn(100);
+
+    final BufferedImage sprites = createImage(TILE_SIZE * SPRITE_COLORS.length, TILE_SIZE);
+    final Graphics2D g = sprites.createGraphics();
+    for (int i = 0; i < SPRITE_COLORS.length; i++) {
+      g.setColor(SPRITE_COLORS[i]);
+      g.fillRect(i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE);
+    }
+
+    g.dispose();
+
+    final String name = "orthogonal-renderer-test-" + mapCount++;
+    final Spritesheet spritesheet = new Spritesheet(sprites, name + ".png", TILE_SIZE, TILE_SIZE);
+
+    final ITileset tileset = mock(ITileset.class);
+    when(tileset.getFirstGridId()).thenReturn(1);
+    when(tileset.getSpritesheet()).thenReturn(spritesheet);
+    when(tileset.containsTile(any(ITile.class))).thenReturn(true);
+    when(tileset.containsTile(anyInt())).thenReturn(true);
+    when(tileset.getAnimation(1)).thenReturn(animation);
+
+    // the animations are cached by the name of the map
+    this.map = mock(IMap.class);
+    when(this.map.getName()).thenReturn(name);
+    when(this.map.getTilesets()).thenReturn(Arrays.asList(tileset));
+    when(this.map.getWidth()).thenReturn(MAP_SIZE);
+    when(this.map.getHeight()).thenReturn(MAP_SIZE);
+    when(this.map.getTileWidth()).thenReturn(TILE_SIZE);
+    when(this.map.getTileHeight()).thenReturn(TILE_SIZE);
+
+    this.tiles = new ITile[MAP_SIZE][MAP_SIZE];
+    for (int x = 0; x < MAP_SIZE; x++) {
+      for (int y = 0; y < MAP_SIZE; y++) {
+        this.setTile(x, y, 1);
+      }
+    }
+
+    this.layer = mock(ITileLayer.class);
+    when(this.layer.getOpacity()).thenReturn(1f);
+    when(this.layer.getOffset()).thenReturn(new Point(0, 0));
+    when(this.layer.getTile(anyInt(), anyInt())).thenAnswer(invocation -> this.tiles[(int) invocation.getArgument(0)][(int) invocation.getArgument(1)]);
+  }
+
+  @Test
+  public void testVisibleChunksWithLayerOffset() {
+    when(this.layer.getOffset()).thenReturn(new Point(40, 8));
+
+    BufferedImage image = this.render(new Rectangle2D.Double(0, 0, 100, 100));
+    assertEquals(0, image.getRGB(39, 50));
+    assertEquals(0, image.getRGB(50, 7));
+    assertEquals(Color.RED.getRGB(), image.getRGB(40, 8));
+    assertEquals(Color.RED.getRGB(), image.getRGB(99, 99));
+    assertEquals(1, this.renderer.getCachedChunks(this.layer));
+
+    // the viewport covers the tiles 13 to 19 of the offset layer, which belong to the first two chunks
+    image = this.render(new Rectangle2D.Double(250, 0, 100, 100));
+    assertEquals(Color.RED.getRGB(), image.getRGB(0, 50));
+    assertEquals(Color.RED.getRGB(), image.getRGB(99, 50));
+    assertEquals(2, this.renderer.getCachedChunks(this.layer));
+  }
+
+  @Test
+  public void testAnimatedTilesAreOnlyDrawnOnce() {
+    when(this.layer.getOpacity()).thenReturn(0.5f);
+    this.setTile(2, 0, 2);
+
+    final BufferedImage image = this.render(new Rectangle2D.Double(0, 0, 100, 100));
+
+    // animated tiles are not baked into the chunk, so their translucent pixels are not blended twice
+    final Color animated = new Color(image.getRGB(2 * TILE_SIZE + 1, 1), true);
+    final Color baked = new Color(image.getRGB(1, 1), true);
+    assertEquals(Color.BLUE.getBlue(), animated.getBlue());
+    assertEquals(0, animated.getRed());
+    assertEquals(baked.getAlpha(), animated.getAlpha());
+  }
+
+  @Test
+  public void testInvalidatedChunksAreBakedAgain() {
+    final Rectangle2D viewport = new Rectangle2D.Double(0, 0, 100, 100);
+    this.render(viewport);
+
+    this.setTile(1, 0, 4);
+    assertEquals(Color.RED.getRGB(), this.render(viewport).getRGB(TILE_SIZE + 1, 1));
+
+    this.renderer.invalidate(this.layer, 1, 0);
+    assertEquals(Color.GREEN.getRGB(), this.render(viewport).getRGB(TILE_SIZE + 1, 1));
+
+    this.renderer.invalidate(this.layer);
+    assertEquals(0, this.renderer.getCachedChunks(this.layer));
+  }
+
+  @Test
+  public void testChunksOutsideTheViewportAreEvicted() {
+    this.renderer.setMaxCachedChunks(1);
+
+    this.render(new Rectangle2D.Double(0, 0, 100, 100));
+    this.render(new Rectangle2D.Double(300, 0, 100, 100));
+    assertEquals(1, this.renderer.getCachedChunks(this.layer));
+
+    // the chunks in the viewport are kept even if there are more of them than the max
+    final BufferedImage image = this.render(new Rectangle2D.Double(200, 0, 100, 100));
+    assertEquals(2, this.renderer.getCachedChunks(this.layer));
+    assertEquals(Color.RED.getRGB(), image.getRGB(0, 0));
+    assertEquals(Color.RED.getRGB(), image.getRGB(99, 0));
+  }
+
+  private BufferedImage render(Rectangle2D viewport) {
+    final BufferedImage image = createImage((int) viewport.getWidth(), (int) viewport.getHeight());
+    final Graphics2D g = image.createGraphics();
+    this.renderer.renderTileLayerImage(g, this.layer, this.map, viewport);
+    g.dispose();
+    return image;
+  }
+
+  private void setTile(int x, int y, int gridId) {
+    final ITile tile = mock(ITile.class);
+    when(tile.getGridId()).thenReturn(gridId);
+    this.tiles[x][y] = tile;
+  }
+
+  private static BufferedImage createImage(int width, int height) {
+    return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+  }
+}
@@ -0,0 +1,205 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import de.gurkenlabs.litiengine.Game;
+import de.gurkenlabs.litiengine.GameLoop;
+import de.gurkenlabs.litiengine.environment.IEnvironment;
+import de.gurkenlabs.litiengine.environment.tilemap.IMap;
+import de.gurkenlabs.litiengine.environment.tilemap.ITile;
+import de.gurkenlabs.litiengine.environment.tilemap.ITileLayer;
+import de.gurkenlabs.litiengine.environment.tilemap.ITileOffset;
+import de.gurkenlabs.litiengine.environment.tilemap.ITileset;
+import de.gurkenlabs.litiengine.environment.tilemap.MapOrientation;
+
+public class ColorLayerTests {
+  private static final int TILE_SIZE = 16;
+  private static final int MAP_SIZE = 10;
+
+  @BeforeAll
+  public static void setup() {
+    Game.init(Game.COMMADLINE_ARG_HEADLESS);
+  }
+
+  @AfterAll
+  public static void terminateGame() {
+    Game.config().graphics().setAsyncColorLayers(false);
+    Game.terminate();
+    Game.runHeadless(false);
+  }
+
+  @Test
+  public void testIntersectingSectionsAreMerged() {
+    List<Rectangle2D> merged = ColorLayer.merge(Arrays.asList(
+        new Rectangle2D.Double(0, 0, 10, 10),
+        new Rectangle2D.Double(100, 100, 10, 10),
+        new Rectangle2D.Double(5, 5, 10, 10),
+        new Rectangle2D.Double(2, 2, 2, 2)));
+
+    assertEquals(2, merged.size());
+    assertTrue(merged.contains(new Rectangle2D.Double(0, 0, 15, 15)));
+    assertTrue(merged.contains(new Rectangle2D.Double(100, 100, 10, 10)));
+  }
+
+  @Test
+  public void testUnionsAreMergedTransitively() {
+    // the union of the first two sections intersects the third section
+    List<Rectangle2D> merged = ColorLayer.merge(Arrays.asList(
+        new Rectangle2D.Double(0, 0, 10, 13),
+        new Rectangle2D.Double(20, 12, 5, 5),
+        new Rectangle2D.Double(5, 0, 20, 2)));
+
+    assertEquals(1, merged.size());
+    assertEquals(new Rectangle2D.Double(0, 0, 25, 17), merged.get(0));
+  }
+
+  @Test
+  public void testOnlyTilesInTheViewportAreRendered() {
+    ColorLayer layer = new TestColorLayer(mockEnvironment(null), Color.RED);
+    setViewport(new Rectangle2D.Double(40, 40, 32, 32));
+
+    // the viewport covers the tiles 2 to 4, which are padded by one tile in each direction
+    List<AffineTransform> transforms = render(layer);
+    assertEquals(25, transforms.size());
+    assertEquals(16 - 40, transforms.get(0).getTranslateX());
+    assertEquals(16 - 40, transforms.get(0).getTranslateY());
+    assertEquals(5 * 16 - 40, transforms.get(24).getTranslateX());
+    assertEquals(5 * 16 - 40, transforms.get(24).getTranslateY());
+  }
+
+  @Test
+  public void testTilesAreRenderedWithTheirTileOffset() {
+    ITileOffset offset = mock(ITileOffset.class);
+    when(offset.getX()).thenReturn(3);
+    when(offset.getY()).thenReturn(-2);
+
+    ColorLayer layer = new TestColorLayer(mockEnvironment(offset), Color.RED);
+    setViewport(new Rectangle2D.Double(0, 0, 31, 31));
+
+    List<AffineTransform> transforms = render(layer);
+    assertEquals(9, transforms.size());
+    assertEquals(3, transforms.get(0).getTranslateX());
+    assertEquals(-2, transforms.get(0).getTranslateY());
+    assertEquals(2 * 16 + 3, transforms.get(8).getTranslateX());
+    assertEquals(2 * 16 - 2, transforms.get(8).getTranslateY());
+  }
+
+  @Test
+  public void testAsyncUpdatesReplaceTheTilesOnCompletion() throws InterruptedException {
+    Game.config().graphics().setAsyncColorLayers(true);
+    try {
+      ColorLayer layer = new TestColorLayer(mockEnvironment(null), Color.RED);
+      setViewport(new Rectangle2D.Double(0, 0, 16, 16));
+      Image initial = renderImages(layer).get(0);
+
+      // the tiles are rendered by a worker, but only replaced once the game loop completes the task
+      layer.setColor(Color.BLUE);
+      assertSame(initial, renderImages(layer).get(0));
+      assertSame(initial, renderImages(layer).get(0));
+
+      ((GameLoop) Game.loop()).start();
+      Image updated = initial;
+      for (int i = 0; i < 500 && updated == initial; i++) {
+        Thread.sleep(10);
+        updated = renderImages(layer).get(0);
+      }
+
+      assertNotSame(initial, updated);
+      assertEquals(Color.BLUE.getRGB(), ((BufferedImage) updated).getRGB(1, 1));
+      assertEquals(Color.RED.getRGB(), ((BufferedImage) initial).getRGB(1, 1));
+    } finally {
+      Game.config().graphics().setAsyncColorLayers(false);
+    }
+  }
+
+  private static List<AffineTransform> render(ColorLayer layer) {
+    Graphics2D g = mock(Graphics2D.class);
+    layer.render(g);
+
+    ArgumentCaptor<AffineTransform> captor = ArgumentCaptor.forClass(AffineTransform.class);
+    verify(g, atLeastOnce()).drawImage(any(Image.class), captor.capture(), isNull());
+    return captor.getAllValues();
+  }
+
+  private static List<Image> renderImages(ColorLayer layer) {
+    Graphics2D g = mock(Graphics2D.class);
+    layer.render(g);
+
+    ArgumentCaptor<Image> captor = ArgumentCaptor.forClass(Image.class);
+    verify(g, atLeastOnce()).drawImage(captor.capture(), any(AffineTransform.class), isNull());
+    return captor.getAllValues();
+  }
+
+  private static void setViewport(Rectangle2D viewport) {
+    ICamera camera = mock(ICamera.class);
+    when(camera.getViewport()).thenReturn(viewport);
+    Game.world().setCamera(camera);
+  }
+
+  private static IEnvironment mockEnvironment(ITileOffset tileOffset) {
+    ITileset tileset = mock(ITileset.class);
+    when(tileset.getTileOffset()).thenReturn(tileOffset);
+    when(tileset.containsTile(any(ITile.class))).thenReturn(true);
+
+    ITileLayer tileLayer = mock(ITileLayer.class);
+    ITile tile = mock(ITile.class);
+    when(tileLayer.getTile(anyInt(), anyInt())).thenReturn(tile);
+
+    IMap map = mock(IMap.class);
+    when(map.getOrientation()).thenReturn(MapOrientation.ORTHOGONAL);
+    when(map.getWidth()).thenReturn(MAP_SIZE);
+    when(map.getHeight()).thenReturn(MAP_SIZE);
+    when(map.getTileWidth()).thenReturn(TILE_SIZE);
+    when(map.getTileHeight()).thenReturn(TILE_SIZE);
+    when(map.getTileSize()).thenReturn(new Dimension(TILE_SIZE, TILE_SIZE));
+    when(map.getSizeInPixels()).thenReturn(new Dimension(MAP_SIZE * TILE_SIZE, MAP_SIZE * TILE_SIZE));
+    when(map.getBounds()).thenReturn(new Rectangle2D.Double(0, 0, MAP_SIZE * TILE_SIZE, MAP_SIZE * TILE_SIZE));
+    when(map.getTileShape(anyInt(), anyInt())).thenAnswer(invocation -> new Rectangle2D.Double((int) invocation.getArgument(0) * TILE_SIZE,
+        (int) invocation.getArgument(1) * TILE_SIZE, TILE_SIZE, TILE_SIZE));
+    when(map.getTilesets()).thenReturn(Collections.singletonList(tileset));
+    when(map.getTileLayers()).thenReturn(new ArrayList<>(Collections.singletonList(tileLayer)));
+
+    IEnvironment environment = mock(IEnvironment.class);
+    when(environment.getMap()).thenReturn(map);
+    return environment;
+  }
+
+  private static class TestColorLayer extends ColorLayer {
+    private TestColorLayer(IEnvironment env, Color color) {
+      super(env, color);
+    }
+
+    @Override
+    protected void renderSection(Graphics2D g, Rectangle2D section) {
+      g.setColor(this.getColor());
+      g.fill(new Rectangle2D.Double(0, 0, section.getWidth(), section.getHeight()));
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.Creature;
+import de.gurkenlabs.litiengine.entities.IEntity;
+import de.gurkenlabs.litiengine.physics.SpatialHash;
+
+public class EntityRenderListTests {
+
+  @Test
+  public void testEntitiesOutsideTheViewportAreCulled() {
+    final SpatialHash<IEntity> index = new SpatialHash<>();
+    final Creature visible = add(index, 10, 10);
+    add(index, 500, 500);
+
+    final EntityRenderList renderList = new EntityRenderList(RenderType.NORMAL);
+    renderList.update(index, new Rectangle2D.Double(0, 0, 100, 100), true);
+
+    assertEquals(1, renderList.size());
+    assertSame(visible, renderList.get(0));
+
+    // the creature leaves the viewport
+    move(index, visible, 300, 300);
+    renderList.update(index, new Rectangle2D.Double(0, 0, 100, 100), true);
+    assertEquals(0, renderList.size());
+  }
+
+  @Test
+  public void testEntitiesWithinTheCullingMarginAreKept() {
+    final SpatialHash<IEntity> index = new SpatialHash<>();
+    final Creature nearby = add(index, 110, 10);
+
+    final EntityRenderList renderList = new EntityRenderList(RenderType.NORMAL);
+    final Rectangle2D viewport = new Rectangle2D.Double(0, 0, 100, 100);
+    renderList.update(index, viewport, true);
+    assertEquals(0, renderList.size());
+
+    renderList.update(index, Collections.emptyList(), viewport, 32, true);
+    assertEquals(1, renderList.size());
+    assertSame(nearby, renderList.get(0));
+  }
+
+  @Test
+  public void testRenderableEntitiesAreNeverCulled() {
+    final SpatialHash<IEntity> index = new SpatialHash<>();
+    final Creature visible = add(index, 10, 10);
+
+    final IEntity renderable = mock(IEntity.class, withSettings().extraInterfaces(IRenderable.class));
+    when(renderable.getRenderType()).thenReturn(RenderType.NORMAL);
+    when(renderable.getBoundingBox()).thenReturn(new Rectangle2D.Double(500, 500, 16, 16));
+    when(renderable.getY()).thenReturn(500.0);
+
+    final EntityRenderList renderList = new EntityRenderList(RenderType.NORMAL);
+    renderList.update(index, Arrays.asList(renderable), new Rectangle2D.Double(0, 0, 100, 100), 0, true);
+
+    assertEquals(2, renderList.size());
+    assertSame(visible, renderList.get(0));
+    assertSame(renderable, renderList.get(1));
+  }
+
+  @Test
+  public void testEntitiesAreCulledByTheirSprite() {
+    final Rectangle2D viewport = new Rectangle2D.Double(0, 0, 100, 100);
+    final BufferedImage sprite = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+
+    // the sprite is centered on the entity and reaches 24 pixels beyond its bounds
+    assertTrue(RenderEngine.isVisible(viewport, 0, 110, 10, 16, 16, sprite, false));
+    assertFalse(RenderEngine.isVisible(viewport, 0, 130, 10, 16, 16, sprite, false));
+    assertFalse(RenderEngine.isVisible(viewport, 0, 110, 10, 16, 16, sprite, true));
+    assertFalse(RenderEngine.isVisible(viewport, 0, 110, 10, 16, 16, null, false));
+    assertTrue(RenderEngine.isVisible(viewport, 16, 110, 10, 16, 16, null, false));
+  }
+
+  @Test
+  public void testEntitiesOfOtherRenderTypesAreIgnored() {
+    final SpatialHash<IEntity> index = new SpatialHash<>();
+    add(index, 10, 10);
+
+    final EntityRenderList renderList = new EntityRenderList(RenderType.OVERLAY);
+    renderList.update(index, new Rectangle2D.Double(0, 0, 100, 100), false);
+
+    assertEquals(0, renderList.size());
+  }
+
+  @Test
+  public void testEntitiesAreResortedWhenTheyMove() {
+    final SpatialHash<IEntity> index = new SpatialHash<>();
+    final Creature first = add(index, 10, 50);
+    final Creature second = add(index, 40, 10);
+    final Creature third = add(index, 70, 30);
+
+    final EntityRenderList renderList = new EntityRenderList(RenderType.NORMAL);
+    final Rectangle2D viewport = new Rectangle2D.Double(0, 0, 200, 200);
+    renderList.update(index, viewport, true);
+    assertSame(second, renderList.get(0));
+    assertSame(third, renderList.get(1));
+    assertSame(first, renderList.get(2));
+
+    move(index, second, 40, 60);
+    final Creature fourth = add(index, 100, 0);
+    renderList.update(index, viewport, true);
+
+    assertEquals(4, renderList.size());
+    assertSame(fourth, renderList.get(0));
+    assertSame(third, renderList.get(1));
+    assertSame(first, renderList.get(2));
+    assertSame(second, renderList.get(3));
+
+    index.remove(third);
+    renderList.update(index, viewport, true);
+
+    assertEquals(3, renderList.size());
+    assertSame(fourth, renderList.get(0));
+    assertSame(first, renderList.get(1));
+    assertSame(second, renderList.get(2));
+  }
+
+  @Test
+  public void testListIsClearedForAnotherIndex() {
+    final SpatialHash<IEntity> index = new SpatialHash<>();
+    add(index, 10, 10);
+
+    final EntityRenderList renderList = new EntityRenderList(RenderType.NORMAL);
+    final Rectangle2D viewport = new Rectangle2D.Double(0, 0, 100, 100);
+    renderList.update(index, viewport, true);
+
+    final SpatialHash<IEntity> otherIndex = new SpatialHash<>();
+    final Creature other = add(otherIndex, 20, 20);
+    renderList.update(otherIndex, viewport, true);
+
+    assertEquals(1, renderList.size());
+    assertSame(other, renderList.get(0));
+  }
+
+  private static Creature add(SpatialHash<IEntity> index, double x, double y) {
+    final Creature creature = new Creature();
+    creature.setSize(16, 16);
+    creature.setLocation(x, y);
+    index.add(creature, creature.getBoundingBox());
+    return creature;
+  }
+
+  private static void move(SpatialHash<IEntity> index, Creature creature, double x, double y) {
+    creature.setLocation(x, y);
+    index.update(creature, creature.getBoundingBox());
+  }
+}
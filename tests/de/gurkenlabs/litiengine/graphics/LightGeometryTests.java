@@ -0,0 +1,67 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.LightSource;
+import de.gurkenlabs.litiengine.entities.StaticShadow;
+
+public class LightGeometryTests {
+
+  @Test
+  public void testGeometryIsInvalidatedByChangesOfTheLight() {
+    LightSource light = createLight();
+    List<StaticShadow> shadows = Arrays.asList(new StaticShadow(40, 28, 8, 8, StaticShadowType.DOWN));
+    LightGeometry geometry = new LightGeometry(light, LightGeometry.getStaticShadows(light, shadows), 64);
+
+    assertTrue(geometry.isValid(light, LightGeometry.getStaticShadows(light, shadows), 64));
+
+    light.setColor(Color.RED);
+    assertFalse(geometry.isValid(light, LightGeometry.getStaticShadows(light, shadows), 64));
+
+    geometry = new LightGeometry(light, LightGeometry.getStaticShadows(light, shadows), 64);
+    light.setX(10);
+    assertFalse(geometry.isValid(light, LightGeometry.getStaticShadows(light, shadows), 64));
+  }
+
+  @Test
+  public void testGeometryIsInvalidatedByStaticShadowsWithinTheLight() {
+    LightSource light = createLight();
+    List<StaticShadow> shadows = new ArrayList<>();
+    shadows.add(new StaticShadow(40, 28, 8, 8, StaticShadowType.DOWN));
+    LightGeometry geometry = new LightGeometry(light, LightGeometry.getStaticShadows(light, shadows), 64);
+    assertFalse(geometry.getShadowVolumes().isEmpty());
+
+    // static shadows outside the light's bounding box don't affect it
+    shadows.add(new StaticShadow(100, 100, 8, 8, StaticShadowType.DOWN));
+    assertTrue(geometry.isValid(light, LightGeometry.getStaticShadows(light, shadows), 64));
+
+    shadows.add(new StaticShadow(10, 10, 8, 8, StaticShadowType.DOWN));
+    assertFalse(geometry.isValid(light, LightGeometry.getStaticShadows(light, shadows), 64));
+  }
+
+  @Test
+  public void testLightWithoutStaticShadowsIsNotClipped() {
+    LightSource light = createLight();
+    LightGeometry geometry = new LightGeometry(light, LightGeometry.getStaticShadows(light, new ArrayList<>()), 64);
+
+    assertFalse(geometry.isClippedToShape());
+    assertNull(geometry.getLightArea());
+    assertTrue(geometry.getShadowVolumes().isEmpty());
+  }
+
+  private static LightSource createLight() {
+    LightSource light = new LightSource(255, Color.WHITE, LightSource.ELLIPSE, true);
+    light.setSize(64, 64);
+    light.setLocation(0, 0);
+    return light;
+  }
+}
@@ -0,0 +1,88 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.LightSource;
+import de.gurkenlabs.litiengine.entities.StaticShadow;
+
+public class RasterLightmapTests {
+  private static final Color AMBIENT = new Color(0, 0, 0, 200);
+
+  @Test
+  public void testScanlineSpansCoverPixelCenters() {
+    int[] spans = new int[4];
+    double[] xs = new double[] { 1.5, 4.5, 4.5, 1.5 };
+    double[] ys = new double[] { 0, 0, 3, 3 };
+
+    assertEquals(2, ScanlineRasterizer.getSpans(xs, ys, 4, 1, 10, spans));
+    assertEquals(1, spans[0]);
+    assertEquals(4, spans[1]);
+
+    // the row below the polygon isn't covered
+    assertEquals(0, ScanlineRasterizer.getSpans(xs, ys, 4, 3, 10, spans));
+
+    // spans are clipped to the width of the row
+    assertEquals(2, ScanlineRasterizer.getSpans(xs, ys, 4, 1, 3, spans));
+    assertArrayEquals(new int[] { 1, 3 }, Arrays.copyOf(spans, 2));
+  }
+
+  @Test
+  public void testAmbientColorWithoutLights() {
+    RasterLightmap lightmap = new RasterLightmap(new Rectangle2D.Double(0, 0, 32, 32), 1);
+    lightmap.render(AMBIENT, Collections.emptyList(), light -> null, 16);
+
+    for (int pixel : lightmap.getPixels()) {
+      assertEquals(AMBIENT.getRGB(), pixel);
+    }
+  }
+
+  @Test
+  public void testRectangleLightReplacesAmbientColor() {
+    LightSource light = new LightSource(255, new Color(255, 255, 255, 255), LightSource.RECTANGLE, true);
+    light.setSize(8, 8);
+    light.setLocation(8, 8);
+
+    RasterLightmap lightmap = new RasterLightmap(new Rectangle2D.Double(0, 0, 32, 32), 1);
+    lightmap.render(AMBIENT, Collections.singletonList(light), geometries(Collections.emptyList()), 16);
+
+    assertEquals(Color.WHITE.getRGB(), lightmap.getPixels()[10 * 32 + 10]);
+    assertEquals(AMBIENT.getRGB(), lightmap.getPixels()[20 * 32 + 20]);
+  }
+
+  @Test
+  public void testStaticShadowsCastShadowsIntoLights() {
+    LightSource light = new LightSource(255, new Color(255, 255, 255, 255), LightSource.ELLIPSE, true);
+    light.setSize(64, 64);
+    light.setLocation(0, 0);
+    StaticShadow shadow = new StaticShadow(40, 28, 8, 8, StaticShadowType.DOWN);
+
+    RasterLightmap lit = new RasterLightmap(new Rectangle2D.Double(0, 0, 64, 64), 1);
+    lit.render(AMBIENT, Collections.singletonList(light), geometries(Collections.emptyList()), 16);
+    RasterLightmap shadowed = new RasterLightmap(new Rectangle2D.Double(0, 0, 64, 64), 1);
+    shadowed.render(AMBIENT, Collections.singletonList(light), geometries(Collections.singletonList(shadow)), 16);
+
+    // the pixel behind the static shadow, as seen from the light's center, gets the full ambient color
+    int behind = 32 * 64 + 52;
+    assertTrue(new Color(lit.getPixels()[behind], true).getAlpha() < AMBIENT.getAlpha());
+    assertEquals(AMBIENT.getRGB(), shadowed.getPixels()[behind]);
+
+    // the pixel between the light's center and the static shadow is still lit
+    int before = 32 * 64 + 36;
+    assertEquals(lit.getPixels()[before], shadowed.getPixels()[before]);
+  }
+
+  private static Function<LightSource, LightGeometry> geometries(List<StaticShadow> staticShadows) {
+    return light -> new LightGeometry(light, LightGeometry.getStaticShadows(light, staticShadows), 64);
+  }
+}
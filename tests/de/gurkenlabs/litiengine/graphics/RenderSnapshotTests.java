@@ -0,0 +1,203 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.IEntity;
+import de.gurkenlabs.litiengine.graphics.animation.IEntityAnimationController;
+import de.gurkenlabs.litiengine.physics.SpatialHash;
+
+public class RenderSnapshotTests {
+
+  @Test
+  public void testNormalEntitiesAreSortedByY() {
+    IEntity lower = mockEntity(0, 50);
+    IEntity upper = mockEntity(10, 10);
+    IEntity middle = mockEntity(20, 30);
+    IEntity overlay = mockEntity(0, 0);
+
+    RenderSnapshot snapshot = new RenderSnapshot();
+    snapshot.capture(5, 1, type -> {
+      if (type == RenderType.NORMAL) {
+        return Arrays.asList(lower, upper, middle);
+      }
+
+      return type == RenderType.OVERLAY ? Collections.singletonList(overlay) : Collections.emptyList();
+    });
+
+    assertEquals(5, snapshot.getTick());
+    assertEquals(4, snapshot.size());
+    assertEquals(3, snapshot.size(RenderType.NORMAL));
+    assertEquals(1, snapshot.size(RenderType.OVERLAY));
+
+    int start = snapshot.getStart(RenderType.NORMAL);
+    assertSame(upper, snapshot.getEntity(start));
+    assertSame(middle, snapshot.getEntity(start + 1));
+    assertSame(lower, snapshot.getEntity(start + 2));
+    assertEquals(20, snapshot.getX(start + 1));
+    assertEquals(30, snapshot.getY(start + 1));
+    assertSame(overlay, snapshot.getEntity(snapshot.getStart(RenderType.OVERLAY)));
+  }
+
+  @Test
+  public void testSnapshotsGrow() {
+    IEntity[] entities = new IEntity[200];
+    for (int i = 0; i < entities.length; i++) {
+      entities[i] = mockEntity(0, entities.length - i);
+    }
+
+    RenderSnapshot snapshot = new RenderSnapshot();
+    snapshot.capture(1, 1, type -> type == RenderType.NORMAL ? Arrays.asList(entities) : null);
+
+    assertEquals(200, snapshot.size(RenderType.NORMAL));
+    assertSame(entities[199], snapshot.getEntity(0));
+    assertSame(entities[0], snapshot.getEntity(199));
+
+    snapshot.capture(2, 2, type -> null);
+    assertEquals(0, snapshot.size());
+  }
+
+  @Test
+  public void testEntitiesAreInterpolatedBetweenTwoTicks() {
+    IEntity moving = mockEntity(0, 0);
+    IEntity resting = mockEntity(50, 50);
+
+    RenderSnapshot previous = new RenderSnapshot();
+    previous.capture(1, 1, type -> type == RenderType.NORMAL ? Arrays.asList(moving, resting) : null);
+
+    when(moving.getX()).thenReturn(10.0);
+    when(moving.getY()).thenReturn(20.0);
+    IEntity added = mockEntity(30, 30);
+
+    RenderSnapshot snapshot = new RenderSnapshot();
+    snapshot.capture(2, 2, type -> type == RenderType.NORMAL ? Arrays.asList(added, moving, resting) : null, previous);
+
+    assertSame(moving, snapshot.getEntity(0));
+    assertEquals(0, snapshot.getX(0, 0));
+    assertEquals(5, snapshot.getX(0, 0.5f));
+    assertEquals(10, snapshot.getY(0, 0.5f));
+    assertEquals(10, snapshot.getX(0, 1));
+
+    // entities that weren't captured in the previous tick are rendered at their captured location
+    assertSame(added, snapshot.getEntity(1));
+    assertEquals(30, snapshot.getX(1, 0));
+    assertEquals(50, snapshot.getX(2, 0.5f));
+
+    // snapshots that weren't captured in consecutive ticks are not interpolated
+    snapshot.capture(5, 2, type -> type == RenderType.NORMAL ? Arrays.asList(moving) : null, previous);
+    assertEquals(10, snapshot.getX(0, 0));
+  }
+
+  @Test
+  public void testTransformsAreCopiedIntoReusedInstances() {
+    IEntity animated = mockEntity(0, 0);
+    IEntity still = mockEntity(10, 10);
+    IEntityAnimationController animationController = mock(IEntityAnimationController.class);
+    AffineTransform transform = AffineTransform.getTranslateInstance(5, 0);
+    when(animationController.getAffineTransform()).thenReturn(transform);
+    when(animated.getAnimationController()).thenReturn(animationController);
+
+    RenderSnapshot snapshot = new RenderSnapshot();
+    snapshot.capture(1, 1, type -> type == RenderType.NORMAL ? Arrays.asList(animated, still) : null);
+    AffineTransform captured = snapshot.getTransform(0);
+    assertEquals(transform, captured);
+    assertNotSame(transform, captured);
+    assertNull(snapshot.getTransform(1));
+
+    // the controller's transform changes after the capture, the snapshot keeps the captured state
+    transform.translate(5, 0);
+    assertEquals(5, captured.getTranslateX());
+
+    snapshot.capture(2, 1, type -> type == RenderType.NORMAL ? Arrays.asList(animated, still) : null);
+    assertSame(captured, snapshot.getTransform(0));
+    assertEquals(10, captured.getTranslateX());
+
+    // a slot whose entity has no transform anymore doesn't provide the transform of the previous capture
+    when(animationController.getAffineTransform()).thenReturn(null);
+    snapshot.capture(3, 1, type -> type == RenderType.NORMAL ? Arrays.asList(animated, still) : null);
+    assertNull(snapshot.getTransform(0));
+  }
+
+  @Test
+  public void testBufferCapturesTheEntitiesInTheArea() {
+    IEntity lower = mockEntity(0, 50);
+    IEntity upper = mockEntity(10, 10);
+    IEntity outside = mockEntity(500, 500);
+    IEntity overlay = mockEntity(20, 20);
+    when(lower.getRenderType()).thenReturn(RenderType.NORMAL);
+    when(upper.getRenderType()).thenReturn(RenderType.NORMAL);
+    when(outside.getRenderType()).thenReturn(RenderType.NORMAL);
+    when(overlay.getRenderType()).thenReturn(RenderType.OVERLAY);
+
+    SpatialHash<IEntity> entities = new SpatialHash<>(32);
+    for (IEntity entity : Arrays.asList(lower, upper, outside, overlay)) {
+      entities.add(entity, entity.getBoundingBox());
+    }
+
+    RenderSnapshotBuffer buffer = new RenderSnapshotBuffer();
+    buffer.capture(1, 1, entities, Collections.emptyList(), new Rectangle2D.Double(0, 0, 100, 100), 0);
+
+    RenderSnapshot snapshot = buffer.acquire();
+    assertEquals(1, snapshot.getTick());
+    assertEquals(2, snapshot.size(RenderType.NORMAL));
+    assertSame(upper, snapshot.getEntity(snapshot.getStart(RenderType.NORMAL)));
+    assertSame(lower, snapshot.getEntity(snapshot.getStart(RenderType.NORMAL) + 1));
+    assertEquals(1, snapshot.size(RenderType.OVERLAY));
+
+    // the entities swap their order once the upper entity moves below the lower one
+    when(upper.getY()).thenReturn(70.0);
+    when(upper.getBoundingBox()).thenReturn(new Rectangle2D.Double(10, 70, 10, 10));
+    entities.update(upper, upper.getBoundingBox());
+    buffer.capture(2, 1, entities, Collections.emptyList(), new Rectangle2D.Double(0, 0, 100, 100), 0);
+
+    snapshot = buffer.acquire();
+    assertSame(lower, snapshot.getEntity(snapshot.getStart(RenderType.NORMAL)));
+    assertSame(upper, snapshot.getEntity(snapshot.getStart(RenderType.NORMAL) + 1));
+    assertEquals(10, snapshot.getY(snapshot.getStart(RenderType.NORMAL) + 1, 0));
+  }
+
+  @Test
+  public void testBufferHandsOverTheLatestSnapshot() {
+    RenderSnapshotBuffer buffer = new RenderSnapshotBuffer();
+    RenderSnapshot initial = buffer.acquire();
+    assertEquals(-1, initial.getTick());
+
+    buffer.getBackBuffer().capture(1, 1, type -> null);
+    buffer.publish();
+    buffer.getBackBuffer().capture(2, 1, type -> null);
+    buffer.publish();
+
+    // the render thread skips snapshots that were replaced before it acquired them
+    RenderSnapshot latest = buffer.acquire();
+    assertEquals(2, latest.getTick());
+    assertSame(latest, buffer.getPublished());
+    assertSame(latest, buffer.acquire());
+
+    // the snapshot that is rendered is never handed out for capturing
+    buffer.publish();
+    assertNotSame(latest, buffer.getBackBuffer());
+    buffer.publish();
+    assertNotSame(latest, buffer.getBackBuffer());
+  }
+
+  private static IEntity mockEntity(double x, double y) {
+    IEntity entity = mock(IEntity.class);
+    when(entity.getX()).thenReturn(x);
+    when(entity.getY()).thenReturn(y);
+    when(entity.getWidth()).thenReturn(10f);
+    when(entity.getHeight()).thenReturn(10f);
+    when(entity.getBoundingBox()).thenReturn(new Rectangle2D.Double(x, y, 10, 10));
+    return entity;
+  }
+}
@@ -0,0 +1,83 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.StaticShadow;
+
+/**
+ * Compares the time it takes to render the static shadows of a section by filling the union of their areas and by rasterizing them with
+ * the {@link ScanlineRasterizer}.
+ * <p>
+ * This benchmark is disabled by default because it takes a while and its results depend on the machine; enable it to compare the timings,
+ * which are logged.
+ * </p>
+ */
+@Tag("benchmark")
+@Disabled("benchmark, run it manually")
+public class StaticShadowLayerBenchmarkTests {
+  private static final Logger log = Logger.getLogger(StaticShadowLayerBenchmarkTests.class.getName());
+  private static final int SECTION_SIZE = 1024;
+  private static final int WARMUP_RUNS = 5;
+  private static final int RUNS = 10;
+
+  @Test
+  public void testRenderShadows() {
+    final Color color = new Color(0, 0, 0, 75);
+    final Rectangle2D section = new Rectangle2D.Double(0, 0, SECTION_SIZE, SECTION_SIZE);
+
+    for (int count = 50; count <= 1600; count *= 2) {
+      final List<StaticShadow> shadows = createShadows(count);
+      final double area = measure(() -> {
+        final BufferedImage image = new BufferedImage(SECTION_SIZE, SECTION_SIZE, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = image.createGraphics();
+        StaticShadowLayer.fillShadows(g, shadows, section, color);
+        g.dispose();
+      });
+
+      final double raster = measure(() -> assertNotNull(StaticShadowLayer.rasterizeShadows(shadows, section, color)));
+      log.info(String.format("%d shadows: area %.2f ms, raster %.2f ms", count, area, raster));
+    }
+  }
+
+  /**
+   * Creates shadows on a grid of 16 pixel tiles like the collision boxes of an indoor map, so that many of them touch or overlap.
+   */
+  private static List<StaticShadow> createShadows(int count) {
+    final Random random = new Random(count);
+    final StaticShadowType[] types = StaticShadowType.values();
+    final List<StaticShadow> shadows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final StaticShadow shadow = new StaticShadow(random.nextInt(SECTION_SIZE / 16) * 16, random.nextInt(SECTION_SIZE / 16) * 16, 16 * (1 + random.nextInt(4)), 16 * (1 + random.nextInt(2)), types[random.nextInt(types.length)]);
+      shadow.setOffset(random.nextInt(16));
+      shadows.add(shadow);
+    }
+
+    return shadows;
+  }
+
+  private static double measure(Runnable run) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      run.run();
+    }
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < RUNS; i++) {
+      run.run();
+    }
+
+    return (System.nanoTime() - start) / 1e6 / RUNS;
+  }
+}
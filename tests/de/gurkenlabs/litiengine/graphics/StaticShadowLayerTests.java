@@ -0,0 +1,68 @@
+package de.gurkenlabs.litiengine.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.entities.StaticShadow;
+
+public class StaticShadowLayerTests {
+
+  @Test
+  public void testRasterizedShadowsAreIdenticalToTheFilledArea() {
+    final Color color = new Color(0, 0, 0, 75);
+    for (StaticShadowType type : StaticShadowType.values()) {
+      for (int offset : new int[] { 0, 7, 10, 15 }) {
+        final List<StaticShadow> shadows = new ArrayList<>();
+        shadows.add(createShadow(type, offset, 8, 8, 20, 12));
+        shadows.add(createShadow(type, offset, 60.5, 8.25, 17, 9));
+        shadows.add(createShadow(type, offset, 16, 52, 30, 20));
+
+        for (Rectangle2D section : new Rectangle2D[] { new Rectangle2D.Double(0, 0, 96, 96), new Rectangle2D.Double(16, 8, 48, 40) }) {
+          assertArrayEquals(getPixels(fill(shadows, section, color)), getPixels(StaticShadowLayer.rasterizeShadows(shadows, section, color)), type + " with offset " + offset + " in " + section);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOverlappingShadowsAreNotDarker() {
+    final Color color = new Color(0, 0, 0, 75);
+    final List<StaticShadow> shadows = new ArrayList<>();
+    shadows.add(createShadow(StaticShadowType.NOOFFSET, 0, 16, 16, 32, 16));
+    shadows.add(createShadow(StaticShadowType.NOOFFSET, 0, 24, 24, 30, 30));
+
+    final Rectangle2D section = new Rectangle2D.Double(0, 0, 64, 64);
+    final BufferedImage rasterized = StaticShadowLayer.rasterizeShadows(shadows, section, color);
+
+    assertArrayEquals(getPixels(fill(shadows, section, color)), getPixels(rasterized));
+    assertEquals(color.getRGB(), rasterized.getRGB(30, 30));
+    assertEquals(0, rasterized.getRGB(10, 10));
+  }
+
+  private static BufferedImage fill(List<StaticShadow> shadows, Rectangle2D section, Color color) {
+    final BufferedImage filled = new BufferedImage((int) section.getWidth(), (int) section.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D g = filled.createGraphics();
+    StaticShadowLayer.fillShadows(g, shadows, section, color);
+    g.dispose();
+    return filled;
+  }
+
+  private static StaticShadow createShadow(StaticShadowType type, int offset, double x, double y, float width, float height) {
+    final StaticShadow shadow = new StaticShadow(x, y, width, height, type);
+    shadow.setOffset(offset);
+    return shadow;
+  }
+
+  private static int[] getPixels(BufferedImage image) {
+    return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+  }
+}
@@ -1,7 +1,10 @@
 package de.gurkenlabs.litiengine.physics;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 
 import org.junit.jupiter.api.Test;
@@ -201,6 +204,66 @@ public class CollisionResolvingTests {
     assertEquals(30, ent.getY(), EPSILON);
   }
 
+  @Test
+  public void testMovementWithResultHolder() {
+    Creature ent = getNewCreature();
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(ent);
+    engine.add(new Rectangle2D.Double(25, 0, 10, 100));
+
+    Point2D.Double result = new Point2D.Double();
+    Rectangle2D.Double intersection = new Rectangle2D.Double();
+
+    assertTrue(engine.collides(20, 10, 10, 10, ent, intersection));
+    assertEquals(5, intersection.getWidth(), EPSILON);
+    assertFalse(engine.collides(10, 10, 10, 10, ent, null));
+
+    // the collision box is pushed out to the left side of the rectangle
+    assertFalse(engine.move(ent, 20, 10, result));
+    assertEquals(15, result.getX(), EPSILON);
+    assertEquals(10, result.getY(), EPSILON);
+    assertEquals(15, ent.getX(), EPSILON);
+
+    assertTrue(engine.move(ent, 15, 50, result));
+    assertEquals(50, result.getY(), EPSILON);
+  }
+
+  @Test
+  public void testContinuousCollisionPreventsTunneling() {
+    Creature ent = getNewCreature();
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(ent);
+
+    // thin wall that is skipped by a single discrete step
+    engine.add(new Rectangle2D.Double(50, 0, 2, 100));
+
+    ent.setContinuousCollision(true);
+    assertFalse(engine.move(ent, 90, 100));
+    assertEquals(40, ent.getX(), EPSILON);
+    assertEquals(10, ent.getY(), EPSILON);
+  }
+
+  @Test
+  public void testContinuousCollisionSlidesAlongCollisionBox() {
+    Creature ent = getNewCreature();
+    ent.setContinuousCollision(true);
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(ent);
+    engine.add(new Rectangle2D.Double(50, -100, 2, 200));
+
+    // diagonal movement into the wall keeps the vertical part of the movement
+    assertFalse(engine.move(ent, 130, 40));
+    assertEquals(40, ent.getX(), EPSILON);
+    assertEquals(10 - 40 * Math.cos(Math.toRadians(50)), ent.getY(), EPSILON);
+
+    // moving along the wall is not blocked by it
+    assertTrue(engine.move(ent, 0, 30));
+    assertEquals(40, ent.getX(), EPSILON);
+  }
+
   private static Creature getNewCreature() {
     Creature ent = new Creature();
     ent.setX(10);
@@ -0,0 +1,43 @@
+package de.gurkenlabs.litiengine.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.gurkenlabs.litiengine.Game;
+import de.gurkenlabs.litiengine.ILoop;
+import de.gurkenlabs.litiengine.entities.Creature;
+
+public class MovementControllerTests {
+  @BeforeAll
+  public static void setup() {
+    Game.init(Game.COMMADLINE_ARG_HEADLESS);
+  }
+
+  @AfterAll
+  public static void terminateGame() {
+    Game.terminate();
+    Game.runHeadless(false);
+  }
+
+  @Test
+  public void testSleepingControllerIsWokenInItsUpdatePhase() {
+    MovementController<Creature> controller = new MovementController<>(new Creature());
+    Game.loop().attach(controller, 3, true);
+
+    controller.update();
+    assertTrue(controller.isSleeping());
+    assertEquals(ILoop.DEFAULT_UPDATE_PHASE, Game.loop().getUpdatePhase(controller));
+
+    controller.setDx(1);
+    assertFalse(controller.isSleeping());
+    assertEquals(3, Game.loop().getUpdatePhase(controller));
+    assertTrue(Game.loop().isParallel(controller));
+
+    Game.loop().detach(controller);
+  }
+}
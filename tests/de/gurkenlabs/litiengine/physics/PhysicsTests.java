@@ -1,5 +1,6 @@
 package de.gurkenlabs.litiengine.physics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -9,10 +10,14 @@ import static org.mockito.Mockito.when;
 
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import de.gurkenlabs.litiengine.GameLoop;
+import de.gurkenlabs.litiengine.Valign;
+import de.gurkenlabs.litiengine.entities.CollisionEntity;
 import de.gurkenlabs.litiengine.entities.Creature;
 import de.gurkenlabs.litiengine.entities.IMobileEntity;
 
@@ -53,6 +58,103 @@ public class PhysicsTests {
     }
   }
 
+  @Test
+  public void testCollisionBoxesFollowEntityWithoutUpdate() {
+    Creature ent = new Creature();
+    ent.setSize(16, 16);
+    ent.setCollision(true);
+    ent.setCollisionBoxWidth(16);
+    ent.setCollisionBoxHeight(16);
+    ent.setLocation(10, 10);
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(ent);
+    engine.add(new Rectangle2D.Double(500, 500, 10, 10));
+
+    assertTrue(engine.collides(15, 15));
+
+    ent.setLocation(200, 200);
+
+    assertFalse(engine.collides(15, 15));
+    assertTrue(engine.collides(205, 205));
+    assertTrue(engine.collides(505, 505, CollisionType.STATIC));
+    assertEquals(2, engine.getAllCollisionBoxes().size());
+
+    engine.remove(ent);
+    ent.setLocation(10, 10);
+
+    assertFalse(engine.collides(15, 15));
+    assertFalse(engine.collides(205, 205));
+    assertEquals(1, engine.getAllCollisionBoxes().size());
+  }
+
+  @Test
+  public void testResizedCollisionBoxesAreQueried() {
+    Creature ent = new Creature();
+    ent.setSize(16, 16);
+    ent.setCollision(true);
+    ent.setCollisionBoxWidth(16);
+    ent.setCollisionBoxHeight(16);
+    ent.setLocation(10, 10);
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(ent);
+
+    assertFalse(engine.collides(100, 20));
+
+    // the collision box now spans multiple cells of the broad phase
+    ent.setCollisionBoxWidth(200);
+    ent.setCollisionBoxHeight(100);
+
+    assertTrue(engine.collides(100, 70));
+    assertTrue(engine.collides(new Rectangle2D.Double(-60, -20, 5, 5)));
+    assertNotNull(engine.raycast(new Line2D.Double(100, 200, 100, 0)));
+
+    // the bigger collision box is aligned to the top of the entity
+    ent.setCollisionBoxValign(Valign.TOP);
+
+    assertFalse(engine.collides(100, 70));
+    assertTrue(engine.collides(100, -30));
+  }
+
+  @Test
+  public void testCollisionLayersFilterCollisions() {
+    Creature ent = new Creature();
+    ent.setSize(16, 16);
+    ent.setCollision(true);
+    ent.setCollisionBoxWidth(16);
+    ent.setCollisionBoxHeight(16);
+    ent.setLocation(10, 10);
+
+    Creature other = new Creature();
+    other.setSize(16, 16);
+    other.setCollision(true);
+    other.setCollisionBoxWidth(16);
+    other.setCollisionBoxHeight(16);
+    other.setLocation(10, 10);
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(ent);
+    engine.add(other);
+    engine.add(new Rectangle2D.Double(100, 0, 10, 10), 4, CollisionEntity.ALL_COLLISION_LAYERS);
+
+    assertEquals(CollisionEntity.DEFAULT_COLLISION_LAYER, ent.getCollisionLayer());
+    assertTrue(engine.collides(15, 15, ent));
+    assertTrue(engine.collides(105, 5, ent));
+
+    // the other entity is moved to a layer that is not included in the mask of the entity
+    other.setCollisionLayer(2);
+    ent.setCollisionMask(1 | 4);
+    assertFalse(engine.collides(15, 15, ent));
+    assertTrue(engine.collides(105, 5, ent));
+
+    ent.setCollisionMask(1);
+    assertFalse(engine.collides(105, 5, ent));
+
+    // collision checks without an entity are not filtered by layers
+    assertTrue(engine.collides(15, 15));
+  }
+
   @Test
   public void testPointCollides() {
     IMobileEntity ent = mock(IMobileEntity.class);
@@ -91,6 +193,59 @@ public class PhysicsTests {
     assertNull(engine.collides(new Line2D.Double(15.1, 15.0, 15, 15)));
   }
 
+  @Test
+  public void testRaycastReturnsNearestHit() {
+    IMobileEntity ent = mock(IMobileEntity.class);
+    when(ent.getCollisionBox()).thenReturn(new Rectangle2D.Double(40, 0, 10, 10));
+    when(ent.hasCollision()).thenReturn(true);
+
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(new Rectangle2D.Double(200, 0, 10, 10));
+    engine.add(ent);
+    engine.add(new Rectangle2D.Double(100, 0, 10, 10));
+
+    RaycastHit hit = engine.raycast(new Line2D.Double(0, 5, 300, 5));
+    assertNotNull(hit);
+    assertEquals(ent, hit.getEntity());
+    assertEquals(40, hit.getPoint().getX(), 0.0001);
+    assertEquals(40, hit.getDistance(), 0.0001);
+    assertEquals(-1, hit.getNormal().getX(), 0.0001);
+    assertEquals(0, hit.getNormal().getY(), 0.0001);
+
+    RaycastHit staticHit = engine.raycast(new Line2D.Double(0, 5, 300, 5), CollisionType.STATIC);
+    assertNotNull(staticHit);
+    assertTrue(staticHit.isStatic());
+    assertEquals(100, staticHit.getPoint().getX(), 0.0001);
+
+    RaycastHit reverseHit = engine.raycast(new Line2D.Double(300, 5, 0, 5));
+    assertEquals(210, reverseHit.getPoint().getX(), 0.0001);
+    assertEquals(1, reverseHit.getNormal().getX(), 0.0001);
+
+    assertNull(engine.raycast(new Line2D.Double(0, 20, 300, 20)));
+  }
+
+  @Test
+  public void testBatchRaycast() {
+    PhysicsEngine engine = new PhysicsEngine();
+    engine.add(new Rectangle2D.Double(100, 0, 10, 1000));
+
+    List<Line2D> rays = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      rays.add(new Line2D.Double(0, i * 2 + 0.5, i % 2 == 0 ? 300 : 50, i * 2 + 0.5));
+    }
+
+    List<RaycastHit> hits = engine.raycast(rays, CollisionType.ALL);
+    assertEquals(rays.size(), hits.size());
+    for (int i = 0; i < hits.size(); i++) {
+      if (i % 2 == 0) {
+        assertEquals(100, hits.get(i).getPoint().getX(), 0.0001);
+        assertEquals(rays.get(i).getY1(), hits.get(i).getPoint().getY(), 0.0001);
+      } else {
+        assertNull(hits.get(i));
+      }
+    }
+  }
+
   @Test
   public void testRectangleCollides() {
     IMobileEntity ent = mock(IMobileEntity.class);
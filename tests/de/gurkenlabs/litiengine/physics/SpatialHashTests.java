@@ -0,0 +1,108 @@
+package de.gurkenlabs.litiengine.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SpatialHashTests {
+
+  @Test
+  public void testFindInOverlappingCells() {
+    SpatialHash<String> hash = new SpatialHash<>(10);
+    hash.add("a", new Rectangle2D.Double(0, 0, 5, 5));
+    hash.add("b", new Rectangle2D.Double(100, 100, 5, 5));
+
+    assertEquals("a", hash.find(2, 2, x -> true));
+    assertEquals("b", hash.find(new Rectangle2D.Double(95, 95, 10, 10), x -> true));
+    assertNull(hash.find(50, 50, "a"::equals));
+  }
+
+  @Test
+  public void testQueryReturnsEveryItemOnce() {
+    SpatialHash<String> hash = new SpatialHash<>(10);
+    hash.add("large", new Rectangle2D.Double(0, 0, 45, 45));
+
+    List<String> result = new ArrayList<>();
+    hash.query(new Rectangle2D.Double(0, 0, 50, 50), result);
+
+    assertEquals(1, result.size());
+  }
+
+  @Test
+  public void testUpdateMovesItemToOtherCells() {
+    SpatialHash<String> hash = new SpatialHash<>(10);
+    hash.add("a", new Rectangle2D.Double(0, 0, 5, 5));
+
+    assertFalse(hash.update("a", new Rectangle2D.Double(1, 1, 5, 5)));
+    assertTrue(hash.update("a", new Rectangle2D.Double(200, 200, 5, 5)));
+
+    assertNull(hash.find(2, 2, "a"::equals));
+    assertEquals("a", hash.find(202, 202, "a"::equals));
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    SpatialHash<String> hash = new SpatialHash<>(10);
+    hash.add("a", new Rectangle2D.Double(0, 0, 5, 5));
+    hash.add("b", null);
+
+    assertEquals(2, hash.size());
+    assertEquals("b", hash.find(1000, 1000, x -> true));
+
+    assertTrue(hash.remove("a"));
+    assertFalse(hash.contains("a"));
+    assertNull(hash.find(2, 2, "a"::equals));
+
+    hash.clear();
+    assertEquals(0, hash.size());
+    assertNull(hash.find(1000, 1000, x -> true));
+  }
+
+  @Test
+  public void testChangingCellSizeKeepsItems() {
+    SpatialHash<String> hash = new SpatialHash<>(10);
+    hash.add("a", new Rectangle2D.Double(40, 40, 5, 5));
+
+    hash.setCellSize(64);
+
+    assertEquals(64, hash.getCellSize());
+    assertEquals("a", hash.find(42, 42, x -> true));
+    assertNull(hash.find(1000, 1000, x -> true));
+  }
+
+  @Test
+  public void testRaycastFindsNearestCandidate() {
+    SpatialHash<Rectangle2D> hash = new SpatialHash<>(10);
+    Rectangle2D near = new Rectangle2D.Double(30, 0, 5, 5);
+    Rectangle2D far = new Rectangle2D.Double(80, 0, 5, 5);
+    hash.add(far, far);
+    hash.add(near, near);
+
+    assertEquals(near, hash.raycast(0, 2, 100, 2, box -> box.getMinX() / 100));
+    assertEquals(far, hash.raycast(100, 2, 0, 2, box -> (100 - box.getMaxX()) / 100));
+    assertNull(hash.raycast(0, 50, 100, 50, box -> Double.NaN));
+  }
+
+  @Test
+  public void testNearestItemsAreOrderedByDistance() {
+    SpatialHash<String> hash = new SpatialHash<>(10);
+    hash.add("a", new Rectangle2D.Double(0, 0, 5, 5));
+    hash.add("b", new Rectangle2D.Double(30, 0, 5, 5));
+    hash.add("c", new Rectangle2D.Double(-100, 0, 5, 5));
+    hash.add("d", new Rectangle2D.Double(500, 500, 5, 5));
+    hash.add("large", new Rectangle2D.Double(12, -10, 4, 100));
+
+    assertEquals(Arrays.asList("a", "large", "b"), hash.nearest(2, 2, 3, x -> true));
+    assertEquals(Arrays.asList("b", "c"), hash.nearest(2, 2, 2, x -> x.length() == 1 && !x.equals("a")));
+    assertEquals(Arrays.asList("d", "large", "b", "a", "c"), hash.nearest(600, 600, 10, x -> true));
+    assertTrue(hash.nearest(2, 2, 0, x -> true).isEmpty());
+  }
+}